@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * ArrayFunction instances for the special functions, and parallel evaluation of an
+ * ArrayFunction over large arrays: the array is split into contiguous chunks, one task per
+ * chunk, run on a shared pool of daemon threads (one per processor) or on a caller supplied
+ * ExecutorService.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class ArrayFunctions {
+
+    /* arrays shorter than this are evaluated in the calling thread */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int MIN_CHUNK = 1 << 14;
+
+    public static final ArrayFunction ERF = new ArrayFunction() {
+        @Override
+        public void apply(double[] in, double[] out, int from, int to) {
+            Erf.erf(in, out, from, to);
+        }
+    };
+
+    public static final ArrayFunction ERFC = new ArrayFunction() {
+        @Override
+        public void apply(double[] in, double[] out, int from, int to) {
+            Erf.erfc(in, out, from, to);
+        }
+    };
+
+    public static final ArrayFunction PHI = new ArrayFunction() {
+        @Override
+        public void apply(double[] in, double[] out, int from, int to) {
+            Phi.phi(in, out, from, to);
+        }
+    };
+
+    public static final ArrayFunction NORMAL_CDF_INVERSE = new ArrayFunction() {
+        @Override
+        public void apply(double[] in, double[] out, int from, int to) {
+            NormalCDFInverse.normalCDFInverse(in, out, from, to);
+        }
+    };
+
+    public static final ArrayFunction GAMMA = new ArrayFunction() {
+        @Override
+        public void apply(double[] in, double[] out, int from, int to) {
+            Gamma.gamma(in, out, from, to);
+        }
+    };
+
+    public static final ArrayFunction LOG_GAMMA = new ArrayFunction() {
+        @Override
+        public void apply(double[] in, double[] out, int from, int to) {
+            Gamma.logGamma(in, out, from, to);
+        }
+    };
+
+    public static final ArrayFunction EXPM1 = new ArrayFunction() {
+        @Override
+        public void apply(double[] in, double[] out, int from, int to) {
+            Expm1.expm1(in, out, from, to);
+        }
+    };
+
+    /**
+     * shared pool, created on first use
+     */
+    private static final class PoolHolder {
+
+        static final ExecutorService POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ArrayFunctions");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Evaluate the function over the whole array in parallel on the shared pool
+     *
+     * @param function
+     * @param in
+     * @param out      at least as long as in, may be the same array
+     */
+    public static void parallel(ArrayFunction function, double[] in, double[] out) {
+        if (in.length < PARALLEL_THRESHOLD) {
+            function.apply(in, out, 0, in.length);
+            return;
+        }
+        parallel(function, in, out, 0, in.length, PoolHolder.POOL);
+    }
+
+    /**
+     * Evaluate the function over in[from, to) in parallel on the given executor
+     *
+     * @param function
+     * @param in
+     * @param out      may be the same array as in
+     * @param from     first index, inclusive
+     * @param to       last index, exclusive
+     * @param executor
+     */
+    public static void parallel(final ArrayFunction function, final double[] in, final double[] out,
+                                int from, int to, ExecutorService executor) {
+        int n = to - from;
+        int tasks = 4 * Runtime.getRuntime().availableProcessors();
+        int chunk = Math.max(MIN_CHUNK, (n + tasks - 1) / tasks);
+        if (n <= chunk) {
+            function.apply(in, out, from, to);
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int lo = from; lo < to; lo += chunk) {
+            final int start = lo;
+            final int end = (int) Math.min((long) lo + chunk, to);
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    function.apply(in, out, start, end);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel evaluation interrupted.", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel evaluation failed.", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Beta distribution with shape parameters a and b; see RandomNumberFactory.getBeta
+ * see: http://en.wikipedia.org/wiki/Beta_distribution
+ * <p/>
+ * Samples are formed as u / (u + v) from two gamma samples, using cached GammaDistribution
+ * instances for each shape.
+ * <p/>
+ * The cdf is the regularized incomplete beta function I_x(a, b) and the quantile its
+ * inverse, Beta.inverseRegularizedBeta.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class BetaDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = -1218011245539062361L;
+
+    private final double a;
+    private final double b;
+    private final GammaDistribution gammaA;
+    private final GammaDistribution gammaB;
+    private final double logBeta;
+
+    /**
+     * @param a must be positive
+     * @param b must be positive
+     */
+    public BetaDistribution(double a, double b) {
+        checkPositive("Beta parameter a", a);
+        checkPositive("Beta parameter b", b);
+        this.a = a;
+        this.b = b;
+        this.gammaA = new GammaDistribution(a, 1.0);
+        this.gammaB = new GammaDistribution(b, 1.0);
+        this.logBeta = Gamma.logGamma(a) + Gamma.logGamma(b) - Gamma.logGamma(a + b);
+    }
+
+    public double getA() {
+        return a;
+    }
+
+    public double getB() {
+        return b;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        double u = gammaA.sample(randomNumberGenerator);
+        double v = gammaB.sample(randomNumberGenerator);
+        return u / (u + v);
+    }
+
+    @Override
+    public double pdf(double x) {
+        if (x < 0.0 || x > 1.0) {
+            return 0.0;
+        }
+        return Math.exp((a - 1.0) * Math.log(x) + (b - 1.0) * Math.log1p(-x) - logBeta);
+    }
+
+    @Override
+    public double cdf(double x) {
+        if (x <= 0.0) {
+            return 0.0;
+        }
+        if (x >= 1.0) {
+            return 1.0;
+        }
+        return Beta.regularizedBeta(x, a, b);
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        return Beta.inverseRegularizedBeta(p, a, b);
+    }
+}
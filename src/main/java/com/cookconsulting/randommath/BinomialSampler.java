@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Binomial distribution: the number of successes in n independent trials with success
+ * probability p.
+ * see: http://en.wikipedia.org/wiki/Binomial_distribution
+ * <p/>
+ * With min(p, 1 - p) n below 10 samples use sequential inversion, otherwise Hormann's
+ * transformed rejection with squeeze (BTRS), whose expected cost does not depend on n.
+ * <p/>
+ * see: Hormann, W. The generation of binomial random variates, Journal of Statistical
+ * Computation and Simulation 46 (1993) 101-110
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class BinomialSampler extends AbstractDiscreteSampler {
+
+    private static final long serialVersionUID = -6706386386437071322L;
+
+    private static final double BTRS_LIMIT = 10.0;
+
+    private final long trials;
+    private final double probability;
+
+    /**
+     * @param trials      number of trials, must not be negative
+     * @param probability success probability, in the range [0, 1]
+     */
+    public BinomialSampler(long trials, double probability) {
+        checkParameters(trials, probability);
+        this.trials = trials;
+        this.probability = probability;
+    }
+
+    public long getTrials() {
+        return trials;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    /**
+     * @param k
+     * @return P(X <= k) = I_{1 - p}(n - k, k + 1), the regularized incomplete beta function
+     */
+    public double cdf(long k) {
+        if (k < 0) {
+            return 0.0;
+        }
+        if (k >= trials) {
+            return 1.0;
+        }
+        return Beta.regularizedBeta(1.0 - probability, trials - k, k + 1.0);
+    }
+
+    @Override
+    public long sample(RandomNumberGenerator randomNumberGenerator) {
+        return binomial(randomNumberGenerator, trials, probability);
+    }
+
+    static void checkParameters(long trials, double probability) {
+        if (trials < 0) {
+            String msg = String.format("Number of trials must not be negative. Received %d.", trials);
+            throw new IllegalArgumentException(msg);
+        }
+        if (!(probability >= 0.0 && probability <= 1.0)) {
+            String msg = String.format("Probability must be in the range [0, 1]. Received %f.",
+                                       probability);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * Sample a binomial distribution whose parameters change from call to call, as in the
+     * conditional binomials of a multinomial draw. The set up costs a few logarithms.
+     *
+     * @param randomNumberGenerator
+     * @param trials                must not be negative
+     * @param probability           in the range [0, 1]
+     * @return
+     */
+    static long binomial(RandomNumberGenerator randomNumberGenerator, long trials, double probability) {
+        if (trials == 0 || probability == 0.0) {
+            return 0;
+        }
+        if (probability == 1.0) {
+            return trials;
+        }
+        boolean reflected = probability > 0.5;
+        double p = reflected ? 1.0 - probability : probability;
+        long k = (trials * p < BTRS_LIMIT) ? inversion(randomNumberGenerator, trials, p) :
+            btrs(randomNumberGenerator, trials, p);
+        return reflected ? trials - k : k;
+    }
+
+    /**
+     * walk the pmf from 0 with the recurrence P(x) = P(x - 1) (n - x + 1) / x p / q
+     */
+    private static long inversion(RandomNumberGenerator rng, long n, double p) {
+        double q = 1.0 - p;
+        double s = p / q;
+        double a = (n + 1) * s;
+        double r0 = Math.exp(n * Math.log1p(-p));
+        while (true) {
+            double u = RandomNumberFactory.uniform(rng);
+            double r = r0;
+            long x = 0;
+            while (u > r) {
+                u -= r;
+                x++;
+                if (x > n) {
+                    break;
+                }
+                r *= a / x - s;
+            }
+            // rounding may leave u above the total mass, in which case redraw
+            if (x <= n) {
+                return x;
+            }
+        }
+    }
+
+    private static long btrs(RandomNumberGenerator rng, long n, double p) {
+        double q = 1.0 - p;
+        double spq = Math.sqrt(n * p * q);
+        double b = 1.15 + 2.53 * spq;
+        double a = -0.0873 + 0.0248 * b + 0.01 * p;
+        double c = n * p + 0.5;
+        double vr = 0.92 - 4.2 / b;
+        double alpha = (2.83 + 5.1 / b) * spq;
+        double lpq = Math.log(p / q);
+        double m = Math.floor((n + 1) * p);
+        double h = Gamma.logGamma(m + 1.0) + Gamma.logGamma(n - m + 1.0);
+        while (true) {
+            double u = RandomNumberFactory.uniform(rng) - 0.5;
+            double v = RandomNumberFactory.uniform(rng);
+            double us = 0.5 - Math.abs(u);
+            double k = Math.floor((2.0 * a / us + b) * u + c);
+            if (k < 0.0 || k > n) {
+                continue;
+            }
+            if (us >= 0.07 && v <= vr) {
+                return (long) k;
+            }
+            v = Math.log(v * alpha / (a / (us * us) + b));
+            if (v <= h - Gamma.logGamma(k + 1.0) - Gamma.logGamma(n - k + 1.0) + (k - m) * lpq) {
+                return (long) k;
+            }
+        }
+    }
+}
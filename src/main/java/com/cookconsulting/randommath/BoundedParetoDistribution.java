@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Bounded (truncated) Pareto distribution on [lower, upper] with shape alpha: the density is
+ * proportional to x^-(alpha + 1) on the interval.
+ * see: http://en.wikipedia.org/wiki/Pareto_distribution#Bounded_Pareto_distribution
+ * <p/>
+ * Samples use inversion of the cdf.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class BoundedParetoDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = 6084393453519006741L;
+
+    private final double lower;
+    private final double upper;
+    private final double shape;
+    private final double inverseShape;
+    /* 1 - (lower / upper)^alpha, the mass of [lower, upper] under the unbounded distribution */
+    private final double mass;
+
+    /**
+     * @param lower must be positive
+     * @param upper must be greater than lower and finite
+     * @param shape must be positive
+     */
+    public BoundedParetoDistribution(double lower, double upper, double shape) {
+        checkPositive("Lower bound", lower);
+        checkPositive("Shape", shape);
+        if (!(upper > lower && upper < Double.POSITIVE_INFINITY)) {
+            String msg = String.format("Upper bound must be finite and greater than %f. Received %f.",
+                                       lower, upper);
+            throw new IllegalArgumentException(msg);
+        }
+        this.lower = lower;
+        this.upper = upper;
+        this.shape = shape;
+        this.inverseShape = 1.0 / shape;
+        this.mass = -Math.expm1(shape * Math.log(lower / upper));
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    public double getShape() {
+        return shape;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return inverseCdf(RandomNumberFactory.uniform(randomNumberGenerator));
+    }
+
+    @Override
+    public double pdf(double x) {
+        if (x < lower || x > upper) {
+            return 0.0;
+        }
+        return shape / x * Math.exp(shape * Math.log(lower / x)) / mass;
+    }
+
+    @Override
+    public double cdf(double x) {
+        if (x <= lower) {
+            return 0.0;
+        }
+        if (x >= upper) {
+            return 1.0;
+        }
+        return -Math.expm1(shape * Math.log(lower / x)) / mass;
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        return inverseCdf(p);
+    }
+
+    /**
+     * the quantile without argument checking, for the sampling hot path
+     */
+    private double inverseCdf(double p) {
+        double x = lower * Math.exp(-inverseShape * Math.log1p(-p * mass));
+        return Math.min(Math.max(x, lower), upper);
+    }
+}
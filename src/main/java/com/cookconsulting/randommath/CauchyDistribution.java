@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Cauchy distribution with the given median and scale; see RandomNumberFactory.getCauchy
+ * see: http://en.wikipedia.org/wiki/Cauchy_distribution
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class CauchyDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = -2259226834379532457L;
+
+    private final double median;
+    private final double scale;
+
+    /**
+     * @param median
+     * @param scale  must be positive
+     */
+    public CauchyDistribution(double median, double scale) {
+        checkPositive("Scale", scale);
+        this.median = median;
+        this.scale = scale;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        // Apply inverse of the Cauchy distribution function to a uniform
+        double p = RandomNumberFactory.uniform(randomNumberGenerator);
+        return median + scale * Math.tan(Math.PI * (p - 0.5));
+    }
+
+    @Override
+    public double pdf(double x) {
+        double z = (x - median) / scale;
+        return 1.0 / (Math.PI * scale * (1.0 + z * z));
+    }
+
+    @Override
+    public double cdf(double x) {
+        return 0.5 + Math.atan((x - median) / scale) / Math.PI;
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        if (p == 0.0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (p == 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return median + scale * Math.tan(Math.PI * (p - 0.5));
+    }
+}
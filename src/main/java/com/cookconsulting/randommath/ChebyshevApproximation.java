@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * Piecewise Chebyshev approximation of a smooth function over a finite interval, for fast
+ * repeated evaluation of special functions.
+ * <p/>
+ * The interval is split into equal pieces, so that locating the piece of an argument is a
+ * multiplication and a cast. On each piece the function is interpolated at the Chebyshev
+ * nodes of the first kind, which is within a small factor of the best (minimax) polynomial
+ * of the same degree, and trailing coefficients that cannot matter at the requested
+ * tolerance are dropped. The number of pieces is doubled until every piece reproduces the
+ * function to within max(absoluteTolerance, relativeTolerance * |f(x)|) on a check grid of
+ * points between the nodes. Evaluation is Clenshaw's recurrence: one multiply-add pair per
+ * coefficient.
+ * <p/>
+ * The reported errors are the largest observed on the check grid, an estimate rather than a
+ * proof; they include any rounding noise in the function being approximated, which therefore
+ * bounds the tolerance that can be reached.
+ * <p/>
+ * Built approximations may be persisted with save and restored with load, avoiding the
+ * function evaluations on the next start.
+ * <p/>
+ * see: Trefethen, L. N. "Approximation Theory and Approximation Practice", SIAM 2013,
+ * chapters 3, 4 and 16
+ * see: Press, Teukolsky, Vetterling, Flannery. Numerical Recipes, 3rd edition, section 5.8
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class ChebyshevApproximation implements UnivariateFunction, ArrayFunction,
+    Serializable {
+
+    private static final long serialVersionUID = 6203418839012475530L;
+
+    /* identifies the persisted approximation format */
+    private static final int MAGIC = 0x43484542;
+    private static final int VERSION = 1;
+
+    private static final int MAX_DEGREE = 64;
+
+    /* upper limit on the number of pieces, to stop unreachable tolerances running away */
+    private static final int MAX_PIECES = 1 << 16;
+
+    private final double lower;
+    private final double upper;
+    // pieces per unit length
+    private final double scale;
+    private final int pieces;
+    // coefficients of piece i are coefficients[offsets[i] .. offsets[i + 1])
+    private final int[] offsets;
+    private final double[] coefficients;
+    private final double absoluteError;
+    private final double relativeError;
+
+    /**
+     * Builder class. See _Effective Java, second edition_ by Josh Bloch
+     */
+    public static class Builder {
+        private final UnivariateFunction function;
+        private double lower = Double.NaN;
+        private double upper = Double.NaN;
+        private double absoluteTolerance = 1e-14;
+        private double relativeTolerance = 0.0;
+        private int degree = 24;
+
+        /**
+         * @param function the function to approximate, smooth over the domain
+         */
+        public Builder(UnivariateFunction function) {
+            this.function = function;
+        }
+
+        /**
+         * @param lower
+         * @param upper
+         * @return
+         */
+        public Builder domain(double lower, double upper) {
+            this.lower = lower;
+            this.upper = upper;
+            return this;
+        }
+
+        /**
+         * @param absoluteTolerance largest acceptable |p(x) - f(x)|, default 1e-14
+         * @return
+         */
+        public Builder absoluteTolerance(double absoluteTolerance) {
+            this.absoluteTolerance = absoluteTolerance;
+            return this;
+        }
+
+        /**
+         * @param relativeTolerance largest acceptable |p(x) - f(x)| / |f(x)|, default 0; the
+         *                          larger of the two allowances applies at each point
+         * @return
+         */
+        public Builder relativeTolerance(double relativeTolerance) {
+            this.relativeTolerance = relativeTolerance;
+            return this;
+        }
+
+        /**
+         * @param degree largest polynomial degree on each piece, default 24
+         * @return
+         */
+        public Builder degree(int degree) {
+            this.degree = degree;
+            return this;
+        }
+
+        public ChebyshevApproximation build() {
+            if (!(lower < upper) || Double.isInfinite(lower) || Double.isInfinite(upper)) {
+                String msg = String.format("Domain must be a finite interval. " +
+                                               "Received lower %f and upper %f.", lower, upper);
+                throw new IllegalArgumentException(msg);
+            }
+            if (!(absoluteTolerance >= 0.0 && relativeTolerance >= 0.0) ||
+                absoluteTolerance + relativeTolerance == 0.0) {
+                String msg = String.format("Tolerances must be non negative and not both zero. " +
+                                               "Received absolute %g and relative %g.",
+                                           absoluteTolerance, relativeTolerance);
+                throw new IllegalArgumentException(msg);
+            }
+            if (degree < 1 || degree > MAX_DEGREE) {
+                String msg = String.format("Degree must be in the range [1, %d]. Received %d.",
+                                           MAX_DEGREE, degree);
+                throw new IllegalArgumentException(msg);
+            }
+            return new Fitter(this).fit();
+        }
+    }
+
+    private ChebyshevApproximation(double lower, double upper, int[] offsets,
+                                   double[] coefficients, double absoluteError,
+                                   double relativeError) {
+        this.lower = lower;
+        this.upper = upper;
+        this.pieces = offsets.length - 1;
+        this.scale = pieces / (upper - lower);
+        this.offsets = offsets;
+        this.coefficients = coefficients;
+        this.absoluteError = absoluteError;
+        this.relativeError = relativeError;
+    }
+
+    /**
+     * @param x in [getLower(), getUpper()]
+     * @return the approximate function value
+     */
+    @Override
+    public double value(double x) {
+        if (!(x >= lower && x <= upper)) {
+            String msg = String.format("Argument must be in the range [%f, %f]. Received %f.",
+                                       lower, upper, x);
+            throw new IllegalArgumentException(msg);
+        }
+        return evaluate(x);
+    }
+
+    /**
+     * Evaluate the approximation on in[from, to) and write the results to the same indexes of
+     * out; arguments outside the domain give NaN instead of an exception.
+     *
+     * @param in
+     * @param out  may be the same array as in
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    @Override
+    public void apply(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double x = in[i];
+            out[i] = (x >= lower && x <= upper) ? evaluate(x) : Double.NaN;
+        }
+    }
+
+    private double evaluate(double x) {
+        double s = (x - lower) * scale;
+        int i = Math.min((int) s, pieces - 1);
+        double t = 2.0 * (s - i) - 1.0;
+        return clenshaw(coefficients, offsets[i], offsets[i + 1], t);
+    }
+
+    /**
+     * Sum c[start] T_0(t) + ... + c[end - 1] T_{end - start - 1}(t)
+     */
+    private static double clenshaw(double[] c, int start, int end, double t) {
+        double twoT = t + t;
+        double b1 = 0.0;
+        double b2 = 0.0;
+        for (int j = end - 1; j > start; j--) {
+            double b0 = twoT * b1 - b2 + c[j];
+            b2 = b1;
+            b1 = b0;
+        }
+        return t * b1 - b2 + c[start];
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    /**
+     * @return number of equal width pieces
+     */
+    public int getPieces() {
+        return pieces;
+    }
+
+    /**
+     * @return total number of stored coefficients
+     */
+    public int getCoefficientCount() {
+        return coefficients.length;
+    }
+
+    /**
+     * @return the largest |p(x) - f(x)| observed while building
+     */
+    public double getAbsoluteError() {
+        return absoluteError;
+    }
+
+    /**
+     * @return the largest |p(x) - f(x)| / |f(x)| observed while building, over points where
+     *         f(x) is not zero
+     */
+    public double getRelativeError() {
+        return relativeError;
+    }
+
+    /**
+     * Write the approximation to a stream; the stream is not closed.
+     *
+     * @param outputStream
+     * @throws IOException
+     */
+    public void save(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeDouble(lower);
+        out.writeDouble(upper);
+        out.writeDouble(absoluteError);
+        out.writeDouble(relativeError);
+        out.writeInt(pieces);
+        for (int i = 0; i < pieces; i++) {
+            out.writeInt(offsets[i + 1] - offsets[i]);
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                out.writeDouble(coefficients[j]);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Read an approximation written by save; the stream is not closed.
+     *
+     * @param inputStream
+     * @return
+     * @throws IOException
+     */
+    public static ChebyshevApproximation load(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a ChebyshevApproximation");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported ChebyshevApproximation version: " + version);
+        }
+        double lower = in.readDouble();
+        double upper = in.readDouble();
+        double absoluteError = in.readDouble();
+        double relativeError = in.readDouble();
+        int pieces = in.readInt();
+        if (!(lower < upper) || pieces < 1 || pieces > MAX_PIECES) {
+            throw new IOException("Invalid ChebyshevApproximation domain or size");
+        }
+        int[] offsets = new int[pieces + 1];
+        double[] coefficients = new double[pieces * (MAX_DEGREE + 1)];
+        for (int i = 0; i < pieces; i++) {
+            int count = in.readInt();
+            if (count < 1 || count > MAX_DEGREE + 1) {
+                throw new IOException("Invalid ChebyshevApproximation piece size: " + count);
+            }
+            offsets[i + 1] = offsets[i] + count;
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                coefficients[j] = in.readDouble();
+            }
+        }
+        double[] trimmed = new double[offsets[pieces]];
+        System.arraycopy(coefficients, 0, trimmed, 0, trimmed.length);
+        return new ChebyshevApproximation(lower, upper, offsets, trimmed, absoluteError,
+                                          relativeError);
+    }
+
+    /**
+     * Fits all pieces at a given piece count, doubling the count until every piece meets the
+     * tolerance
+     */
+    private static final class Fitter {
+        private final UnivariateFunction function;
+        private final double lower;
+        private final double upper;
+        private final double absoluteTolerance;
+        private final double relativeTolerance;
+        private final int nodes;
+        // cosines[j * nodes + k] = cos(pi j (k + 1/2) / nodes)
+        private final double[] cosines;
+        private final double[] values;
+
+        private double[] coefficients;
+        private int size;
+        private double absoluteError;
+        private double relativeError;
+
+        Fitter(Builder builder) {
+            this.function = builder.function;
+            this.lower = builder.lower;
+            this.upper = builder.upper;
+            this.absoluteTolerance = builder.absoluteTolerance;
+            this.relativeTolerance = builder.relativeTolerance;
+            this.nodes = builder.degree + 1;
+            this.cosines = new double[nodes * nodes];
+            for (int j = 0; j < nodes; j++) {
+                for (int k = 0; k < nodes; k++) {
+                    cosines[j * nodes + k] = Math.cos(Math.PI * j * (k + 0.5) / nodes);
+                }
+            }
+            this.values = new double[nodes];
+        }
+
+        ChebyshevApproximation fit() {
+            for (int pieces = 1; pieces <= MAX_PIECES; pieces *= 2) {
+                int[] offsets = tryFit(pieces);
+                if (offsets != null) {
+                    double[] trimmed = new double[size];
+                    System.arraycopy(coefficients, 0, trimmed, 0, size);
+                    return new ChebyshevApproximation(lower, upper, offsets, trimmed,
+                                                      absoluteError, relativeError);
+                }
+            }
+            String msg = String.format("Tolerance not reached with %d pieces of degree %d.",
+                                       MAX_PIECES, nodes - 1);
+            throw new IllegalArgumentException(msg);
+        }
+
+        /**
+         * @return the piece offsets, or null if some piece misses the tolerance
+         */
+        private int[] tryFit(int pieces) {
+            coefficients = new double[pieces * nodes];
+            size = 0;
+            absoluteError = 0.0;
+            relativeError = 0.0;
+            int[] offsets = new int[pieces + 1];
+            double width = (upper - lower) / pieces;
+            for (int i = 0; i < pieces; i++) {
+                double a = lower + i * width;
+                double b = (i == pieces - 1) ? upper : a + width;
+                if (!fitPiece(a, b)) {
+                    return null;
+                }
+                offsets[i + 1] = size;
+            }
+            return offsets;
+        }
+
+        /**
+         * Interpolate on [a, b] at the Chebyshev nodes, append the coefficients that matter
+         * and check the result between the nodes
+         */
+        private boolean fitPiece(double a, double b) {
+            double mid = 0.5 * (a + b);
+            double half = 0.5 * (b - a);
+            double smallest = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < nodes; k++) {
+                values[k] = function.value(mid + half * cosines[nodes + k]);
+                smallest = Math.min(smallest, Math.abs(values[k]));
+            }
+            int start = size;
+            for (int j = 0; j < nodes; j++) {
+                double sum = 0.0;
+                for (int k = 0; k < nodes; k++) {
+                    sum += values[k] * cosines[j * nodes + k];
+                }
+                coefficients[size++] = ((j == 0) ? 1.0 : 2.0) * sum / nodes;
+            }
+            // drop trailing coefficients whose combined size is a small part of the allowance
+            double negligible = 0.25 * Math.max(absoluteTolerance, relativeTolerance * smallest);
+            double dropped = 0.0;
+            while (size > start + 1 && dropped + Math.abs(coefficients[size - 1]) <= negligible) {
+                dropped += Math.abs(coefficients[--size]);
+            }
+            int checks = 2 * nodes;
+            for (int k = 0; k <= checks; k++) {
+                double t = -1.0 + 2.0 * k / checks;
+                double x = (k == checks) ? b : mid + half * t;
+                double f = function.value(x);
+                double error = Math.abs(clenshaw(coefficients, start, size, t) - f);
+                if (!(error <= Math.max(absoluteTolerance, relativeTolerance * Math.abs(f)))) {
+                    return false;
+                }
+                absoluteError = Math.max(absoluteError, error);
+                if (f != 0.0) {
+                    relativeError = Math.max(relativeError, error / Math.abs(f));
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -33,7 +33,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Utility class for generating Chi-Squared values
@@ -49,6 +54,20 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p/>
  * The algorithm used to create these Chi-Square values is my port of Gary Perlman's freely
  * available ISTAT package. see http://oldwww.acm.org/perlman/stat/
+ * <p/>
+ * Rows are computed on first use rather than when the table is built, and are shared by all
+ * tables with the same column percentages in the process: each row is memoized as a
+ * FutureTask in a ConcurrentHashMap, so concurrent first lookups of a row wait for a single
+ * computation instead of repeating it. See Goetz et al., _Java Concurrency in Practice_,
+ * section 5.6.
+ * <p/>
+ * Rows are primitive double[] arrays. Each table also indexes the rows it has seen directly
+ * by degrees of freedom, in pages of 256 allocated on first use, so that a lookup is two
+ * array reads and a binary search over the primitive column percentages, without boxing or
+ * allocation.
+ * <p/>
+ * Exact p-values and critical values for any degrees of freedom, without a table, are
+ * available from the static getPValue, getPValues and getCriticalValue.
  *
  * @author Todd Cook
  * @since 2011/11/6
@@ -60,7 +79,18 @@ public final class ChiSquaredTable {
      */
     private int degreesOfFreedom;
     private List<Double> columnPercentages;
-    private Map<Integer, List<Double>> table = null;
+    private double[] percentages;
+    private ConcurrentMap<Integer, FutureTask<double[]>> rows = null;
+    // rows already looked up by this table, pages[df >>> PAGE_BITS].get(df & PAGE_MASK)
+    private AtomicReferenceArray<AtomicReferenceArray<double[]>> pages = null;
+
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    /* rows by degrees of freedom, for each list of column percentages in use */
+    private static final ConcurrentMap<List<Double>, ConcurrentMap<Integer, FutureTask<double[]>>>
+        SHARED_ROWS =
+        new ConcurrentHashMap<List<Double>, ConcurrentMap<Integer, FutureTask<double[]>>>();
 
     /**
      * Builder class. See _Effective Java, second edition_ by Josh Bloch
@@ -91,12 +121,24 @@ public final class ChiSquaredTable {
             return this;
         }
 
+        /**
+         * No values are computed here; rows are filled in as they are looked up
+         *
+         * @return
+         */
         public ChiSquaredTable build() {
             ChiSquaredTable cst = new ChiSquaredTable();
             cst.degreesOfFreedom = this.degreesOfFreedom;
-            Collections.sort(percentages);
-            cst.columnPercentages = percentages;
-            cst.table = cst.createChiSquaredTable(degreesOfFreedom, cst.columnPercentages);
+            List<Double> sorted = new ArrayList<Double>(percentages);
+            Collections.sort(sorted);
+            cst.columnPercentages = Collections.unmodifiableList(sorted);
+            cst.percentages = new double[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                cst.percentages[i] = sorted.get(i);
+            }
+            cst.rows = sharedRows(cst.columnPercentages);
+            cst.pages = new AtomicReferenceArray<AtomicReferenceArray<double[]>>(
+                (Math.max(degreesOfFreedom, 0) >>> PAGE_BITS) + 1);
             return cst;
         }
     }
@@ -104,29 +146,118 @@ public final class ChiSquaredTable {
     private ChiSquaredTable() {
     }
 
+    private static ConcurrentMap<Integer, FutureTask<double[]>> sharedRows(
+        List<Double> percentages) {
+        ConcurrentMap<Integer, FutureTask<double[]>> rows = SHARED_ROWS.get(percentages);
+        if (rows == null) {
+            ConcurrentMap<Integer, FutureTask<double[]>> created =
+                new ConcurrentHashMap<Integer, FutureTask<double[]>>();
+            rows = SHARED_ROWS.putIfAbsent(percentages, created);
+            if (rows == null) {
+                rows = created;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The row for the given degrees of freedom, computed by the first caller and awaited by
+     * any concurrent ones
+     *
+     * @param df degrees of freedom
+     * @return the critical values, in the order of the column percentages; null when df is
+     *         outside the table. Shared, not to be modified.
+     */
+    double[] row(int df) {
+        if (df < 1 || df > degreesOfFreedom) {
+            return null;
+        }
+        AtomicReferenceArray<double[]> page = pages.get(df >>> PAGE_BITS);
+        if (page != null) {
+            double[] row = page.get(df & PAGE_MASK);
+            if (row != null) {
+                return row;
+            }
+        }
+        return sharedRow(df);
+    }
+
+    private double[] sharedRow(final int df) {
+        FutureTask<double[]> future = rows.get(df);
+        if (future == null) {
+            FutureTask<double[]> task = new FutureTask<double[]>(new Callable<double[]>() {
+                @Override
+                public double[] call() {
+                    double[] values = new double[percentages.length];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = critchi(percentages[i], df);
+                    }
+                    return values;
+                }
+            });
+            future = rows.putIfAbsent(df, task);
+            if (future == null) {
+                future = task;
+                task.run();
+            }
+        }
+        double[] row;
+        try {
+            row = future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the Chi Squared " +
+                                                "values for " + df + " degrees of freedom", e);
+        }
+        catch (ExecutionException e) {
+            // let a later lookup try again
+            rows.remove(df, future);
+            throw new IllegalStateException("Failed to compute the Chi Squared values for " + df +
+                                                " degrees of freedom", e.getCause());
+        }
+        int index = df >>> PAGE_BITS;
+        AtomicReferenceArray<double[]> page = pages.get(index);
+        if (page == null) {
+            pages.compareAndSet(index, null, new AtomicReferenceArray<double[]>(1 << PAGE_BITS));
+            page = pages.get(index);
+        }
+        page.set(df & PAGE_MASK, row);
+        return row;
+    }
+
     /**
      * @param degreesOfFreedom degree of freedom
      * @param percentage the desired percentage level
      * @return the expected Chi Squared value
      */
-    public double getChiSquared(int degreesOfFreedom, Double percentage) {
-        List<Double> elements = table.get(degreesOfFreedom);
+    public double getChiSquared(int degreesOfFreedom, double percentage) {
+        double[] elements = row(degreesOfFreedom);
         if (elements == null) {
             throw new IllegalArgumentException("Chi Squared Table doesn't contain entry for " +
                                                    "the requested degrees of freedom: "
                                                    + degreesOfFreedom + " please recreate properly");
         }
-        Integer index = Collections.binarySearch(columnPercentages, percentage);
-        if (index == null || index < 0) {
+        int index = Arrays.binarySearch(percentages, percentage);
+        if (index < 0) {
             throw new IllegalArgumentException("Chi Squared Table doesn't contain index for " +
                                                    "the requested percentage: "
                                                    + percentage + " please recreate properly");
         }
-        return elements.get(index);
+        return elements[index];
+    }
+
+    /**
+     * @param degreesOfFreedom degree of freedom
+     * @param percentage the desired percentage level
+     * @return the expected Chi Squared value
+     */
+    public double getChiSquared(int degreesOfFreedom, Double percentage) {
+        return getChiSquared(degreesOfFreedom, percentage.doubleValue());
     }
 
     /**
-     * Create a new Chi Squared table
+     * Create a new Chi Squared table, with every row computed
      *
      * @param degreesOfFreedom 1 - number of distinct partitions of the data being analyzed
      * @param percentages list of probability values as doubles in the range [0,1]
@@ -150,10 +281,14 @@ public final class ChiSquaredTable {
      * @return list of probability values as doubles in the range [0,1]
      */
     public List<Double> getPercentages() {
-        return Collections.unmodifiableList(columnPercentages);
+        return columnPercentages;
     }
 
     /**
+     * The chi square statistic of observed counts against the exact, unrounded expected
+     * values probability * sampleSize. For counts that arrive one observation at a time, see
+     * GoodnessOfFitAccumulator.
+     *
      * @param expectedValueProbabilities
      * @param actualValues
      * @param sampleSize
@@ -161,22 +296,21 @@ public final class ChiSquaredTable {
      */
     public double calculateChiSquared(Map<Integer, Double> expectedValueProbabilities,
                                       Map<Integer, Integer> actualValues, int sampleSize) {
-
-        Map<Integer, Integer> expectedValues =
-            calculateExpectedValues(expectedValueProbabilities, sampleSize);
         double sum = 0.0;
-        for (Integer key : expectedValues.keySet()) {
-            Integer ev = expectedValues.get(key);
-            Integer av = actualValues.get(key);
-            if (ev != null && av != null) {
-                sum += Math.pow(ev - av, 2) / ev;
+        for (Map.Entry<Integer, Double> entry : expectedValueProbabilities.entrySet()) {
+            Integer av = actualValues.get(entry.getKey());
+            if (av != null) {
+                double ev = entry.getValue() * sampleSize;
+                double difference = ev - av;
+                sum += difference * difference / ev;
             }
         }
         return sum;
     }
 
     /**
-     * Helper function for data processing;
+     * Helper function for data processing; the expected values are rounded to integers
+     * (calculateChiSquared does not round them).
      * TODO extract to generic utility class or force people to write their own boilerplate code
      *
      * @param probabilitiesMap
@@ -193,29 +327,18 @@ public final class ChiSquaredTable {
     }
 
     /**
-     * @param degreesOfFreedom degrees of freedom
+     * The tabulated column percentage next to a chi square value, a coarse p-value
+     *
+     * @param degreesOfFreedom degrees of freedom; values outside the table use its first or
+     *                         last row
      * @param chiSquareValue   calculated ChiSquare value
      * @return probability percentage [0,1]
+     * @deprecated use getPValue, which is exact and needs no table
      */
+    @Deprecated
     public double getPercentage(int degreesOfFreedom, double chiSquareValue) {
-
-        if (table.keySet().contains(degreesOfFreedom)) {
-            List<Double> values = table.get(degreesOfFreedom);
-            return getColumnCeiling(chiSquareValue, values);
-        }
-        else {
-            List<Integer> cats = new ArrayList<Integer>();
-            for (Integer i : table.keySet()) {
-                cats.add(i);
-            }
-            Collections.sort(cats);
-            int position = Math.abs(Collections.binarySearch(cats, degreesOfFreedom));
-            if (position != cats.size() - 1) {
-                return getColumnCeiling(chiSquareValue, table.get(position++));
-            }
-            // else we are at or above the last value in the table
-            return getColumnCeiling(chiSquareValue, table.get(position));
-        }
+        int df = Math.max(1, Math.min(degreesOfFreedom, this.degreesOfFreedom));
+        return getColumnCeiling(chiSquareValue, row(df));
     }
 
     /**
@@ -225,188 +348,166 @@ public final class ChiSquaredTable {
      * @param values         know ChiSquare values
      * @return the nearest percentage value
      */
-    private double getColumnCeiling(double chiSquareValue, List<Double> values) {
-        int colPosition = Collections.binarySearch(values, chiSquareValue);
+    private double getColumnCeiling(double chiSquareValue, double[] values) {
+        int colPosition = Arrays.binarySearch(values, chiSquareValue);
         if (colPosition == 0) {
-            return columnPercentages.get(colPosition);
+            return percentages[colPosition];
         }
         if (colPosition >= 0) {
-            return columnPercentages.get(colPosition - 1);
+            return percentages[colPosition - 1];
         }
         colPosition = Math.abs(colPosition);
-        if (colPosition < values.size() - 1) {
-            return columnPercentages.get(colPosition - 1);
+        if (colPosition < values.length - 1) {
+            return percentages[colPosition - 1];
         }
-        return columnPercentages.get(colPosition - 2);
+        return percentages[colPosition - 2];
     }
 
+    /**
+     * @param degreesOfFreedom
+     * @return the row as a new list, null when degreesOfFreedom is outside the table
+     */
     public List<Double> getChiSquaredForDegreesOfFreedom(int degreesOfFreedom) {
-        return table.get(degreesOfFreedom);
+        double[] row = row(degreesOfFreedom);
+        if (row == null) {
+            return null;
+        }
+        List<Double> values = new ArrayList<Double>(row.length);
+        for (double value : row) {
+            values.add(value);
+        }
+        return values;
     }
 
     /**
-     * The Following section of code is my port of Gary Perlman's ChiSquare implementation from
-     * his freely available ISTAT package
+     * The p-value of a chi square statistic: the probability that a chi square variable with
+     * the given degrees of freedom is at least chiSquareValue, Q(df / 2, x / 2) in terms of
+     * the regularized incomplete gamma function. Accurate to about 1e-13 relative for any
+     * degrees of freedom, at a cost that does not grow with them; no table is needed.
+     *
+     * @param degreesOfFreedom must be positive, need not be an integer
+     * @param chiSquareValue   calculated ChiSquare value
+     * @return p-value in [0, 1]; 1 for values not above 0
      */
+    public static double getPValue(double degreesOfFreedom, double chiSquareValue) {
+        checkDegreesOfFreedom(degreesOfFreedom);
+        if (Double.isNaN(chiSquareValue)) {
+            throw new IllegalArgumentException("Chi Squared value must not be NaN.");
+        }
+        return (chiSquareValue <= 0.0) ? 1.0 :
+            Gamma.regularizedGammaQ(0.5 * degreesOfFreedom, 0.5 * chiSquareValue);
+    }
 
     /**
-     * FUNCTION poz: probability of normal z value
-     * ALGORITHM
-     * Adapted from a polynomial approximation in:
-     * Ibbetson D, Algorithm 209
-     * Collected Algorithms of the CACM 1963 p. 616
-     * Note:
-     * This routine has six digit accuracy, so it is only useful for absolute
-     * z values < 6.  For z values >= to 6.0, poz() returns 0.0.
-     * <p/>
-     * VAR returns cumulative probability from -oo to z
+     * The critical chi square value for a p-value: the x with getPValue(df, x) = p, from the
+     * inverse incomplete gamma function
      *
-     * @param z VAR normal z value
-     * @return
+     * @param degreesOfFreedom must be positive, need not be an integer
+     * @param p                upper tail probability in [0, 1]
+     * @return the critical value; positive infinity for p = 0 and 0 for p = 1
      */
-    private double poz(double z) {
-        double y, x, w;
-        if (z == 0.0) {
-            x = 0.0;
+    public static double getCriticalValue(double degreesOfFreedom, double p) {
+        checkDegreesOfFreedom(degreesOfFreedom);
+        if (!(p >= 0.0 && p <= 1.0)) {
+            String msg = String.format("Probability must be in the range [0, 1]. Received %f.", p);
+            throw new IllegalArgumentException(msg);
         }
-        else {
-            y = 0.5 * Math.abs(z);
-            if (y >= (Z_MAX * 0.5)) {
-                x = 1.0;
-            }
-            else if (y < 1.0) {
-                w = y * y;
-                x = ((((((((0.000124818987 * w
-                    - 0.001075204047) * w + 0.005198775019) * w
-                    - 0.019198292004) * w + 0.059054035642) * w
-                    - 0.151968751364) * w + 0.319152932694) * w
-                    - 0.531923007300) * w + 0.797884560593) * y * 2.0;
+        return 2.0 * Gamma.inverseRegularizedGammaQ(0.5 * degreesOfFreedom, p);
+    }
+
+    /**
+     * getPValue for the pairs (degreesOfFreedom[i], chiSquareValues[i]), i in [from, to),
+     * written to out[i]; invalid pairs give NaN instead of an exception. out may be the same
+     * array as either input.
+     *
+     * @param degreesOfFreedom
+     * @param chiSquareValues
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void getPValues(double[] degreesOfFreedom, double[] chiSquareValues,
+                                  double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double df = degreesOfFreedom[i];
+            double x = chiSquareValues[i];
+            if (!(df > 0.0 && df < Double.POSITIVE_INFINITY) || Double.isNaN(x)) {
+                out[i] = Double.NaN;
             }
             else {
-                y -= 2.0;
-                x = (((((((((((((-0.000045255659 * y
-                    + 0.000152529290) * y - 0.000019538132) * y
-                    - 0.000676904986) * y + 0.001390604284) * y
-                    - 0.000794620820) * y - 0.002034254874) * y
-                    + 0.006549791214) * y - 0.010557625006) * y
-                    + 0.011630447319) * y - 0.009279453341) * y
-                    + 0.005353579108) * y - 0.002141268741) * y
-                    + 0.000535310849) * y + 0.999936657524;
+                out[i] = (x <= 0.0) ? 1.0 : Gamma.regularizedGammaQ(0.5 * df, 0.5 * x);
             }
         }
-        return (z > 0.0 ? ((x + 1.0) * 0.5) : ((1.0 - x) * 0.5));
     }
 
-    ///Useful constants
-
-    /* maximum meaningful z value */
-    private static final double Z_MAX = 6.0;
-
-    /* accuracy of critchi approximation */
-    private static final double CHI_EPSILON = 0.000001;
-
-    /* maximum chi square value */
-    private static final double CHI_MAX = 99999.0;
-
-    /* log (sqrt (pi)) */
-    private static final double LOG_SQRT_PI = 0.5723649429247000870717135;
-
-    /* 1 / sqrt (pi) */
-    private static final double I_SQRT_PI = 0.5641895835477562869480795;
-
-    /* max value to represent exp (x) */
-    private static final double BIGX = 20.0;
-
-    private double ex(double x) {
-        return (((x) < -BIGX) ? 0.0 : Math.exp(x));
+    /**
+     * @param degreesOfFreedom
+     * @param chiSquareValues
+     * @param out
+     * @see #getPValues(double[], double[], double[], int, int)
+     */
+    public static void getPValues(double[] degreesOfFreedom, double[] chiSquareValues,
+                                  double[] out) {
+        getPValues(degreesOfFreedom, chiSquareValues, out, 0, out.length);
     }
 
     /**
-     * FUNCTION pochisq: probability of chi sqaure value
-     * ALGORITHM Compute probability of chi square value.
-     * Adapted from:
-     * Hill, I. D. and Pike, M. C.  Algorithm 299
-     * Collected Algorithms for the CACM 1967 p. 243
-     * Updated for rounding errors based on remark in
-     * ACM TOMS June 1985, page 185
+     * p-values of chi square statistics with common degrees of freedom, as an ArrayFunction
+     * for ArrayFunctions.parallel
      *
-     * @param x  obtained chi-square value
-     * @param df degrees of freedom
+     * @param degreesOfFreedom must be positive
      * @return
      */
-    private double pochisq(double x, int df) {
-        double a;
-        double y = 0d;
-        double s;
-        double e, c, z;
-
-        if (x <= 0.0 || df < 1) {
-            return (1.0);
-        }
-        a = 0.5 * x;
-
-        /* true if df is an even number */
-        boolean even = (2 * (df / 2)) == df;
-        if (df > 1) {
-            y = ex(-a);
-        }
-        s = (even ? y : (2.0 * poz(-Math.sqrt(x))));   /* computes probability of normal z score */
-        if (df > 2) {
-            x = 0.5 * (df - 1.0);
-            z = (even ? 1.0 : 0.5);
-            if (a > BIGX) {
-                e = (even ? 0.0 : LOG_SQRT_PI);
-                c = Math.log(a);
-                while (z <= x) {
-                    e = Math.log(z) + e;
-                    s += ex(c * z - a - e);
-                    z += 1.0;
-                }
-                return (s);
-            }
-            else {
-                e = (even ? 1.0 : (I_SQRT_PI / Math.sqrt(a)));
-                c = 0.0;
-                while (z <= x) {
-                    e = e * (a / z);
-                    c = c + e;
-                    z += 1.0;
+    public static ArrayFunction pValues(final double degreesOfFreedom) {
+        checkDegreesOfFreedom(degreesOfFreedom);
+        return new ArrayFunction() {
+            @Override
+            public void apply(double[] in, double[] out, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    double x = in[i];
+                    if (Double.isNaN(x)) {
+                        out[i] = Double.NaN;
+                    }
+                    else {
+                        out[i] = (x <= 0.0) ? 1.0 :
+                            Gamma.regularizedGammaQ(0.5 * degreesOfFreedom, 0.5 * x);
+                    }
                 }
-                return (c * y + s);
             }
-        }
-        else {
-            return (s);
+        };
+    }
+
+    private static void checkDegreesOfFreedom(double degreesOfFreedom) {
+        if (!(degreesOfFreedom > 0.0 && degreesOfFreedom < Double.POSITIVE_INFINITY)) {
+            String msg = String.format("Degrees of freedom must be positive and finite. " +
+                                           "Received %f.", degreesOfFreedom);
+            throw new IllegalArgumentException(msg);
         }
     }
 
+    /**
+     * The Following section of code is my port of Gary Perlman's ChiSquare implementation from
+     * his freely available ISTAT package
+     */
+
     /**
      * FUNCTION critchi: compute critical chi square value to produce given p
+     * The x with Q(df / 2, x / 2) = p, from the inverse incomplete gamma function: a
+     * Wilson-Hilferty start refined by Halley steps with the chi-square density, two to four
+     * evaluations of Q instead of the 37 of the former bisection to 1e-6. Column percentages
+     * outside [0, 1] are clamped.
      *
      * @param p
      * @param df
-     * @return
+     * @return positive infinity for p &lt;= 0, 0 for p &gt;= 1
      */
     private double critchi(double p, int df) {
-        double minchisq = 0.0;
-        double maxchisq = CHI_MAX;
-        double chisqval;
         if (p <= 0.0) {
-            return (maxchisq);
+            return Double.POSITIVE_INFINITY;
         }
         else if (p >= 1.0) {
             return (0.0);
         }
-        chisqval = df / Math.sqrt(p);    /* fair first value */
-        while (maxchisq - minchisq > CHI_EPSILON) {
-            if (pochisq(chisqval, df) < p) {
-                maxchisq = chisqval;
-            }
-            else {
-                minchisq = chisqval;
-            }
-            chisqval = (maxchisq + minchisq) * 0.5;
-        }
-        return (chisqval);
+        return 2.0 * Gamma.inverseRegularizedGammaQ(0.5 * df, p);
     }
-}
\ No newline at end of file
+}
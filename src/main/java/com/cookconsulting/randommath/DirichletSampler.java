@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Dirichlet distribution with concentration parameters alpha_1, ..., alpha_k: random
+ * probability vectors of length k.
+ * see: http://en.wikipedia.org/wiki/Dirichlet_distribution
+ * <p/>
+ * A sample is a vector of independent gamma samples with shapes alpha_i, divided by its sum;
+ * one GammaDistribution is built per component, so repeated sampling does not repeat the
+ * gamma set up. Results are written to a caller supplied array.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class DirichletSampler implements Serializable {
+
+    private static final long serialVersionUID = -3997209566693447335L;
+
+    private final double[] alpha;
+    private final GammaDistribution[] gammas;
+
+    /**
+     * @param alpha concentration parameters, all positive; the array is copied
+     */
+    public DirichletSampler(double[] alpha) {
+        if (alpha.length < 1) {
+            throw new IllegalArgumentException("At least one concentration parameter is required.");
+        }
+        this.alpha = alpha.clone();
+        this.gammas = new GammaDistribution[alpha.length];
+        for (int i = 0; i < alpha.length; i++) {
+            gammas[i] = new GammaDistribution(alpha[i], 1.0);
+        }
+    }
+
+    public int getDimension() {
+        return alpha.length;
+    }
+
+    /**
+     * @return a copy of the concentration parameters
+     */
+    public double[] getAlpha() {
+        return alpha.clone();
+    }
+
+    /**
+     * @param alpha
+     * @return true if this sampler was built for exactly these parameters
+     */
+    public boolean hasAlpha(double[] alpha) {
+        return Arrays.equals(this.alpha, alpha);
+    }
+
+    /**
+     * @param randomNumberGenerator
+     * @param vector                receives the probability vector, at least k long
+     */
+    public void sample(RandomNumberGenerator randomNumberGenerator, double[] vector) {
+        sample(randomNumberGenerator, vector, 0);
+    }
+
+    /**
+     * @param randomNumberGenerator
+     * @param vector                receives the probability vector
+     * @param offset                index of the first component
+     */
+    public void sample(RandomNumberGenerator randomNumberGenerator, double[] vector, int offset) {
+        int k = gammas.length;
+        double sum = 0.0;
+        for (int i = 0; i < k; i++) {
+            double g = gammas[i].sample(randomNumberGenerator);
+            vector[offset + i] = g;
+            sum += g;
+        }
+        if (sum == 0.0) {
+            // every gamma sample underflowed (all alpha tiny): the mass goes to one component
+            // chosen in proportion to alpha
+            double u = RandomNumberFactory.uniform(randomNumberGenerator) * totalAlpha();
+            int chosen = k - 1;
+            for (int i = 0; i < k - 1; i++) {
+                u -= alpha[i];
+                if (u <= 0.0) {
+                    chosen = i;
+                    break;
+                }
+            }
+            vector[offset + chosen] = 1.0;
+            return;
+        }
+        double inverse = 1.0 / sum;
+        for (int i = 0; i < k; i++) {
+            vector[offset + i] *= inverse;
+        }
+    }
+
+    /**
+     * Fill a block of vectors, stored row-major, k components per vector
+     *
+     * @param randomNumberGenerator
+     * @param block                 at least vectors * k long
+     * @param vectors               number of vectors
+     */
+    public void fill(RandomNumberGenerator randomNumberGenerator, double[] block, int vectors) {
+        for (int i = 0; i < vectors; i++) {
+            sample(randomNumberGenerator, block, i * gammas.length);
+        }
+    }
+
+    private double totalAlpha() {
+        double total = 0.0;
+        for (double a : alpha) {
+            total += a;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * A probability distribution with fixed, validated parameters.
+ * <p/>
+ * Unlike the parameterized methods of RandomNumberFactory, which check their arguments on
+ * every call, implementations validate and precompute everything they need when they are
+ * constructed. Implementations are immutable: a single instance may be shared across threads,
+ * each thread passing in its own RandomNumberGenerator.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public interface Distribution {
+
+    /**
+     * @param randomNumberGenerator source of random bits
+     * @return a random sample
+     */
+    double sample(RandomNumberGenerator randomNumberGenerator);
+
+    /**
+     * Fill the array with random samples
+     *
+     * @param randomNumberGenerator source of random bits
+     * @param values                the array to fill
+     */
+    void fill(RandomNumberGenerator randomNumberGenerator, double[] values);
+
+    /**
+     * Fill the range [from, to) of the array with random samples
+     *
+     * @param randomNumberGenerator source of random bits
+     * @param values                the array to fill
+     * @param from                  first index to fill, inclusive
+     * @param to                    last index to fill, exclusive
+     */
+    void fill(RandomNumberGenerator randomNumberGenerator, double[] values, int from, int to);
+
+    /**
+     * @param x
+     * @return the probability density at x
+     */
+    double pdf(double x);
+
+    /**
+     * @param x
+     * @return the probability that a sample is less than or equal to x
+     */
+    double cdf(double x);
+
+    /**
+     * The inverse of the cdf. An implementation that cannot invert its cdf may throw
+     * UnsupportedOperationException; RandomNumberFactory.fill then draws independent samples
+     * in every sampling mode.
+     *
+     * @param p probability in the range [0, 1]
+     * @return the smallest x such that cdf(x) >= p
+     */
+    double quantile(double p);
+}
@@ -5,8 +5,18 @@ package com.cookconsulting.randommath;
  * (non-elementary) of sigmoid shape which occurs in probability, statistics and partial
  * differential equations.
  * http://en.wikipedia.org/wiki/Error_function
- * See: Abramowitz and Stegun: Handbook of Mathematical Functions
- * http://people.math.sfu.ca/~cbm/aands/
+ * <p/>
+ * erf, erfc and the scaled complement erfcx(x) = exp(x^2) erfc(x) use W. J. Cody's rational
+ * Chebyshev approximations (CALERF), accurate to about 1e-16 relative error over the whole
+ * double range: one rational function for |x| &lt;= 0.46875, one for |x| &lt;= 4 and one in
+ * 1 / x^2 beyond. exp(-x^2) is computed as exp(-r^2) exp(-(x - r)(x + r)), r = x rounded
+ * down to a multiple of 1/16, so that the tail of erfc keeps its full relative precision
+ * until it underflows near x = 27. The rational functions are evaluated with Estrin's scheme,
+ * see Polynomials.
+ * <p/>
+ * see: Cody, W.J. Rational Chebyshev approximations for the error function,
+ * Mathematics of Computation 23 (1969) 631-637
+ * see: http://www.netlib.org/specfun/erf
  *
  * @author Todd Cook - refactoring, unit tests, documentation
  * @author Greg Hewgill - initial Java port
@@ -15,28 +25,186 @@ package com.cookconsulting.randommath;
  */
 public class Erf {
 
-    // constants
-    private static final double a1 = 0.254829592;
-    private static final double a2 = -0.284496736;
-    private static final double a3 = 1.421413741;
-    private static final double a4 = -1.453152027;
-    private static final double a5 = 1.061405429;
-    private static final double p = 0.3275911;
+    /* 1 / sqrt(pi) */
+    private static final double SQRPI = 5.6418958354775628695E-1;
+    private static final double THRESHOLD = 0.46875;
+    /* erf(x) rounds to 1 beyond XBIG */
+    private static final double XBIG = 26.543;
+    /* erfc(x) underflows to 0 beyond XUNDERFLOW */
+    private static final double XUNDERFLOW = 27.3;
+    /* erfcx(x) = 1 / (sqrt(pi) x) to double precision beyond XHUGE */
+    private static final double XHUGE = 6.71E7;
+    /* erfcx overflows below XNEG */
+    private static final double XNEG = -26.628;
+
+    // |x| <= 0.46875: erf(x) = x A(x^2) / B(x^2)
+    private static final double A0 = 3.16112374387056560E00;
+    private static final double A1 = 1.13864154151050156E02;
+    private static final double A2 = 3.77485237685302021E02;
+    private static final double A3 = 3.20937758913846947E03;
+    private static final double A4 = 1.85777706184603153E-1;
+    private static final double B0 = 2.36012909523441209E01;
+    private static final double B1 = 2.44024637934444173E02;
+    private static final double B2 = 1.28261652607737228E03;
+    private static final double B3 = 2.84423683343917062E03;
+
+    // 0.46875 < x <= 4: erfcx(x) = C(x) / D(x)
+    private static final double C0 = 5.64188496988670089E-1;
+    private static final double C1 = 8.88314979438837594E00;
+    private static final double C2 = 6.61191906371416295E01;
+    private static final double C3 = 2.98635138197400131E02;
+    private static final double C4 = 8.81952221241769090E02;
+    private static final double C5 = 1.71204761263407058E03;
+    private static final double C6 = 2.05107837782607147E03;
+    private static final double C7 = 1.23033935479799725E03;
+    private static final double C8 = 2.15311535474403846E-8;
+    private static final double D0 = 1.57449261107098347E01;
+    private static final double D1 = 1.17693950891312499E02;
+    private static final double D2 = 5.37181101862009858E02;
+    private static final double D3 = 1.62138957456669019E03;
+    private static final double D4 = 3.29079923573345963E03;
+    private static final double D5 = 4.36261909014324716E03;
+    private static final double D6 = 3.43936767414372164E03;
+    private static final double D7 = 1.23033935480374942E03;
+
+    // x > 4: erfcx(x) = (1 / sqrt(pi) - z P(z) / Q(z)) / x, z = 1 / x^2
+    private static final double P0 = 3.05326634961232344E-1;
+    private static final double P1 = 3.60344899949804439E-1;
+    private static final double P2 = 1.25781726111229246E-1;
+    private static final double P3 = 1.60837851487422766E-2;
+    private static final double P4 = 6.58749161529837803E-4;
+    private static final double P5 = 1.63153871373020978E-2;
+    private static final double Q0 = 2.56852019228982242E00;
+    private static final double Q1 = 1.87295284992346725E00;
+    private static final double Q2 = 5.27905102951428412E-1;
+    private static final double Q3 = 6.05183413124413191E-2;
+    private static final double Q4 = 2.33520497626869185E-3;
+
+    // the same coefficients in ascending order of powers, for Polynomials.rational
+    private static final double[] A = {A3, A2, A1, A0, A4};
+    private static final double[] B = {B3, B2, B1, B0, 1.0};
+    private static final double[] C = {C7, C6, C5, C4, C3, C2, C1, C0, C8};
+    private static final double[] D = {D7, D6, D5, D4, D3, D2, D1, D0, 1.0};
+    private static final double[] P = {P4, P3, P2, P1, P0, P5};
+    private static final double[] Q = {Q4, Q3, Q2, Q1, Q0, 1.0};
 
     public static double erf(double x) {
+        double y = Math.abs(x);
+        if (y <= THRESHOLD) {
+            return x * small(y * y);
+        }
+        // erfc(y) < 0.5 here, so a single exp is accurate enough for the absolute error of erf
+        double result = (y >= XBIG) ? 1.0 : (0.5 - Math.exp(-y * y) * scaledComplement(y)) + 0.5;
+        return (x < 0.0) ? -result : result;
+    }
 
-        // Save the sign of x
-        double sign = 1;
-        if (x < 0) {
-            sign = -1;
+    /**
+     * The complementary error function, 1 - erf(x), without cancellation for large x
+     *
+     * @param x
+     * @return
+     */
+    public static double erfc(double x) {
+        double y = Math.abs(x);
+        if (y <= THRESHOLD) {
+            return 1.0 - x * small(y * y);
         }
-        x = Math.abs(x);
+        double result = (y >= XUNDERFLOW) ? 0.0 : expMinusSquare(y) * scaledComplement(y);
+        return (x < 0.0) ? 2.0 - result : result;
+    }
 
-        // A&S formula 7.1.26
-        double t = 1.0 / (1.0 + p * x);
-        double y = 1.0 - (((((a5 * t + a4) * t) + a3) * t + a2) * t + a1) * t * Math.exp(-x * x);
+    /**
+     * The scaled complementary error function, exp(x^2) erfc(x), which behaves like
+     * 1 / (sqrt(pi) x) for large x instead of underflowing
+     *
+     * @param x
+     * @return
+     */
+    public static double erfcx(double x) {
+        double y = Math.abs(x);
+        if (y <= THRESHOLD) {
+            double ysq = y * y;
+            return Math.exp(ysq) * (1.0 - x * small(ysq));
+        }
+        double result = scaledComplement(y);
+        if (x > 0.0) {
+            return result;
+        }
+        if (x < XNEG) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double r = Math.floor(y * 16.0) / 16.0;
+        double e = Math.exp(r * r) * Math.exp((y - r) * (y + r));
+        return (e + e) - result;
+    }
 
-        return sign * y;
+    /**
+     * erf of each element of in[from, to), written to the same indexes of out; in and out
+     * may be the same array
+     *
+     * @param in
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void erf(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double x = in[i];
+            double y = Math.abs(x);
+            double result;
+            if (y <= THRESHOLD) {
+                result = y * small(y * y);
+            }
+            else {
+                result = (y >= XBIG) ? 1.0 : (0.5 - Math.exp(-y * y) * scaledComplement(y)) + 0.5;
+            }
+            // the sign is applied without a branch
+            out[i] = Math.copySign(result, x);
+        }
+    }
+
+    /**
+     * erfc of each element of in[from, to), written to the same indexes of out; in and out
+     * may be the same array
+     *
+     * @param in
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void erfc(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = erfc(in[i]);
+        }
+    }
+
+    /**
+     * @return erf(x) / x for x^2 = ysq &lt;= 0.46875^2
+     */
+    private static double small(double ysq) {
+        return Polynomials.rational(A, B, ysq);
+    }
+
+    /**
+     * @return erfcx(y) for y &gt; 0.46875
+     */
+    private static double scaledComplement(double y) {
+        if (y <= 4.0) {
+            return Polynomials.rational(C, D, y);
+        }
+        if (y >= XHUGE) {
+            return SQRPI / y;
+        }
+        double z = 1.0 / (y * y);
+        return (SQRPI - z * Polynomials.rational(P, Q, z)) / y;
+    }
+
+    /**
+     * @return exp(-y^2), split so that the rounding error of y^2 is not magnified
+     */
+    private static double expMinusSquare(double y) {
+        double r = Math.floor(y * 16.0) / 16.0;
+        return Math.exp(-r * r) * Math.exp(-(y - r) * (y + r));
     }
 
     /**
@@ -18,4 +18,22 @@ public class Expm1 {
             return Math.exp(x) - 1.0;
         }
     }
+
+    /**
+     * expm1 of each element of in[from, to), written to the same indexes of out; in and out
+     * may be the same array
+     *
+     * @param in
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void expm1(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double x = in[i];
+            double small = x + 0.5 * x * x;
+            double large = Math.exp(x) - 1.0;
+            out[i] = (Math.abs(x) < 1e-5) ? small : large;
+        }
+    }
 }
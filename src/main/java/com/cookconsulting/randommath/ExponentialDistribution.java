@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Exponential distribution with the given mean.
+ * see: http://en.wikipedia.org/wiki/Exponential_distribution
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class ExponentialDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = -7733624853958405380L;
+
+    private final double mean;
+    private final double rate;
+
+    /**
+     * @param mean must be positive
+     */
+    public ExponentialDistribution(double mean) {
+        checkPositive("Mean", mean);
+        this.mean = mean;
+        this.rate = 1.0 / mean;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return -mean * Math.log(RandomNumberFactory.uniform(randomNumberGenerator));
+    }
+
+    @Override
+    public double pdf(double x) {
+        return x < 0.0 ? 0.0 : rate * Math.exp(-rate * x);
+    }
+
+    @Override
+    public double cdf(double x) {
+        return x <= 0.0 ? 0.0 : -Math.expm1(-rate * x);
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        return -mean * Math.log1p(-p);
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded memo table in front of an expensive function of one variable, for workloads that
+ * evaluate it again and again on a small set of recurring arguments, such as log gamma at
+ * the half integers n / 2 that arise from degrees of freedom.
+ * <p/>
+ * Keys are either exact, the bits of the argument, so that a cached result is identical to
+ * a fresh one, or quantized: the argument is rounded to the nearest multiple of a quantum
+ * and the function is evaluated at that grid point, which trades accuracy (about the
+ * quantum times the slope) for hits on arguments that differ only by rounding noise.
+ * <p/>
+ * The table is set associative: a key hashes to a set of 8 slots, and a full set evicts by
+ * the CLOCK (second chance) rule, with a hand per set that resumes where its last eviction
+ * stopped, so entries that were read since the hand last passed survive, approximating least
+ * recently used without any list to maintain. Entries are
+ * immutable apart from their reference bit and are published through an
+ * AtomicReferenceArray, so reads take no lock; concurrent misses of the same key may both
+ * evaluate the function, and an insertion that loses a race is simply dropped.
+ * Hits, misses and evictions are counted in stripes, one per processor and each on its own
+ * cache line, chosen by the id of the calling thread; a hit therefore writes only to the
+ * stripe of its thread instead of every reader incrementing one shared counter. The
+ * statistics are sums over the stripes, exact once concurrent calls have returned.
+ * <p/>
+ * see: Corbato, F. J. A Paging Experiment with the Multics System, MIT Project MAC report
+ * MAC-M-384 (1968)
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class FunctionCache implements UnivariateFunction {
+
+    /* slots per set; a power of two */
+    private static final int WAYS = 8;
+    private static final int MAX_CAPACITY = 1 << 24;
+    /* quantized indexes beyond this are not exact in a double; such arguments bypass */
+    private static final double MAX_INDEX = 4.503599627370496E15;
+    /* counter stripes, a power of two; each is 8 longs apart, a 64 byte cache line */
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+    private static final int STRIPE_WIDTH = 8;
+    private static final int HITS = 0;
+    private static final int MISSES = 1;
+    private static final int EVICTIONS = 2;
+
+    private final UnivariateFunction function;
+    private final double quantum;
+    private final int setMask;
+    private final AtomicReferenceArray<Entry> slots;
+    /* the CLOCK hand of each set */
+    private final AtomicIntegerArray hands;
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * STRIPE_WIDTH);
+
+    private static final class Entry {
+        final long key;
+        final double value;
+        volatile boolean referenced;
+
+        Entry(long key, double value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Builder class. See _Effective Java, second edition_ by Josh Bloch
+     */
+    public static class Builder {
+        private final UnivariateFunction function;
+        private int capacity = 1024;
+        private double quantum = 0.0;
+
+        /**
+         * @param function the function to cache, which must give the same result for the same
+         *                 argument
+         */
+        public Builder(UnivariateFunction function) {
+            this.function = function;
+        }
+
+        /**
+         * @param capacity most entries held, default 1024; rounded up to a power of two of at
+         *                 least 8
+         * @return
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param quantum arguments are rounded to the nearest multiple of quantum before the
+         *                function is evaluated; 0, the default, keys on the exact argument
+         * @return
+         */
+        public Builder quantum(double quantum) {
+            this.quantum = quantum;
+            return this;
+        }
+
+        public FunctionCache build() {
+            if (capacity < 1 || capacity > MAX_CAPACITY) {
+                String msg = String.format("Capacity must be in the range [1, %d]. Received %d.",
+                                           MAX_CAPACITY, capacity);
+                throw new IllegalArgumentException(msg);
+            }
+            if (!(quantum >= 0.0) || Double.isInfinite(quantum)) {
+                String msg = String.format("Quantum must be finite and not negative. " +
+                                               "Received %f.", quantum);
+                throw new IllegalArgumentException(msg);
+            }
+            return new FunctionCache(this);
+        }
+    }
+
+    private FunctionCache(Builder builder) {
+        this.function = builder.function;
+        this.quantum = builder.quantum;
+        int size = WAYS;
+        while (size < builder.capacity) {
+            size <<= 1;
+        }
+        this.setMask = size / WAYS - 1;
+        this.slots = new AtomicReferenceArray<Entry>(size);
+        this.hands = new AtomicIntegerArray(size / WAYS);
+    }
+
+    /**
+     * Gamma.logGamma at recurring arguments, shared by the whole process. Keys are exact, so
+     * every argument gives exactly Gamma.logGamma(x); the 4096 entries comfortably hold the
+     * half integers up to a thousand or so degrees of freedom with room for other values.
+     *
+     * @return the shared cache
+     */
+    public static FunctionCache logGamma() {
+        return LogGammaHolder.CACHE;
+    }
+
+    private static final class LogGammaHolder {
+        static final FunctionCache CACHE = new Builder(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Gamma.logGamma(x);
+            }
+        }).capacity(4096).build();
+    }
+
+    /**
+     * @param x
+     * @return the cached function value, evaluating and storing it on a miss; in quantized
+     *         mode the value at the nearest multiple of the quantum
+     */
+    @Override
+    public double value(double x) {
+        long key;
+        double argument = x;
+        if (quantum == 0.0) {
+            key = Double.doubleToLongBits(x);
+        }
+        else {
+            double index = Math.rint(x / quantum);
+            if (!(Math.abs(index) <= MAX_INDEX)) {
+                // NaN, infinite or too fine for the grid: not cached
+                count(MISSES);
+                return function.value(x);
+            }
+            key = (long) index;
+            argument = index * quantum;
+        }
+        int base = set(key) * WAYS;
+        for (int i = 0; i < WAYS; i++) {
+            Entry entry = slots.get(base + i);
+            if (entry != null && entry.key == key) {
+                if (!entry.referenced) {
+                    // only written when clear, so hot entries do not bounce between caches
+                    entry.referenced = true;
+                }
+                count(HITS);
+                return entry.value;
+            }
+        }
+        count(MISSES);
+        double value = function.value(argument);
+        insert(base, new Entry(key, value));
+        return value;
+    }
+
+    private void insert(int base, Entry entry) {
+        for (int i = 0; i < WAYS; i++) {
+            Entry current = slots.get(base + i);
+            if (current == null && slots.compareAndSet(base + i, null, entry)) {
+                return;
+            }
+            if (current != null && current.key == entry.key) {
+                // another thread stored the same key meanwhile
+                return;
+            }
+        }
+        // the set is full: two turns of the hand find an entry whose reference bit it cleared
+        int set = base / WAYS;
+        int start = hands.get(set);
+        for (int i = 0; i < 2 * WAYS; i++) {
+            int slot = base + ((start + i) & (WAYS - 1));
+            Entry current = slots.get(slot);
+            if (current != null && current.referenced) {
+                current.referenced = false;
+            }
+            else {
+                // a racing insertion into the same set may move the hand too; either is fine
+                hands.set(set, (start + i + 1) & (WAYS - 1));
+                if (slots.compareAndSet(slot, current, entry) && current != null) {
+                    count(EVICTIONS);
+                }
+                return;
+            }
+        }
+    }
+
+    private void count(int counter) {
+        // consecutive thread ids fall on distinct stripes
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counters.incrementAndGet(stripe * STRIPE_WIDTH + counter);
+    }
+
+    private long sum(int counter) {
+        long sum = 0L;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            sum += counters.get(stripe * STRIPE_WIDTH + counter);
+        }
+        return sum;
+    }
+
+    private static int stripes(int processors) {
+        int stripes = 1;
+        while (stripes < processors && stripes < 64) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    private int set(long key) {
+        // the 64 bit finalizer of MurmurHash3, so that nearby keys spread over the sets
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & setMask;
+    }
+
+    /**
+     * @return the most entries the cache holds
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return the quantum, 0 for exact keys
+     */
+    public double getQuantum() {
+        return quantum;
+    }
+
+    /**
+     * @return number of entries currently held, counted by a scan of the table
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return sum(HITS);
+    }
+
+    public long getMisses() {
+        return sum(MISSES);
+    }
+
+    public long getEvictions() {
+        return sum(EVICTIONS);
+    }
+
+    /**
+     * @return hits / (hits + misses), 0 before the first call
+     */
+    public double getHitRate() {
+        long h = sum(HITS);
+        long total = h + sum(MISSES);
+        return (total == 0) ? 0.0 : h / (double) total;
+    }
+
+    /**
+     * Remove all entries and reset the counters
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0L);
+        }
+    }
+}
@@ -41,6 +41,47 @@ public class Gamma {
         -1.34659959864969306392456E+5,
         -1.15132259675553483497211E+5};
 
+    // p and q in ascending order of powers; the numerator is z times P(z), the denominator
+    // is monic
+    private static final double[] P = {p[7], p[6], p[5], p[4], p[3], p[2], p[1], p[0]};
+    private static final double[] Q = {q[7], q[6], q[5], q[4], q[3], q[2], q[1], q[0], 1.0};
+
+    private static final double HALF_LOG_TWO_PI = 0.91893853320467274178032973640562;
+
+    /* incomplete gamma iteration limit, relative accuracy and underflow guard */
+    private static final int MAX_ITERATIONS = 100000;
+    private static final double EPSILON = 1.1e-16;
+    private static final double TINY = 1e-300;
+
+    /* quadrature replaces the series and continued fraction for a at least this large */
+    private static final double QUADRATURE_LIMIT = 100.0;
+
+    /* the inverse incomplete gamma stops at a Halley step below this relative size; Halley
+       converges in a handful of steps, the limit allows for bisection fallbacks */
+    private static final double INVERSE_EPSILON = 1e-12;
+    private static final int INVERSE_ITERATIONS = 200;
+
+    /* 24 point Gauss-Legendre abscissas and weights on [0, 1], shared with Beta */
+    static final double[] QUADRATURE_NODES = {
+        0.00240639000148932, 0.012635722014345251, 0.030862723998633622,
+        0.056792236497799485, 0.08999900701304854, 0.12993790421072282,
+        0.17595317403151223, 0.22728926430558022, 0.2831032461869774,
+        0.3424786601519183, 0.40444056626319186, 0.4679715535686972,
+        0.5320284464313028, 0.5955594337368082, 0.6575213398480817,
+        0.7168967538130225, 0.7727107356944197, 0.8240468259684878,
+        0.8700620957892772, 0.9100009929869515, 0.9432077635022005,
+        0.9691372760013663, 0.9873642779856547, 0.9975936099985107};
+
+    static final double[] QUADRATURE_WEIGHTS = {
+        0.0061706148999936, 0.014265694314466832, 0.022138719408709904,
+        0.02964929245771839, 0.03667324070554015, 0.04309508076597664,
+        0.04880932605205694, 0.05372213505798282, 0.0577528340268628,
+        0.060835236463901696, 0.06291872817341415, 0.06396909767337608,
+        0.06396909767337608, 0.06291872817341415, 0.060835236463901696,
+        0.0577528340268628, 0.05372213505798282, 0.04880932605205694,
+        0.04309508076597664, 0.03667324070554015, 0.02964929245771839,
+        0.022138719408709904, 0.014265694314466832, 0.0061706148999936};
+
     private static final double[] c = {
         1.0 / 12.0,
         -1.0 / 360.0,
@@ -60,6 +101,60 @@ public class Gamma {
             String msg = String.format("Invalid input argument {0}. Argument must be positive.", x);
             throw new IllegalArgumentException(msg);
         }
+        return gammaPositive(x);
+    }
+
+    /**
+     * gamma of each element of in[from, to), written to the same indexes of out; in and out
+     * may be the same array. Arguments that are not positive give NaN instead of an exception.
+     *
+     * @param in
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void gamma(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double x = in[i];
+            out[i] = (x > 0.0) ? gammaPositive(x) : Double.NaN;
+        }
+    }
+
+    /**
+     * logGamma from a piecewise Chebyshev approximation over [1, 12], built on first use; the
+     * error is about 1e-14, absolute near the zeros at 1 and 2 and relative elsewhere.
+     * Arguments below 1 use logGamma(x) = logGamma(x + 1) - log(x) and arguments above 12
+     * are passed to logGamma, whose asymptotic series is already short there.
+     *
+     * @param x must be positive
+     * @return
+     */
+    public static double logGammaFast(double x) {
+        if (x <= 0.0) {
+            String msg = String.format("Invalid input argument {0}. Argument must be positive.", x);
+            throw new IllegalArgumentException(msg);
+        }
+        if (x < 1.0) {
+            return FastApproximation.LOG_GAMMA.value(x + 1.0) - Math.log(x);
+        }
+        return (x <= 12.0) ? FastApproximation.LOG_GAMMA.value(x) : logGammaPositive(x);
+    }
+
+    /**
+     * Holder for the fast approximation, so it is built only when first used
+     */
+    private static final class FastApproximation {
+        static final ChebyshevApproximation LOG_GAMMA = new ChebyshevApproximation.Builder(
+            new UnivariateFunction() {
+                @Override
+                public double value(double x) {
+                    return logGammaPositive(x);
+                }
+            }).domain(1.0, 12.0).absoluteTolerance(2e-15).relativeTolerance(1e-14).degree(8)
+            .build();
+    }
+
+    private static double gammaPositive(double x) {
 
         // Split the function domain into three intervals:
         // (0, 0.001), [0.001, 12), and (12, infinity)
@@ -96,16 +191,10 @@ public class Gamma {
                 y -= n;
             }
 
-            double num = 0.0;
-            double den = 1.0;
             int i;
 
             double z = y - 1;
-            for (i = 0; i < 8; i++) {
-                num = (num + p[i]) * z;
-                den = den * z + q[i];
-            }
-            double result = num / den + 1.0;
+            double result = z * Polynomials.rational(P, Q, z) + 1.0;
 
             // Apply correction if argument was not initially in (1,2)
             if (arg_was_less_than_one) {
@@ -132,7 +221,7 @@ public class Gamma {
             return Double.POSITIVE_INFINITY;
         }
 
-        return Math.exp(logGamma(x));
+        return Math.exp(logGammaPositive(x));
     }
 
     /**
@@ -144,9 +233,28 @@ public class Gamma {
             String msg = String.format("Invalid input argument {0}. Argument must be positive.", x);
             throw new IllegalArgumentException(msg);
         }
+        return logGammaPositive(x);
+    }
 
+    /**
+     * logGamma of each element of in[from, to), written to the same indexes of out; in and out
+     * may be the same array. Arguments that are not positive give NaN instead of an exception.
+     *
+     * @param in
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void logGamma(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double x = in[i];
+            out[i] = (x > 0.0) ? logGammaPositive(x) : Double.NaN;
+        }
+    }
+
+    private static double logGammaPositive(double x) {
         if (x < 12.0) {
-            return Math.log(Math.abs(gamma(x)));
+            return Math.log(Math.abs(gammaPositive(x)));
         }
 
         // Abramowitz and Stegun 6.1.41
@@ -154,15 +262,336 @@ public class Gamma {
         // For error analysis, see Whittiker and Watson
         // A Course in Modern Analysis (1927), page 252
 
-        double z = 1.0 / (x * x);
-        double sum = c[7];
-        for (int i = 6; i >= 0; i--) {
-            sum *= z;
-            sum += c[i];
-        }
-        double series = sum / x;
-        double halfLogTwoPi = 0.91893853320467274178032973640562;
-        double logGamma = (x - 0.5) * Math.log(x) - x + halfLogTwoPi + series;
+        double logGamma = (x - 0.5) * Math.log(x) - x + HALF_LOG_TWO_PI + stirlingCorrection(x);
         return logGamma;
     }
+
+    /**
+     * The sum of the asymptotic series above, logGamma(x) - ((x - 0.5) log(x) - x + 0.5 log(2 pi)),
+     * for x >= 12. Kept separate so that callers combining several log gammas can cancel the
+     * large leading terms analytically.
+     */
+    static double stirlingCorrection(double x) {
+        double z = 1.0 / (x * x);
+        return Polynomials.estrin(c, z) / x;
+    }
+
+    /**
+     * log(1 + u) - u without cancellation for small u, u > -1
+     */
+    static double log1pmx(double u) {
+        if (Math.abs(u) > 0.25) {
+            return Math.log1p(u) - u;
+        }
+        // log(1 + u) = 2 atanh(r) = 2 (r + r^3 / 3 + r^5 / 5 + ...) with r = u / (2 + u),
+        // and 2 r - u = -u^2 / (2 + u)
+        double r = u / (2.0 + u);
+        double r2 = r * r;
+        double power = r2;
+        double sum = 0.0;
+        for (int k = 3; power > 1e-17 * 3; k += 2) {
+            sum += power / k;
+            power *= r2;
+        }
+        return -u * u / (2.0 + u) + 2.0 * r * sum;
+    }
+
+    /**
+     * The regularized lower incomplete gamma function
+     * P(a, x) = (1 / Gamma(a)) integral from 0 to x of t^(a - 1) e^(-t) dt,
+     * the cdf of a gamma distribution with shape a and scale 1.
+     * <p/>
+     * For a < 100 uses the power series when x < a + 1 and Lentz's evaluation of the
+     * continued fraction for Q otherwise. Both need O(sqrt(a)) terms near the peak, so for
+     * a >= 100 a 24 point Gauss-Legendre quadrature of the integrand on the side of x away
+     * from the peak is used instead, at a fixed cost. The prefactors are formed from
+     * stirlingCorrection and log1pmx rather than from differences of large logarithms, which
+     * keeps the relative error near 1e-13 even for very large a.
+     * see: Press, Teukolsky, Vetterling, Flannery. Numerical Recipes, 3rd edition, section 6.2
+     *
+     * @param a must be positive
+     * @param x must not be negative
+     * @return
+     */
+    public static double regularizedGammaP(double a, double x) {
+        checkIncompleteGamma(a, x);
+        if (x == 0.0) {
+            return 0.0;
+        }
+        if (x == Double.POSITIVE_INFINITY) {
+            return 1.0;
+        }
+        if (a >= QUADRATURE_LIMIT) {
+            return (x < a - 1.0) ? gammaQuadrature(a, x) : 1.0 - gammaQuadrature(a, x);
+        }
+        return (x < a + 1.0) ? gammaSeries(a, x) : 1.0 - gammaContinuedFraction(a, x);
+    }
+
+    /**
+     * The regularized upper incomplete gamma function Q(a, x) = 1 - P(a, x), computed
+     * directly so that small upper tail probabilities keep their relative precision; see
+     * regularizedGammaP.
+     *
+     * @param a must be positive
+     * @param x must not be negative
+     * @return
+     */
+    public static double regularizedGammaQ(double a, double x) {
+        checkIncompleteGamma(a, x);
+        if (x == 0.0) {
+            return 1.0;
+        }
+        if (x == Double.POSITIVE_INFINITY) {
+            return 0.0;
+        }
+        if (a >= QUADRATURE_LIMIT) {
+            return (x < a - 1.0) ? 1.0 - gammaQuadrature(a, x) : gammaQuadrature(a, x);
+        }
+        return (x < a + 1.0) ? 1.0 - gammaSeries(a, x) : gammaContinuedFraction(a, x);
+    }
+
+    /**
+     * The inverse of P(a, x) in x, the p quantile of a gamma distribution with shape a and
+     * scale 1.
+     * <p/>
+     * Starts from the Wilson-Hilferty approximation x = a (1 - 1 / (9a) + z / (3 sqrt(a)))^3,
+     * z the standard normal quantile, or for a &lt;= 1 and far lower tails from the leading
+     * term of the series, and converges with Halley steps using the density
+     * x^(a - 1) e^(-x) / Gamma(a) and its logarithmic derivative (a - 1) / x - 1, typically in
+     * 2 to 4 iterations. The steps follow whichever of P and Q is smaller, so that small
+     * probabilities in either tail keep their relative precision, and a step leaving the
+     * bracket established so far is replaced by bisection.
+     * see: Press, Teukolsky, Vetterling, Flannery. Numerical Recipes, 3rd edition, section 6.2.1
+     *
+     * @param a must be positive
+     * @param p probability in the range [0, 1]
+     * @return the x with P(a, x) = p; 0 for p = 0 and positive infinity for p = 1
+     */
+    public static double inverseRegularizedGammaP(double a, double p) {
+        checkInverseGamma(a, p);
+        return inverseGamma(a, p, 1.0 - p);
+    }
+
+    /**
+     * The inverse of Q(a, x) in x; see inverseRegularizedGammaP. Upper tail probabilities
+     * below about 1e-16, which 1 - p cannot represent, are solved to full relative precision.
+     *
+     * @param a must be positive
+     * @param q probability in the range [0, 1]
+     * @return the x with Q(a, x) = q; positive infinity for q = 0 and 0 for q = 1
+     */
+    public static double inverseRegularizedGammaQ(double a, double q) {
+        checkInverseGamma(a, q);
+        return inverseGamma(a, 1.0 - q, q);
+    }
+
+    private static void checkInverseGamma(double a, double probability) {
+        if (!(a > 0.0 && a < Double.POSITIVE_INFINITY)) {
+            String msg = String.format("Parameter a must be positive and finite. Received %f.", a);
+            throw new IllegalArgumentException(msg);
+        }
+        if (!(probability >= 0.0 && probability <= 1.0)) {
+            String msg = String.format("Probability must be in the range [0, 1]. Received %f.",
+                                       probability);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * @param p lower tail probability
+     * @param q upper tail probability, 1 - p
+     */
+    private static double inverseGamma(double a, double p, double q) {
+        if (p == 0.0) {
+            return 0.0;
+        }
+        if (q == 0.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        boolean lower = p <= q;
+        double target = lower ? p : q;
+        double x = inverseGammaStart(a, p, q, lower);
+        // the root lies in (low, high)
+        double low = 0.0;
+        double high = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < INVERSE_ITERATIONS; i++) {
+            double tail = lower ? regularizedGammaP(a, x) : regularizedGammaQ(a, x);
+            if (tail == target) {
+                return x;
+            }
+            if ((tail < target) == lower) {
+                low = x;
+            }
+            else {
+                high = x;
+            }
+            if (high - low <= EPSILON * x) {
+                // bracketed to rounding level, the incomplete gamma cannot resolve more
+                return x;
+            }
+            // F is P or Q, F' the density or its negative
+            double density = gammaDensity(a, x);
+            double ratio = tail / target;
+            double step;
+            if (ratio > 0.5 && ratio < 2.0) {
+                // Halley, with the Newton step u = (F(x) - target) / F'(x)
+                double u = (tail - target) / density;
+                if (!lower) {
+                    u = -u;
+                }
+                step = u / (1.0 - 0.5 * Math.min(1.0, u * ((a - 1.0) / x - 1.0)));
+            }
+            else {
+                // far out in a tail F changes by orders of magnitude: Newton on log F(x)
+                step = Math.log(ratio) * tail / density;
+                if (!lower) {
+                    step = -step;
+                }
+            }
+            double next = x - step;
+            if (Math.abs(step) <= INVERSE_EPSILON * x) {
+                // a last step may round past an end of the bracket
+                return Math.max(low, Math.min(high, next));
+            }
+            if (!(next > low && next < high)) {
+                // the density underflowed or the step overshot: bisect, or expand upwards
+                next = (high == Double.POSITIVE_INFINITY) ? 2.0 * x : 0.5 * (low + high);
+            }
+            if (next == x) {
+                break;
+            }
+            x = next;
+        }
+        return x;
+    }
+
+    private static double inverseGammaStart(double a, double p, double q, boolean lower) {
+        if (a > 1.0) {
+            double z = lower ? NormalCDFInverse.normalCDFInverse(p) :
+                -NormalCDFInverse.normalCDFInverse(q);
+            double c = 1.0 / (9.0 * a);
+            double w = 1.0 - c + z * Math.sqrt(c);
+            if (w > 0.0) {
+                return a * w * w * w;
+            }
+            // far lower tail, P(a, x) ~ x^a / Gamma(a + 1)
+            return Math.exp((Math.log(p) + logGammaPositive(a + 1.0)) / a);
+        }
+        double t = 1.0 - a * (0.253 + a * 0.12);
+        return (p < t) ? Math.pow(p / t, 1.0 / a) : 1.0 - Math.log(q / (1.0 - t));
+    }
+
+    private static void checkIncompleteGamma(double a, double x) {
+        if (!(a > 0.0 && a < Double.POSITIVE_INFINITY)) {
+            String msg = String.format("Parameter a must be positive and finite. Received %f.", a);
+            throw new IllegalArgumentException(msg);
+        }
+        if (!(x >= 0.0)) {
+            String msg = String.format("Argument x must not be negative. Received %f.", x);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * x^a e^(-x) / Gamma(a)
+     */
+    private static double incompleteGammaPrefactor(double a, double x) {
+        if (a < 12.0) {
+            return Math.exp(a * Math.log(x) - x - logGammaPositive(a));
+        }
+        // a (log(1 + u) - u) with u = (x - a) / a; far from the peak x / a is more accurate
+        // than 1 + u
+        double d = x - a;
+        double exponent = (Math.abs(d) <= 0.25 * a) ? a * log1pmx(d / a) :
+            a * Math.log(x / a) - d;
+        return Math.exp(exponent + 0.5 * Math.log(a) - HALF_LOG_TWO_PI - stirlingCorrection(a));
+    }
+
+    /**
+     * x^(a - 1) e^(-x) / Gamma(a), the density of the gamma distribution with scale 1
+     */
+    private static double gammaDensity(double a, double x) {
+        if (a < 12.0) {
+            return Math.exp((a - 1.0) * Math.log(x) - x - logGammaPositive(a));
+        }
+        return incompleteGammaPrefactor(a, x) / x;
+    }
+
+    /**
+     * P(a, x) from the series x^a e^(-x) / Gamma(a) sum x^n / (a (a + 1) ... (a + n))
+     */
+    private static double gammaSeries(double a, double x) {
+        double term = 1.0 / a;
+        double sum = term;
+        double ap = a;
+        for (int n = 0; n < MAX_ITERATIONS; n++) {
+            ap += 1.0;
+            term *= x / ap;
+            sum += term;
+            if (Math.abs(term) < Math.abs(sum) * EPSILON) {
+                break;
+            }
+        }
+        return sum * incompleteGammaPrefactor(a, x);
+    }
+
+    /**
+     * Q(a, x) from the continued fraction
+     * x^a e^(-x) / Gamma(a) (1 / (x + 1 - a -) 1 (1 - a) / (x + 3 - a -) 2 (2 - a) / (x + 5 - a -) ...)
+     * by the modified Lentz method
+     */
+    private static double gammaContinuedFraction(double a, double x) {
+        double b = x + 1.0 - a;
+        double c = 1.0 / TINY;
+        double d = 1.0 / b;
+        double h = d;
+        for (int i = 1; i < MAX_ITERATIONS; i++) {
+            double an = -i * (i - a);
+            b += 2.0;
+            d = an * d + b;
+            if (Math.abs(d) < TINY) {
+                d = TINY;
+            }
+            c = b + an / c;
+            if (Math.abs(c) < TINY) {
+                c = TINY;
+            }
+            d = 1.0 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1.0) < EPSILON) {
+                break;
+            }
+        }
+        return h * incompleteGammaPrefactor(a, x);
+    }
+
+    /**
+     * For a >= 100, the integral of t^(a - 1) e^(-t) / Gamma(a) from x away from the peak at
+     * a - 1: P(a, x) when x is below the peak and Q(a, x) otherwise. The range covers
+     * several standard deviations past the peak, but stops once the integrand, which falls at
+     * least at its rate |a1 / x - 1| at x, is down by about e^-40.
+     */
+    private static double gammaQuadrature(double a, double x) {
+        double a1 = a - 1.0;
+        double sigma = Math.sqrt(a1);
+        double z = Math.abs(x - a1) / sigma;
+        double cutoff = 40.0 / Math.abs(a1 / x - 1.0);
+        double end;
+        if (x < a1) {
+            end = Math.max(0.0, x - Math.min(Math.max(5.0, 7.5 - z) * sigma, cutoff));
+        }
+        else {
+            end = x + Math.min(Math.max(6.0, 11.5 - z) * sigma, cutoff);
+        }
+        double sum = 0.0;
+        for (int j = 0; j < QUADRATURE_NODES.length; j++) {
+            double t = x + (end - x) * QUADRATURE_NODES[j];
+            sum += QUADRATURE_WEIGHTS[j] * Math.exp(a1 * log1pmx((t - a1) / a1));
+        }
+        // a1^a1 e^(-a1) / Gamma(a)
+        double prefactor = Math.exp(a1 * Math.log1p(-1.0 / a) + 1.0 - 0.5 * Math.log(a) -
+                                        HALF_LOG_TWO_PI - stirlingCorrection(a));
+        return sum * Math.abs(end - x) * prefactor;
+    }
 }
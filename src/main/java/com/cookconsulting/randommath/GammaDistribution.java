@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Gamma distribution with the given shape and scale; see RandomNumberFactory.getGamma
+ * see: http://en.wikipedia.org/wiki/Gamma_distribution
+ * <p/>
+ * Samples use the method of Marsaglia and Tsang, with the constants d and c computed once.
+ * For shape < 1, a sample for shape + 1 is scaled by U^(1 / shape).
+ * <p/>
+ * A chi square distribution with n degrees of freedom is a gamma distribution with
+ * shape n/2 and scale 2, see chiSquare(double).
+ * <p/>
+ * The cdf is the regularized incomplete gamma function P(shape, x / scale) and the quantile
+ * its inverse, Gamma.inverseRegularizedGammaP.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class GammaDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = 4729434394442722416L;
+
+    private final double shape;
+    private final double scale;
+    // Marsaglia and Tsang constants, for max(shape, shape + 1)
+    private final double d;
+    private final double c;
+    private final double inverseShape;
+    private final double logNormalizer;
+
+    /**
+     * @param shape must be positive
+     * @param scale must be positive
+     */
+    public GammaDistribution(double shape, double scale) {
+        checkPositive("Shape", shape);
+        checkPositive("Scale", scale);
+        this.shape = shape;
+        this.scale = scale;
+        double boosted = shape < 1.0 ? shape + 1.0 : shape;
+        this.d = boosted - 1.0 / 3.0;
+        this.c = 1.0 / Math.sqrt(9.0 * d);
+        this.inverseShape = 1.0 / shape;
+        this.logNormalizer = -Gamma.logGamma(shape) - shape * Math.log(scale);
+    }
+
+    /**
+     * @param degreesOfFreedom must be positive
+     * @return the chi square distribution as a gamma distribution
+     */
+    public static GammaDistribution chiSquare(double degreesOfFreedom) {
+        checkPositive("Degrees of freedom", degreesOfFreedom);
+        return new GammaDistribution(0.5 * degreesOfFreedom, 2.0);
+    }
+
+    public double getShape() {
+        return shape;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        double x, xsquared, v, u;
+        for (; ; ) {
+            do {
+                x = RandomNumberFactory.normal(randomNumberGenerator);
+                v = 1.0 + c * x;
+            }
+            while (v <= 0.0);
+            v = v * v * v;
+            u = RandomNumberFactory.uniform(randomNumberGenerator);
+            xsquared = x * x;
+            if (u < 1.0 - .0331 * xsquared * xsquared ||
+                Math.log(u) < 0.5 * xsquared + d * (1.0 - v + Math.log(v))) {
+                break;
+            }
+        }
+        double g = scale * d * v;
+        if (shape < 1.0) {
+            g *= Math.pow(RandomNumberFactory.uniform(randomNumberGenerator), inverseShape);
+        }
+        return g;
+    }
+
+    @Override
+    public double pdf(double x) {
+        if (x < 0.0) {
+            return 0.0;
+        }
+        if (x == 0.0) {
+            return shape < 1.0 ? Double.POSITIVE_INFINITY :
+                (shape == 1.0 ? 1.0 / scale : 0.0);
+        }
+        return Math.exp((shape - 1.0) * Math.log(x) - x / scale + logNormalizer);
+    }
+
+    @Override
+    public double cdf(double x) {
+        if (x <= 0.0) {
+            return 0.0;
+        }
+        return Gamma.regularizedGammaP(shape, x / scale);
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        return scale * Gamma.inverseRegularizedGammaP(shape, p);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Geometric distribution: the number of failures before the first success in independent
+ * trials with success probability p, P(k) = (1 - p)^k p for k = 0, 1, 2, ...
+ * see: http://en.wikipedia.org/wiki/Geometric_distribution
+ * <p/>
+ * Samples use inversion with a single logarithm per sample, floor(log(U) / log(1 - p)).
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class GeometricSampler extends AbstractDiscreteSampler {
+
+    private static final long serialVersionUID = -5120624398166315539L;
+
+    private final double probability;
+    /* 1 / log(1 - p) */
+    private final double inverseLogQ;
+
+    /**
+     * @param probability success probability, in the range (0, 1]
+     */
+    public GeometricSampler(double probability) {
+        if (!(probability > 0.0 && probability <= 1.0)) {
+            String msg = String.format("Probability must be in the range (0, 1]. Received %f.",
+                                       probability);
+            throw new IllegalArgumentException(msg);
+        }
+        this.probability = probability;
+        this.inverseLogQ = 1.0 / Math.log1p(-probability);
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    @Override
+    public long sample(RandomNumberGenerator randomNumberGenerator) {
+        if (probability == 1.0) {
+            return 0;
+        }
+        double k = Math.floor(Math.log(RandomNumberFactory.uniform(randomNumberGenerator)) * inverseLogQ);
+        // the cast saturates at Long.MAX_VALUE
+        return (long) k;
+    }
+}
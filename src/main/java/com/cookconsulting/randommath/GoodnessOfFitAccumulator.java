@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Streaming chi square goodness of fit test: counts observations of a fixed set of integer
+ * categories against their expected probabilities, and reports the chi square statistic and
+ * its p-value at any time.
+ * <p/>
+ * Categories are the consecutive integers from a first category on, and their counts are
+ * kept in an AtomicLongArray, a primitive long[] updated with compare and swap, so any number
+ * of producer threads may add observations without locking or boxing. The statistic is the
+ * sum over categories of (observed - expected)^2 / expected with the exact expected values
+ * p * n, not rounded to integers, and costs one pass over the categories; the p-value is
+ * ChiSquaredTable.getPValue with categories - 1 degrees of freedom.
+ * <p/>
+ * A statistic read while producers are adding describes a snapshot that may include some
+ * of the concurrent additions and not others; every count it uses is read exactly once, so
+ * the sample size always agrees with the counts.
+ * <p/>
+ * see Knuth, Art of Computer Programming, Vol. 2, pp.42-47
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class GoodnessOfFitAccumulator {
+
+    private final int firstCategory;
+    private final double[] probabilities;
+    private final AtomicLongArray counts;
+
+    /**
+     * @param firstCategory the category counted at probabilities[0]; category
+     *                      firstCategory + i is counted at probabilities[i]
+     * @param probabilities expected probabilities of at least two categories, each positive;
+     *                      they are divided by their sum, so that rounding errors (or
+     *                      unnormalized weights) do not bias the statistic
+     */
+    public GoodnessOfFitAccumulator(int firstCategory, double[] probabilities) {
+        if (probabilities.length < 2) {
+            String msg = String.format("At least two categories are needed. Received %d.",
+                                       probabilities.length);
+            throw new IllegalArgumentException(msg);
+        }
+        if ((long) firstCategory + probabilities.length - 1 > Integer.MAX_VALUE) {
+            String msg = String.format("Categories must end by Integer.MAX_VALUE. Received %d.",
+                                       firstCategory);
+            throw new IllegalArgumentException(msg);
+        }
+        double sum = 0.0;
+        for (double p : probabilities) {
+            if (!(p > 0.0) || Double.isInfinite(p)) {
+                String msg = String.format(
+                    "Probabilities must be positive and finite. Received %f.", p);
+                throw new IllegalArgumentException(msg);
+            }
+            sum += p;
+        }
+        this.firstCategory = firstCategory;
+        this.probabilities = new double[probabilities.length];
+        for (int i = 0; i < probabilities.length; i++) {
+            this.probabilities[i] = probabilities[i] / sum;
+        }
+        this.counts = new AtomicLongArray(probabilities.length);
+    }
+
+    /**
+     * @param probabilities expected probabilities by category; the keys must be consecutive
+     *                      integers
+     */
+    public GoodnessOfFitAccumulator(Map<Integer, Double> probabilities) {
+        this(firstKey(probabilities), toArray(probabilities));
+    }
+
+    private static int firstKey(Map<Integer, Double> probabilities) {
+        if (probabilities.isEmpty()) {
+            throw new IllegalArgumentException("At least two categories are needed. Received 0.");
+        }
+        int first = Integer.MAX_VALUE;
+        for (Integer key : probabilities.keySet()) {
+            first = Math.min(first, key);
+        }
+        return first;
+    }
+
+    private static double[] toArray(Map<Integer, Double> probabilities) {
+        int first = firstKey(probabilities);
+        double[] values = new double[probabilities.size()];
+        for (int i = 0; i < values.length; i++) {
+            Double p = probabilities.get(first + i);
+            if (p == null) {
+                String msg = String.format(
+                    "Categories must be consecutive integers. Missing %d.", first + i);
+                throw new IllegalArgumentException(msg);
+            }
+            values[i] = p;
+        }
+        return values;
+    }
+
+    /**
+     * Counts one observation; safe to call from any number of threads
+     *
+     * @param category
+     */
+    public void add(int category) {
+        counts.incrementAndGet(index(category));
+    }
+
+    /**
+     * Counts several observations of one category at once; safe to call from any number of
+     * threads
+     *
+     * @param category
+     * @param count    must not be negative
+     */
+    public void add(int category, long count) {
+        if (count < 0L) {
+            String msg = String.format("Count must not be negative. Received %d.", count);
+            throw new IllegalArgumentException(msg);
+        }
+        counts.addAndGet(index(category), count);
+    }
+
+    private int index(int category) {
+        int i = category - firstCategory;
+        if (i < 0 || i >= probabilities.length) {
+            String msg = String.format("Category must be in [%d, %d]. Received %d.",
+                                       firstCategory, firstCategory + probabilities.length - 1,
+                                       category);
+            throw new IllegalArgumentException(msg);
+        }
+        return i;
+    }
+
+    /**
+     * Resets every count to 0. Additions made while it runs may or may not survive.
+     */
+    public void clear() {
+        for (int i = 0; i < probabilities.length; i++) {
+            counts.set(i, 0L);
+        }
+    }
+
+    /**
+     * @param category
+     * @return observations of the category so far
+     */
+    public long getCount(int category) {
+        return counts.get(index(category));
+    }
+
+    /**
+     * @param category
+     * @return the expected number of observations of the category, its probability times
+     *         the current sample size, not rounded
+     */
+    public double getExpected(int category) {
+        return probabilities[index(category)] * getSampleSize();
+    }
+
+    /**
+     * @return observations of all categories so far
+     */
+    public long getSampleSize() {
+        long n = 0L;
+        for (int i = 0; i < probabilities.length; i++) {
+            n += counts.get(i);
+        }
+        return n;
+    }
+
+    public int getCategories() {
+        return probabilities.length;
+    }
+
+    public int getDegreesOfFreedom() {
+        return probabilities.length - 1;
+    }
+
+    /**
+     * @return the chi square statistic of the counts so far; 0 before any observation
+     */
+    public double chiSquared() {
+        int k = probabilities.length;
+        long[] observed = new long[k];
+        long n = 0L;
+        for (int i = 0; i < k; i++) {
+            observed[i] = counts.get(i);
+            n += observed[i];
+        }
+        if (n == 0L) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < k; i++) {
+            double expected = probabilities[i] * n;
+            double difference = observed[i] - expected;
+            sum += difference * difference / expected;
+        }
+        return sum;
+    }
+
+    /**
+     * @return the probability that counts drawn from the expected probabilities would give a
+     *         chi square statistic at least as large as the current one; small values are
+     *         evidence against the expected probabilities
+     */
+    public double pValue() {
+        return ChiSquaredTable.getPValue(getDegreesOfFreedom(), chiSquared());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * The Halton low-discrepancy sequence: coordinate j of point n is the radical inverse of n in
+ * the base of the j-th prime, i.e. the base-b digits of n mirrored about the radix point.
+ * see: http://en.wikipedia.org/wiki/Halton_sequence
+ * <p/>
+ * Halton points are simple and can be started at any index at no cost. In more than about
+ * 10 to 20 dimensions the coordinates for neighbouring large primes become strongly
+ * correlated for small n; use SobolSequence for high dimensional problems.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class HaltonSequence extends QuasiRandomSequence {
+
+    private final int[] bases;
+    private final double[] inverseBases;
+
+    /**
+     * @param dimension number of coordinates per point; each uses the next prime as its base
+     */
+    public HaltonSequence(int dimension) {
+        super(dimension);
+        if (dimension < 1) {
+            String msg = String.format("Dimension must be positive. Received %d.", dimension);
+            throw new IllegalArgumentException(msg);
+        }
+        this.bases = primes(dimension);
+        this.inverseBases = new double[dimension];
+        for (int j = 0; j < dimension; j++) {
+            inverseBases[j] = 1.0 / bases[j];
+        }
+    }
+
+    /**
+     * @param index positive; the point at index 0 is the origin, outside the open unit cube
+     */
+    @Override
+    public void skipTo(long index) {
+        if (index < 1) {
+            String msg = String.format("Index must be positive. Received %d.", index);
+            throw new IllegalArgumentException(msg);
+        }
+        this.index = index;
+    }
+
+    @Override
+    protected void nextPoint(double[] point, int offset) {
+        long n = index++;
+        for (int j = 0; j < dimension; j++) {
+            point[offset + j] = radicalInverse(n, bases[j], inverseBases[j]);
+        }
+    }
+
+    /**
+     * @param n           non negative index
+     * @param base
+     * @param inverseBase 1 / base
+     * @return the digits of n in the given base reflected about the radix point
+     */
+    static double radicalInverse(long n, int base, double inverseBase) {
+        double result = 0.0;
+        double weight = inverseBase;
+        while (n > 0) {
+            long quotient = n / base;
+            result += (n - quotient * base) * weight;
+            weight *= inverseBase;
+            n = quotient;
+        }
+        return result;
+    }
+
+    /**
+     * @param count
+     * @return the first count primes
+     */
+    static int[] primes(int count) {
+        int[] primes = new int[count];
+        int found = 0;
+        for (int candidate = 2; found < count; candidate++) {
+            boolean prime = true;
+            for (int i = 0; i < found && primes[i] * primes[i] <= candidate; i++) {
+                if (candidate % primes[i] == 0) {
+                    prime = false;
+                    break;
+                }
+            }
+            if (prime) {
+                primes[found++] = candidate;
+            }
+        }
+        return primes;
+    }
+}
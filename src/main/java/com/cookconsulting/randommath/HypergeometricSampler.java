@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Hypergeometric distribution: the number of marked items in a sample drawn without
+ * replacement from a population containing a given number of marked items.
+ * see: http://en.wikipedia.org/wiki/Hypergeometric_distribution
+ * <p/>
+ * Samples of fewer than 10 items (or leaving fewer than 10 behind) simulate the draws
+ * directly; otherwise Stadlober's ratio of uniforms method (HRUA) is used, whose expected
+ * cost is bounded independently of the parameters. All constants are computed once.
+ * <p/>
+ * see: Stadlober, E. Ratio of uniforms as a convenient method for sampling from classical
+ * discrete distributions, Proceedings of the 1989 Winter Simulation Conference, pp 484-489
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class HypergeometricSampler extends AbstractDiscreteSampler {
+
+    private static final long serialVersionUID = 8570327419713811092L;
+
+    /* 2 sqrt(2 / e) */
+    private static final double D1 = 1.7155277699214135;
+    /* 3 - 2 sqrt(3 / e) */
+    private static final double D2 = 0.8989161620588988;
+    private static final long DIRECT_LIMIT = 10;
+
+    private final long populationSize;
+    private final long marked;
+    private final long sampleSize;
+    /* the sampled problem is reduced to at most half the population and the rarer kind */
+    private final long reducedSample;
+    private final long minMarkedUnmarked;
+    private final long maxMarkedUnmarked;
+    private final double a;
+    private final double h;
+    private final double g;
+    private final double bound;
+
+    /**
+     * @param populationSize number of items in the population, must be positive
+     * @param marked         number of marked items, in the range [0, populationSize]
+     * @param sampleSize     number of items drawn, in the range [0, populationSize]
+     */
+    public HypergeometricSampler(long populationSize, long marked, long sampleSize) {
+        if (populationSize < 1 || marked < 0 || marked > populationSize ||
+            sampleSize < 0 || sampleSize > populationSize) {
+            String msg = String.format(
+                "Invalid hypergeometric parameters: population %d, marked %d, sample %d.",
+                populationSize, marked, sampleSize);
+            throw new IllegalArgumentException(msg);
+        }
+        this.populationSize = populationSize;
+        this.marked = marked;
+        this.sampleSize = sampleSize;
+        this.reducedSample = Math.min(sampleSize, populationSize - sampleSize);
+        this.minMarkedUnmarked = Math.min(marked, populationSize - marked);
+        this.maxMarkedUnmarked = Math.max(marked, populationSize - marked);
+
+        double p = minMarkedUnmarked / (double) populationSize;
+        double q = maxMarkedUnmarked / (double) populationSize;
+        double mu = reducedSample * p;
+        double variance = (populationSize > 1) ?
+            (populationSize - reducedSample) * (double) reducedSample * p * q / (populationSize - 1) : 0.0;
+        double c = Math.sqrt(variance + 0.5);
+        this.a = mu + 0.5;
+        this.h = D1 * c + D2;
+        long mode = (long) Math.floor((reducedSample + 1.0) * (minMarkedUnmarked + 1.0) /
+                                          (populationSize + 2.0));
+        this.g = logTerms(mode);
+        this.bound = Math.min(Math.min(reducedSample, minMarkedUnmarked) + 1.0,
+                              Math.floor(a + 16.0 * c));
+    }
+
+    public long getPopulationSize() {
+        return populationSize;
+    }
+
+    public long getMarked() {
+        return marked;
+    }
+
+    public long getSampleSize() {
+        return sampleSize;
+    }
+
+    @Override
+    public long sample(RandomNumberGenerator randomNumberGenerator) {
+        long k = (reducedSample < DIRECT_LIMIT || minMarkedUnmarked < DIRECT_LIMIT) ?
+            direct(randomNumberGenerator) : ratioOfUniforms(randomNumberGenerator);
+        if (marked > populationSize - marked) {
+            k = reducedSample - k;
+        }
+        if (reducedSample < sampleSize) {
+            k = marked - k;
+        }
+        return k;
+    }
+
+    /**
+     * draw reducedSample items one by one, counting items of the rarer kind;
+     * bounded by the smaller of reducedSample and minMarkedUnmarked draws
+     */
+    private long direct(RandomNumberGenerator rng) {
+        if (reducedSample <= minMarkedUnmarked) {
+            long remaining = populationSize;
+            long rare = minMarkedUnmarked;
+            long k = 0;
+            for (long i = 0; i < reducedSample; i++) {
+                if (RandomNumberFactory.uniform(rng) * remaining < rare) {
+                    k++;
+                    rare--;
+                }
+                remaining--;
+            }
+            return k;
+        }
+        // by symmetry, place the rare items and count how many land in the sample
+        long remaining = populationSize;
+        long slots = reducedSample;
+        long k = 0;
+        for (long i = 0; i < minMarkedUnmarked; i++) {
+            if (RandomNumberFactory.uniform(rng) * remaining < slots) {
+                k++;
+                slots--;
+            }
+            remaining--;
+        }
+        return k;
+    }
+
+    private long ratioOfUniforms(RandomNumberGenerator rng) {
+        while (true) {
+            double u = RandomNumberFactory.uniform(rng);
+            double v = RandomNumberFactory.uniform(rng);
+            double x = a + h * (v - 0.5) / u;
+            if (x < 0.0 || x >= bound) {
+                continue;
+            }
+            long k = (long) x;
+            double t = g - logTerms(k);
+            // squeeze acceptance
+            if (u * (4.0 - u) - 3.0 <= t) {
+                return k;
+            }
+            // squeeze rejection
+            if (u * (u - t) >= 1.0) {
+                continue;
+            }
+            if (2.0 * Math.log(u) <= t) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * @return the log of the denominator of the reduced hypergeometric probability of k
+     */
+    private double logTerms(long k) {
+        return LogFactorial.logFactorial(k) + LogFactorial.logFactorial(minMarkedUnmarked - k) +
+            LogFactorial.logFactorial(reducedSample - k) +
+            LogFactorial.logFactorial(maxMarkedUnmarked - reducedSample + k);
+    }
+}
@@ -0,0 +1,525 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Numerical inversion sampler for continuous distributions known only through their cdf.
+ * <p/>
+ * At build time the cdf is tabulated on an adaptively refined grid of knots x[0..n] over a
+ * finite domain [lower, upper], until interpolating the quantile function between the knots
+ * reproduces u to within the requested u-resolution: |cdf(quantile(u)) - u| <= resolution.
+ * Between knots the quantile is interpolated linearly or, when a pdf is supplied, by a cubic
+ * Hermite polynomial using dx/du = 1 / pdf(x), which needs far fewer knots.
+ * <p/>
+ * A guide table (Chen and Asau's indexed search) maps each of n equal slices of (0, 1) to the
+ * first knot interval that may contain it, so a sample costs one uniform, one table lookup,
+ * an expected constant number of comparisons and one interpolation.
+ * <p/>
+ * The domain must be finite; for distributions with infinite support choose bounds whose tail
+ * mass is below the resolution. The cdf is renormalized over the domain, and small decreases
+ * caused by rounding in the supplied cdf are flattened so the table stays monotone.
+ * <p/>
+ * Built tables may be persisted with save and restored with load, avoiding the cdf evaluations
+ * on the next start.
+ * <p/>
+ * see: Hormann, W. and Leydold, J. "Continuous Random Variate Generation by Fast Numerical
+ * Inversion" ACM TOMACS Vol 13, No 4, October 2003, pages 347-362.
+ * see: Devroye, L. Non-Uniform Random Variate Generation, 1986, section III.2.4
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class InversionSampler extends AbstractDistribution {
+
+    private static final long serialVersionUID = 1843290137653281906L;
+
+    /* identifies the persisted table format */
+    private static final int MAGIC = 0x494e5653;
+    private static final int VERSION = 1;
+
+    /* initial number of equal width intervals */
+    private static final int INITIAL_INTERVALS = 32;
+
+    /* upper limit on the table size, to stop unreachable resolutions running away */
+    private static final int MAX_KNOTS = 1 << 22;
+
+    private final double[] x;
+    private final double[] u;
+    // dx/du at each knot; null for linear interpolation
+    private final double[] slope;
+    private final int[] guide;
+    private final double resolution;
+
+    /**
+     * Builder class. See _Effective Java, second edition_ by Josh Bloch
+     */
+    public static class Builder {
+        private final UnivariateFunction cdf;
+        private UnivariateFunction pdf = null;
+        private double lower = Double.NaN;
+        private double upper = Double.NaN;
+        private double resolution = 1e-10;
+
+        /**
+         * @param cdf the cumulative distribution function to invert
+         */
+        public Builder(UnivariateFunction cdf) {
+            this.cdf = cdf;
+        }
+
+        /**
+         * Optional; the density enables cubic interpolation
+         *
+         * @param pdf the derivative of the cdf
+         * @return
+         */
+        public Builder pdf(UnivariateFunction pdf) {
+            this.pdf = pdf;
+            return this;
+        }
+
+        /**
+         * @param lower smallest value to generate
+         * @param upper largest value to generate
+         * @return
+         */
+        public Builder domain(double lower, double upper) {
+            this.lower = lower;
+            this.upper = upper;
+            return this;
+        }
+
+        /**
+         * @param resolution maximum error in u, default 1e-10
+         * @return
+         */
+        public Builder resolution(double resolution) {
+            this.resolution = resolution;
+            return this;
+        }
+
+        public InversionSampler build() {
+            if (!(lower < upper) || Double.isInfinite(lower) || Double.isInfinite(upper)) {
+                String msg = String.format("Domain must be a finite interval. " +
+                                               "Received lower %f and upper %f.", lower, upper);
+                throw new IllegalArgumentException(msg);
+            }
+            if (!(resolution > 0.0 && resolution < 1.0)) {
+                String msg = String.format("Resolution must be in the range (0, 1). Received %f.",
+                                           resolution);
+                throw new IllegalArgumentException(msg);
+            }
+            return new InversionSampler(this);
+        }
+    }
+
+    private InversionSampler(Builder builder) {
+        this.resolution = builder.resolution;
+        Tabulator tabulator = new Tabulator(builder);
+        tabulator.refine();
+        this.x = tabulator.x;
+        this.u = tabulator.u;
+        this.slope = tabulator.slope;
+        this.guide = createGuideTable(u);
+    }
+
+    private InversionSampler(double[] x, double[] u, double[] slope, double resolution) {
+        this.x = x;
+        this.u = u;
+        this.slope = slope;
+        this.resolution = resolution;
+        this.guide = createGuideTable(u);
+    }
+
+    /**
+     * @return number of knots in the table
+     */
+    public int getTableSize() {
+        return x.length;
+    }
+
+    public double getResolution() {
+        return resolution;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return lookup(RandomNumberFactory.uniform(randomNumberGenerator));
+    }
+
+    @Override
+    public void fill(RandomNumberGenerator randomNumberGenerator, double[] values,
+                     int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = lookup(RandomNumberFactory.uniform(randomNumberGenerator));
+        }
+    }
+
+    /**
+     * Approximate density, the slope of the tabulated cdf
+     */
+    @Override
+    public double pdf(double t) {
+        if (t < x[0] || t > x[x.length - 1]) {
+            return 0.0;
+        }
+        int i = interval(t);
+        double dx = x[i + 1] - x[i];
+        return dx > 0.0 ? (u[i + 1] - u[i]) / dx : 0.0;
+    }
+
+    /**
+     * Approximate cdf, linearly interpolated between the knots
+     */
+    @Override
+    public double cdf(double t) {
+        if (t <= x[0]) {
+            return 0.0;
+        }
+        if (t >= x[x.length - 1]) {
+            return 1.0;
+        }
+        int i = interval(t);
+        double dx = x[i + 1] - x[i];
+        return dx > 0.0 ? u[i] + (u[i + 1] - u[i]) * (t - x[i]) / dx : u[i];
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        return lookup(p);
+    }
+
+    /**
+     * Write the table to a stream; the stream is not closed.
+     *
+     * @param outputStream
+     * @throws IOException
+     */
+    public void save(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeDouble(resolution);
+        out.writeInt(x.length);
+        out.writeBoolean(slope != null);
+        for (int i = 0; i < x.length; i++) {
+            out.writeDouble(x[i]);
+            out.writeDouble(u[i]);
+            if (slope != null) {
+                out.writeDouble(slope[i]);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Read a table written by save; the stream is not closed.
+     *
+     * @param inputStream
+     * @return
+     * @throws IOException
+     */
+    public static InversionSampler load(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an InversionSampler table");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported InversionSampler table version: " + version);
+        }
+        double resolution = in.readDouble();
+        int n = in.readInt();
+        if (n < 2 || n > MAX_KNOTS) {
+            throw new IOException("Invalid InversionSampler table size: " + n);
+        }
+        boolean hasSlope = in.readBoolean();
+        double[] x = new double[n];
+        double[] u = new double[n];
+        double[] slope = hasSlope ? new double[n] : null;
+        for (int i = 0; i < n; i++) {
+            x[i] = in.readDouble();
+            u[i] = in.readDouble();
+            if (hasSlope) {
+                slope[i] = in.readDouble();
+            }
+        }
+        return new InversionSampler(x, u, slope, resolution);
+    }
+
+    /**
+     * @param p in [0, 1]
+     * @return the interpolated quantile
+     */
+    private double lookup(double p) {
+        int last = x.length - 2;
+        int i = guide[(int) (p * (guide.length - 1))];
+        while (i < last && u[i + 1] < p) {
+            i++;
+        }
+        return interpolate(i, p);
+    }
+
+    /**
+     * Interpolate the quantile function on knot interval i
+     */
+    private double interpolate(int i, double p) {
+        double du = u[i + 1] - u[i];
+        if (du <= 0.0) {
+            return x[i];
+        }
+        double t = (p - u[i]) / du;
+        double x0 = x[i];
+        double x1 = x[i + 1];
+        if (slope == null || Double.isInfinite(slope[i]) || Double.isInfinite(slope[i + 1])) {
+            return x0 + t * (x1 - x0);
+        }
+        // cubic Hermite basis
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double h00 = 2 * t3 - 3 * t2 + 1;
+        double h10 = t3 - 2 * t2 + t;
+        double h01 = -2 * t3 + 3 * t2;
+        double h11 = t3 - t2;
+        double value = h00 * x0 + h10 * du * slope[i] + h01 * x1 + h11 * du * slope[i + 1];
+        // keep rounding from stepping outside the knot interval
+        return Math.min(Math.max(value, x0), x1);
+    }
+
+    /**
+     * @return index i such that x[i] <= t < x[i + 1]
+     */
+    private int interval(double t) {
+        int low = 0;
+        int high = x.length - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (x[mid] <= t) {
+                low = mid;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * guide[j] is the last knot whose u value is at most j / (guide.length - 1)
+     */
+    private static int[] createGuideTable(double[] u) {
+        int size = u.length;
+        int[] guide = new int[size + 1];
+        int i = 0;
+        for (int j = 0; j <= size; j++) {
+            double p = j / (double) size;
+            while (i < u.length - 2 && u[i + 1] <= p) {
+                i++;
+            }
+            guide[j] = i;
+        }
+        return guide;
+    }
+
+    /**
+     * Helper for building the table: holds the knots during adaptive refinement. The cdf and
+     * pdf are evaluated once per knot, and an interval is checked until it passes, so each
+     * round only costs the new midpoints and the two halves of every split interval.
+     */
+    private static class Tabulator {
+        private final UnivariateFunction cdf;
+        private final UnivariateFunction pdf;
+        private final double resolution;
+        private final double minimumWidth;
+        private final double offset;
+        private final double range;
+
+        double[] x;
+        double[] u;
+        double[] slope;
+        /* normalized cdf at each knot, before u makes it non decreasing */
+        private double[] level;
+        /* done[i]: interval i passed, or is too narrow to split */
+        private boolean[] done;
+
+        Tabulator(Builder builder) {
+            this.cdf = builder.cdf;
+            this.pdf = builder.pdf;
+            this.resolution = builder.resolution;
+            this.minimumWidth = 1e-12 * (builder.upper - builder.lower);
+            this.offset = builder.cdf.value(builder.lower);
+            this.range = builder.cdf.value(builder.upper) - offset;
+            if (!(range > 0.0)) {
+                String msg = String.format("The cdf must increase over the domain. " +
+                                               "Received cdf(lower) %f and cdf(upper) %f.",
+                                           offset, offset + range);
+                throw new IllegalArgumentException(msg);
+            }
+            int n = INITIAL_INTERVALS + 1;
+            x = new double[n];
+            level = new double[n];
+            slope = (pdf == null) ? null : new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = builder.lower + (builder.upper - builder.lower) * i / INITIAL_INTERVALS;
+            }
+            x[n - 1] = builder.upper;
+            for (int i = 0; i < n; i++) {
+                level[i] = i == 0 ? 0.0 : (i == n - 1 ? 1.0 : normalizedCdf(x[i]));
+                if (slope != null) {
+                    slope[i] = slopeAt(x[i]);
+                }
+            }
+            done = new boolean[n - 1];
+            u = new double[n];
+            monotone();
+        }
+
+        /**
+         * @return normalized cdf, clamped to [0, 1]
+         */
+        private double normalizedCdf(double t) {
+            double p = (cdf.value(t) - offset) / range;
+            return Math.min(Math.max(p, 0.0), 1.0);
+        }
+
+        private double slopeAt(double t) {
+            double density = pdf.value(t) / range;
+            return density > 0.0 ? 1.0 / density : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * u is the running maximum of the levels; an interval whose ends moved is checked again
+         */
+        private void monotone() {
+            double max = 0.0;
+            for (int i = 0; i < x.length; i++) {
+                max = Math.max(max, level[i]);
+                if (max != u[i]) {
+                    u[i] = max;
+                    if (i > 0) {
+                        done[i - 1] = false;
+                    }
+                    if (i < done.length) {
+                        done[i] = false;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Split intervals whose interpolation error exceeds the resolution until none remain
+         */
+        void refine() {
+            while (true) {
+                InversionSampler table = new InversionSampler(x, u, slope, resolution);
+                int n = x.length;
+                boolean[] split = new boolean[n - 1];
+                int splits = 0;
+                for (int i = 0; i < n - 1; i++) {
+                    if (done[i]) {
+                        continue;
+                    }
+                    if (u[i + 1] - u[i] > resolution && x[i + 1] - x[i] > minimumWidth &&
+                        !accurate(table, i)) {
+                        split[i] = true;
+                        splits++;
+                    }
+                    else {
+                        done[i] = true;
+                    }
+                }
+                if (splits == 0) {
+                    return;
+                }
+                if (n + splits > MAX_KNOTS) {
+                    String msg = String.format("Resolution %g needs more than %d knots.",
+                                               resolution, MAX_KNOTS);
+                    throw new IllegalArgumentException(msg);
+                }
+                int size = n + splits;
+                double[] refinedX = new double[size];
+                double[] refinedLevel = new double[size];
+                double[] refinedU = new double[size];
+                double[] refinedSlope = (slope == null) ? null : new double[size];
+                boolean[] refinedDone = new boolean[size - 1];
+                int k = 0;
+                for (int i = 0; i < n; i++) {
+                    refinedX[k] = x[i];
+                    refinedLevel[k] = level[i];
+                    refinedU[k] = u[i];
+                    if (slope != null) {
+                        refinedSlope[k] = slope[i];
+                    }
+                    if (i == n - 1) {
+                        break;
+                    }
+                    refinedDone[k] = done[i];
+                    k++;
+                    if (split[i]) {
+                        double mid = 0.5 * (x[i] + x[i + 1]);
+                        refinedX[k] = mid;
+                        refinedLevel[k] = normalizedCdf(mid);
+                        // NaN, so that monotone assigns it
+                        refinedU[k] = Double.NaN;
+                        if (slope != null) {
+                            refinedSlope[k] = slopeAt(mid);
+                        }
+                        k++;
+                    }
+                }
+                x = refinedX;
+                level = refinedLevel;
+                u = refinedU;
+                slope = refinedSlope;
+                done = refinedDone;
+                monotone();
+            }
+        }
+
+        /**
+         * check the u-error of the interpolated quantile at interior points of interval i
+         */
+        private boolean accurate(InversionSampler table, int i) {
+            for (double t = 0.25; t < 1.0; t += 0.25) {
+                double p = u[i] + t * (u[i + 1] - u[i]);
+                double error = Math.abs(normalizedCdf(table.interpolate(i, p)) - p);
+                if (error > resolution) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Laplace (double exponential) distribution with the given mean and scale;
+ * see RandomNumberFactory.getLaplace
+ * see: http://en.wikipedia.org/wiki/Laplace_distribution
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class LaplaceDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = 6961932416468524335L;
+
+    private final double mean;
+    private final double scale;
+
+    /**
+     * @param mean
+     * @param scale must be positive
+     */
+    public LaplaceDistribution(double mean, double scale) {
+        checkPositive("Scale", scale);
+        this.mean = mean;
+        this.scale = scale;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return inverseCdf(RandomNumberFactory.uniform(randomNumberGenerator));
+    }
+
+    @Override
+    public double pdf(double x) {
+        return Math.exp(-Math.abs(x - mean) / scale) / (2.0 * scale);
+    }
+
+    @Override
+    public double cdf(double x) {
+        double z = (x - mean) / scale;
+        return z < 0.0 ? 0.5 * Math.exp(z) : 1.0 - 0.5 * Math.exp(-z);
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        return inverseCdf(p);
+    }
+
+    /**
+     * the quantile without argument checking, for the sampling hot path
+     */
+    private double inverseCdf(double p) {
+        return (p < 0.5) ?
+            mean + scale * Math.log(2.0 * p) :
+            mean - scale * Math.log(2.0 * (1.0 - p));
+    }
+}
@@ -1,8 +1,19 @@
 package com.cookconsulting.randommath;
 
+import java.util.Arrays;
+
 /**
  * Compute the log of a factorial number: log (n!)
  * see: http://www.johndcook.com/blog/2010/08/16/how-to-compute-log-factorial/
+ * <p/>
+ * Values up to 254 come from a fixed table. Larger values up to a configurable limit
+ * (getCacheLimit, 2^20 by default) are computed once and cached in a table that grows
+ * on demand; beyond the limit Stirling's series is evaluated on every call. The table only
+ * grows, under a lock, and is published through a volatile reference, so lookups need no
+ * locking.
+ * <p/>
+ * Also provides log binomial coefficients, log multinomial coefficients and whole vectors
+ * of binomial and Poisson log probabilities computed by recurrence.
  *
  * @author Todd Cook - refactoring, unit tests, documentation
  * @author Greg Hewgill - initial Java port
@@ -11,6 +22,18 @@ package com.cookconsulting.randommath;
  */
 public class LogFactorial {
 
+    /* 0.5 log(2 pi) */
+    private static final double HALF_LOG_TWO_PI = 0.91893853320467274178032973640562;
+    private static final int DEFAULT_CACHE_LIMIT = 1 << 20;
+    /* the running products computing C(n, k) with n <= 61 fit in a long */
+    private static final int EXACT_CHOOSE_LIMIT = 61;
+    /* logChoose sums logs directly when min(k, n - k) is at most this */
+    private static final int SMALL_CHOOSE = 30;
+    /* recurrences are restarted from the exact formula this often */
+    private static final int ANCHOR_INTERVAL = 256;
+
+    private static volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
+
     public static double logFactorial(int n) {
 
         if (n < 0) {
@@ -18,12 +41,217 @@ public class LogFactorial {
                 "Invalid input argument {0}. Argument must be non negative.", n);
             throw new IllegalArgumentException(msg);
         }
-        else if (n > 254) {
-            double x = n + 1;
-            return (x - 0.5) * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI) + 1.0 / (12.0 * x);
+        double[] table = cache;
+        if (n < table.length) {
+            return table[n];
+        }
+        if (n <= cacheLimit) {
+            return grow(n)[n];
+        }
+        return stirling(n);
+    }
+
+    /**
+     * @param n must not be negative
+     * @return log(n!)
+     */
+    public static double logFactorial(long n) {
+        if (n < 0L) {
+            String msg = String.format("Argument must not be negative. Received %d.", n);
+            throw new IllegalArgumentException(msg);
+        }
+        return (n <= Integer.MAX_VALUE) ? logFactorial((int) n) : stirling(n);
+    }
+
+    /**
+     * @return the largest n whose log factorial is cached
+     */
+    public static int getCacheLimit() {
+        return cacheLimit;
+    }
+
+    /**
+     * Set the largest n whose log factorial is cached; the table takes 8 bytes per entry.
+     * Lowering the limit does not shrink a table that has already grown.
+     *
+     * @param limit must not be negative
+     */
+    public static void setCacheLimit(int limit) {
+        if (limit < 0) {
+            String msg = String.format("Cache limit must not be negative. Received %d.", limit);
+            throw new IllegalArgumentException(msg);
+        }
+        cacheLimit = limit;
+    }
+
+    /**
+     * extend the table to cover n, at least doubling it so that growth is amortized
+     */
+    private static synchronized double[] grow(int n) {
+        double[] table = cache;
+        if (n < table.length) {
+            return table;
+        }
+        int size = (int) Math.min(Math.max(n + 1L, 2L * table.length), cacheLimit + 1L);
+        size = Math.max(size, n + 1);
+        double[] grown = Arrays.copyOf(table, size);
+        for (int i = table.length; i < size; i++) {
+            grown[i] = stirling(i);
+        }
+        cache = grown;
+        return grown;
+    }
+
+    /**
+     * Stirling's series for log(n!), accurate to double precision for n &gt; 254
+     */
+    private static double stirling(double n) {
+        return (n + 0.5) * Math.log(n) - n + HALF_LOG_TWO_PI + stirlingRemainder(n);
+    }
+
+    /**
+     * log of the binomial coefficient C(n, k). Exact coefficients are used while they fit in a
+     * long; when k or n - k is small the log is a short sum, and otherwise Stirling's series
+     * is applied to each factorial so that the large leading terms cancel analytically rather
+     * than in floating point.
+     *
+     * @param n must not be negative
+     * @param k in the range [0, n]
+     * @return log(n! / (k! (n - k)!))
+     */
+    public static double logChoose(int n, int k) {
+        if (n < 0 || k < 0 || k > n) {
+            String msg = String.format("Cannot choose %d out of %d.", k, n);
+            throw new IllegalArgumentException(msg);
+        }
+        int m = Math.min(k, n - k);
+        if (n <= EXACT_CHOOSE_LIMIT) {
+            long choose = 1;
+            for (int i = 1; i <= m; i++) {
+                // exact: choose * (n - m + i) is divisible by i
+                choose = choose * (n - m + i) / i;
+            }
+            return Math.log(choose);
+        }
+        if (m <= SMALL_CHOOSE) {
+            double sum = 0.0;
+            for (int i = 1; i <= m; i++) {
+                sum += Math.log((n - m + i) / (double) i);
+            }
+            return sum;
         }
-        else {
-            return lf[n];
+        // log(n!) - log(k!) - log((n - k)!) would lose digits to cancellation; instead
+        // split off the Stirling remainders and combine the leading terms analytically
+        int j = n - k;
+        return stirlingRemainder(n) - stirlingRemainder(k) - stirlingRemainder(j) +
+            0.5 * Math.log(n / (2.0 * Math.PI * k * (double) j)) +
+            k * Math.log(n / (double) k) + j * Math.log(n / (double) j);
+    }
+
+    /**
+     * log(n!) - [(n + 0.5) log(n) - n + 0.5 log(2 pi)], valid for n &gt; 30
+     */
+    private static double stirlingRemainder(double n) {
+        double z = 1.0 / (n * n);
+        return (((-1.0 / 1680.0 * z + 1.0 / 1260.0) * z - 1.0 / 360.0) * z + 1.0 / 12.0) / n;
+    }
+
+    /**
+     * log of the multinomial coefficient (c_1 + ... + c_k)! / (c_1! ... c_k!)
+     *
+     * @param counts non negative counts
+     * @return
+     */
+    public static double logMultinomial(int[] counts) {
+        long total = 0;
+        double denominator = 0.0;
+        for (int count : counts) {
+            total += count;
+            denominator += logFactorial(count);
+        }
+        return logFactorial(total) - denominator;
+    }
+
+    /**
+     * Binomial log probabilities log P(X = k) for k = 0 .. n, X ~ Binomial(n, p), into out.
+     * Starting at the mode, each term follows from its neighbour by
+     * log P(k + 1) = log P(k) + log((n - k) p / ((k + 1) (1 - p))), one logarithm per term;
+     * the exact value is recomputed every 256 terms to bound the accumulated rounding error.
+     *
+     * @param n   number of trials, must not be negative
+     * @param p   success probability, in the range [0, 1]
+     * @param out at least n + 1 long
+     */
+    public static void logBinomialPmf(int n, double p, double[] out) {
+        if (n < 0 || !(p >= 0.0 && p <= 1.0)) {
+            String msg = String.format("Invalid binomial parameters: n %d, p %f.", n, p);
+            throw new IllegalArgumentException(msg);
+        }
+        if (p == 0.0 || p == 1.0) {
+            Arrays.fill(out, 0, n + 1, Double.NEGATIVE_INFINITY);
+            out[(p == 0.0) ? 0 : n] = 0.0;
+            return;
+        }
+        double logP = Math.log(p);
+        double logQ = Math.log1p(-p);
+        double oddsRatio = p / (1.0 - p);
+        int mode = (int) Math.min(n, Math.floor((n + 1) * p));
+        for (int k = mode; k <= n; k++) {
+            out[k] = ((k - mode) % ANCHOR_INTERVAL == 0) ?
+                logChoose(n, k) + k * logP + (n - k) * logQ :
+                out[k - 1] + Math.log((n - k + 1) * oddsRatio / k);
+        }
+        for (int k = mode - 1; k >= 0; k--) {
+            out[k] = ((mode - k) % ANCHOR_INTERVAL == 0) ?
+                logChoose(n, k) + k * logP + (n - k) * logQ :
+                out[k + 1] + Math.log((k + 1) / ((n - k) * oddsRatio));
+        }
+    }
+
+    /**
+     * Poisson log probabilities log P(X = k) for k = 0 .. out.length - 1, X ~ Poisson(mean),
+     * into out. Starting at the mode, each term follows from its neighbour by
+     * log P(k) = log P(k - 1) + log(mean / k); the exact value is recomputed every 256 terms.
+     *
+     * @param mean must be positive
+     * @param out
+     */
+    public static void logPoissonPmf(double mean, double[] out) {
+        if (!(mean > 0.0 && mean < Double.POSITIVE_INFINITY)) {
+            String msg = String.format("Mean must be positive and finite. Received %f.", mean);
+            throw new IllegalArgumentException(msg);
+        }
+        int n = out.length;
+        if (n == 0) {
+            return;
+        }
+        double logMean = Math.log(mean);
+        int mode = (int) Math.min(n - 1, Math.floor(mean));
+        for (int k = mode; k < n; k++) {
+            out[k] = ((k - mode) % ANCHOR_INTERVAL == 0) ?
+                k * logMean - mean - logFactorial(k) :
+                out[k - 1] + Math.log(mean / k);
+        }
+        for (int k = mode - 1; k >= 0; k--) {
+            out[k] = ((mode - k) % ANCHOR_INTERVAL == 0) ?
+                k * logMean - mean - logFactorial(k) :
+                out[k + 1] + Math.log((k + 1) / mean);
+        }
+    }
+
+    /**
+     * logFactorial of each element of in[from, to), written to the same indexes of out;
+     * negative arguments give NaN instead of an exception
+     *
+     * @param in
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void logFactorial(int[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int n = in[i];
+            out[i] = (n >= 0) ? logFactorial(n) : Double.NaN;
         }
     }
 
@@ -286,4 +514,7 @@ public class LogFactorial {
         1145.100113817496100,
         1150.633503306223700,
         1156.170837573242400};
+
+    /* lf, extended on demand by grow; declared after lf so that it is initialized from it */
+    private static volatile double[] cache = lf;
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Log normal distribution: exp(X) where X is normal with mean mu and standard deviation sigma.
+ * see: http://en.wikipedia.org/wiki/Log-normal_distribution
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class LogNormalDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = -5519407929377735453L;
+
+    private final NormalDistribution normal;
+
+    /**
+     * @param mu    mean of the logarithm
+     * @param sigma standard deviation of the logarithm, must be positive
+     */
+    public LogNormalDistribution(double mu, double sigma) {
+        this.normal = new NormalDistribution(mu, sigma);
+    }
+
+    public double getMu() {
+        return normal.getMean();
+    }
+
+    public double getSigma() {
+        return normal.getStandardDeviation();
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return Math.exp(normal.sample(randomNumberGenerator));
+    }
+
+    @Override
+    public void fill(RandomNumberGenerator randomNumberGenerator, double[] values,
+                     int from, int to) {
+        normal.fill(randomNumberGenerator, values, from, to);
+        for (int i = from; i < to; i++) {
+            values[i] = Math.exp(values[i]);
+        }
+    }
+
+    @Override
+    public double pdf(double x) {
+        return x <= 0.0 ? 0.0 : normal.pdf(Math.log(x)) / x;
+    }
+
+    @Override
+    public double cdf(double x) {
+        return x <= 0.0 ? 0.0 : normal.cdf(Math.log(x));
+    }
+
+    @Override
+    public double quantile(double p) {
+        return Math.exp(normal.quantile(p));
+    }
+}
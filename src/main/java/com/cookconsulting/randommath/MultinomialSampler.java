@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.io.Serializable;
+
+/**
+ * Multinomial distribution: the counts of each of k categories in n independent draws with
+ * the given category probabilities.
+ * see: http://en.wikipedia.org/wiki/Multinomial_distribution
+ * <p/>
+ * Each count is drawn as a binomial conditional on the counts before it, so a draw costs O(k)
+ * binomial samples whatever n is, instead of n categorical draws. Probabilities are
+ * normalized once, and results are written to a caller supplied array.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class MultinomialSampler implements Serializable {
+
+    private static final long serialVersionUID = 2430146346390734402L;
+
+    private final long trials;
+    private final double[] probabilities;
+    /* probabilities[i] / (probabilities[i] + ... + probabilities[k - 1]) */
+    private final double[] conditional;
+
+    /**
+     * @param trials        number of draws, must not be negative
+     * @param probabilities category weights, non negative with a positive sum; they are
+     *                      normalized and the array is copied
+     */
+    public MultinomialSampler(long trials, double[] probabilities) {
+        double total = checkParameters(trials, probabilities);
+        int k = probabilities.length;
+        this.trials = trials;
+        this.probabilities = new double[k];
+        this.conditional = new double[k];
+        double remaining = 0.0;
+        for (int i = k - 1; i >= 0; i--) {
+            this.probabilities[i] = probabilities[i] / total;
+            remaining += probabilities[i];
+            conditional[i] = (remaining > 0.0) ? Math.min(probabilities[i] / remaining, 1.0) : 0.0;
+        }
+    }
+
+    public long getTrials() {
+        return trials;
+    }
+
+    public int getCategories() {
+        return probabilities.length;
+    }
+
+    /**
+     * @return a copy of the normalized probabilities
+     */
+    public double[] getProbabilities() {
+        return probabilities.clone();
+    }
+
+    /**
+     * @param randomNumberGenerator
+     * @param counts                receives the count of each category, at least k long
+     */
+    public void sample(RandomNumberGenerator randomNumberGenerator, long[] counts) {
+        sample(randomNumberGenerator, counts, 0);
+    }
+
+    /**
+     * @param randomNumberGenerator
+     * @param counts                receives the count of each category
+     * @param offset                index of the first category's count
+     */
+    public void sample(RandomNumberGenerator randomNumberGenerator, long[] counts, int offset) {
+        multinomial(randomNumberGenerator, trials, conditional, counts, offset);
+    }
+
+    /**
+     * Fill a block of draws, stored row-major, k counts per draw
+     *
+     * @param randomNumberGenerator
+     * @param block                 at least draws * k long
+     * @param draws                 number of draws
+     */
+    public void fill(RandomNumberGenerator randomNumberGenerator, long[] block, int draws) {
+        int k = conditional.length;
+        for (int i = 0; i < draws; i++) {
+            multinomial(randomNumberGenerator, trials, conditional, block, i * k);
+        }
+    }
+
+    /**
+     * @return the sum of the weights
+     */
+    static double checkParameters(long trials, double[] probabilities) {
+        BinomialSampler.checkParameters(trials, 0.5);
+        double total = 0.0;
+        for (double p : probabilities) {
+            if (!(p >= 0.0 && p < Double.POSITIVE_INFINITY)) {
+                String msg = String.format("Probabilities must be non negative and finite. Received %f.", p);
+                throw new IllegalArgumentException(msg);
+            }
+            total += p;
+        }
+        if (!(total > 0.0)) {
+            throw new IllegalArgumentException("Probabilities must have a positive sum.");
+        }
+        return total;
+    }
+
+    /**
+     * Multinomial draw from unnormalized weights without any set up or allocation; the
+     * conditional probabilities are formed on the fly from the weight not yet used.
+     *
+     * @param total sum of the weights
+     */
+    static void multinomial(RandomNumberGenerator rng, long trials, double[] weights, double total,
+                            long[] counts) {
+        long remaining = trials;
+        double remainingWeight = total;
+        for (int i = 0; i < weights.length; i++) {
+            double p = (weights[i] >= remainingWeight) ? 1.0 : weights[i] / remainingWeight;
+            long count = BinomialSampler.binomial(rng, remaining, p);
+            counts[i] = count;
+            remaining -= count;
+            remainingWeight -= weights[i];
+        }
+        // rounding may leave the last positive weight below the weight left for it
+        if (remaining > 0) {
+            for (int i = weights.length - 1; i >= 0; i--) {
+                if (weights[i] > 0.0) {
+                    counts[i] += remaining;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param conditional probability of each category given that none of the earlier ones
+     *                    was chosen, 1 for the last category with positive probability
+     */
+    static void multinomial(RandomNumberGenerator rng, long trials, double[] conditional,
+                            long[] counts, int offset) {
+        long remaining = trials;
+        for (int i = 0; i < conditional.length; i++) {
+            long count = BinomialSampler.binomial(rng, remaining, conditional[i]);
+            counts[offset + i] = count;
+            remaining -= count;
+        }
+    }
+}
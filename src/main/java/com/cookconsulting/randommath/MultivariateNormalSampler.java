@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.io.Serializable;
+
+/**
+ * Sampler for correlated Gaussian vectors with a given mean vector and covariance matrix.
+ * <p/>
+ * If Z is a vector of independent standard normals and F is any matrix with F F' = covariance,
+ * then mean + F Z has the requested distribution. The factor F is computed once, when the
+ * sampler is constructed:
+ * <p/>
+ * 1) by Cholesky decomposition, which gives a lower triangular factor, or if that fails because
+ * the matrix is only positive semi-definite (e.g. perfectly correlated components),
+ * 2) by the cyclic Jacobi eigenvalue method, covariance = V D V', giving F = V sqrt(D).
+ * <p/>
+ * Samples are written into a caller supplied, flat, row-major array: vector k occupies
+ * indexes [k * dimension, (k + 1) * dimension). The standard normals come from the bulk
+ * RandomNumberFactory.fillNormalVectors, which applies the factory's sampling mode to whole
+ * vectors, and for the triangular factor are transformed in place, so there is no
+ * per-sample allocation. Antithetic vectors z and -z give samples mirrored about the mean.
+ * <p/>
+ * see: http://en.wikipedia.org/wiki/Multivariate_normal_distribution#Drawing_values_from_the_distribution
+ * see: Golub and Van Loan, Matrix Computations, 3rd edition, sections 4.2 and 8.4
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class MultivariateNormalSampler implements Serializable {
+
+    private static final long serialVersionUID = 5263180263941520671L;
+
+    /* relative size of a pivot below which the Cholesky decomposition is abandoned */
+    private static final double PIVOT_TOLERANCE = 1e-12;
+
+    /* relative size of a negative eigenvalue that is still treated as rounding noise */
+    private static final double EIGENVALUE_TOLERANCE = 1e-10;
+
+    private static final int MAX_JACOBI_SWEEPS = 100;
+
+    private final int dimension;
+    private final double[] mean;
+    // row-major dimension x dimension factor of the covariance matrix
+    private final double[] factor;
+    // true if the factor is lower triangular (Cholesky), false if dense (eigen-decomposition)
+    private final boolean triangular;
+
+    /**
+     * @param mean       the mean vector
+     * @param covariance a symmetric, positive semi-definite matrix, the same size as mean
+     */
+    public MultivariateNormalSampler(double[] mean, double[][] covariance) {
+        int n = mean.length;
+        if (n == 0 || covariance.length != n) {
+            String msg = String.format("Covariance matrix must be %d x %d. Received %d rows.",
+                                       n, n, covariance.length);
+            throw new IllegalArgumentException(msg);
+        }
+        double[] a = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            if (covariance[i].length != n) {
+                String msg = String.format("Covariance matrix must be %d x %d. " +
+                                               "Row %d has %d columns.",
+                                           n, n, i, covariance[i].length);
+                throw new IllegalArgumentException(msg);
+            }
+            for (int j = 0; j < n; j++) {
+                double x = covariance[i][j];
+                double y = covariance[j][i];
+                if (Math.abs(x - y) > 1e-12 * Math.max(Math.abs(x), Math.abs(y))) {
+                    String msg = String.format("Covariance matrix must be symmetric. " +
+                                                   "Received %f and %f at (%d, %d).",
+                                               x, y, i, j);
+                    throw new IllegalArgumentException(msg);
+                }
+                a[i * n + j] = x;
+            }
+        }
+        this.dimension = n;
+        this.mean = mean.clone();
+        double[] cholesky = cholesky(a, n);
+        if (cholesky != null) {
+            this.factor = cholesky;
+            this.triangular = true;
+        }
+        else {
+            this.factor = eigenFactor(a, n);
+            this.triangular = false;
+        }
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * @return true if the covariance matrix was factored by Cholesky decomposition,
+     *         false if it needed the eigen-decomposition fallback
+     */
+    public boolean isCholesky() {
+        return triangular;
+    }
+
+    /**
+     * @param rnf    source of standard normals
+     * @param vector array of length dimension to receive one sample
+     */
+    public void sample(RandomNumberFactory rnf, double[] vector) {
+        if (vector.length != dimension) {
+            String msg = String.format("Vector length must be %d. Received %d.",
+                                       dimension, vector.length);
+            throw new IllegalArgumentException(msg);
+        }
+        fill(rnf, vector);
+    }
+
+    /**
+     * Fill the array with values.length / dimension samples, stored row-major
+     *
+     * @param rnf    source of standard normals
+     * @param values array whose length is a multiple of the dimension
+     */
+    public void fill(RandomNumberFactory rnf, double[] values) {
+        final int n = dimension;
+        if (values.length % n != 0) {
+            String msg = String.format("Array length must be a multiple of %d. Received %d.",
+                                       n, values.length);
+            throw new IllegalArgumentException(msg);
+        }
+        rnf.fillNormalVectors(values, n);
+        final double[] f = factor;
+        final double[] mu = mean;
+        if (triangular) {
+            // x[i] only depends on z[0..i], so working from the last component down lets the
+            // normals be overwritten in place
+            for (int offset = 0; offset < values.length; offset += n) {
+                for (int i = n - 1; i >= 0; i--) {
+                    int row = i * n;
+                    double sum = 0.0;
+                    for (int j = 0; j <= i; j++) {
+                        sum += f[row + j] * values[offset + j];
+                    }
+                    values[offset + i] = mu[i] + sum;
+                }
+            }
+        }
+        else {
+            double[] z = new double[n];
+            for (int offset = 0; offset < values.length; offset += n) {
+                System.arraycopy(values, offset, z, 0, n);
+                for (int i = 0; i < n; i++) {
+                    int row = i * n;
+                    double sum = 0.0;
+                    for (int j = 0; j < n; j++) {
+                        sum += f[row + j] * z[j];
+                    }
+                    values[offset + i] = mu[i] + sum;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cholesky decomposition a = L L'
+     *
+     * @param a row-major symmetric matrix
+     * @param n dimension
+     * @return row-major lower triangular L, or null if a is not (numerically) positive definite
+     */
+    static double[] cholesky(double[] a, int n) {
+        double[] l = new double[n * n];
+        for (int j = 0; j < n; j++) {
+            double sum = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                sum -= l[j * n + k] * l[j * n + k];
+            }
+            if (sum <= PIVOT_TOLERANCE * a[j * n + j]) {
+                return null;
+            }
+            double pivot = Math.sqrt(sum);
+            l[j * n + j] = pivot;
+            for (int i = j + 1; i < n; i++) {
+                double s = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    s -= l[i * n + k] * l[j * n + k];
+                }
+                l[i * n + j] = s / pivot;
+            }
+        }
+        return l;
+    }
+
+    /**
+     * Factor a = F F' with F = V sqrt(D), where a = V D V' is computed by cyclic Jacobi rotations
+     *
+     * @param a row-major symmetric matrix
+     * @param n dimension
+     * @return row-major F
+     */
+    static double[] eigenFactor(double[] a, int n) {
+        double[] m = a.clone();
+        double[] v = new double[n * n];
+        double norm = 0.0;
+        for (int i = 0; i < n; i++) {
+            v[i * n + i] = 1.0;
+            for (int j = 0; j < n; j++) {
+                norm += m[i * n + j] * m[i * n + j];
+            }
+        }
+        for (int sweep = 0; sweep < MAX_JACOBI_SWEEPS; sweep++) {
+            double off = 0.0;
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    off += m[p * n + q] * m[p * n + q];
+                }
+            }
+            if (off <= 1e-30 * norm) {
+                break;
+            }
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    double apq = m[p * n + q];
+                    if (apq == 0.0) {
+                        continue;
+                    }
+                    double theta = (m[q * n + q] - m[p * n + p]) / (2.0 * apq);
+                    double t = (theta >= 0 ? 1.0 : -1.0) /
+                        (Math.abs(theta) + Math.sqrt(theta * theta + 1.0));
+                    double c = 1.0 / Math.sqrt(t * t + 1.0);
+                    double s = t * c;
+                    for (int k = 0; k < n; k++) {
+                        double akp = m[k * n + p];
+                        double akq = m[k * n + q];
+                        m[k * n + p] = c * akp - s * akq;
+                        m[k * n + q] = s * akp + c * akq;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double apk = m[p * n + k];
+                        double aqk = m[q * n + k];
+                        m[p * n + k] = c * apk - s * aqk;
+                        m[q * n + k] = s * apk + c * aqk;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double vkp = v[k * n + p];
+                        double vkq = v[k * n + q];
+                        v[k * n + p] = c * vkp - s * vkq;
+                        v[k * n + q] = s * vkp + c * vkq;
+                    }
+                }
+            }
+        }
+        double maxEigenvalue = 0.0;
+        for (int j = 0; j < n; j++) {
+            maxEigenvalue = Math.max(maxEigenvalue, m[j * n + j]);
+        }
+        double[] f = new double[n * n];
+        for (int j = 0; j < n; j++) {
+            double eigenvalue = m[j * n + j];
+            if (eigenvalue < -EIGENVALUE_TOLERANCE * maxEigenvalue) {
+                String msg = String.format("Covariance matrix must be positive semi-definite. " +
+                                               "Found eigenvalue %f.", eigenvalue);
+                throw new IllegalArgumentException(msg);
+            }
+            double root = Math.sqrt(Math.max(eigenvalue, 0.0));
+            for (int i = 0; i < n; i++) {
+                f[i * n + j] = v[i * n + j] * root;
+            }
+        }
+        return f;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Negative binomial distribution: the number of failures before the r-th success in
+ * independent trials with success probability p, P(k) = C(k + r - 1, k) p^r (1 - p)^k.
+ * r need not be an integer.
+ * see: http://en.wikipedia.org/wiki/Negative_binomial_distribution
+ * <p/>
+ * Samples use the gamma-Poisson mixture: a Poisson sample whose mean is drawn from a gamma
+ * distribution with shape r and scale (1 - p) / p. The gamma sampler is built once.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class NegativeBinomialSampler extends AbstractDiscreteSampler {
+
+    private static final long serialVersionUID = -2263019780339386431L;
+
+    private final double successes;
+    private final double probability;
+    private final GammaDistribution gamma;
+
+    /**
+     * @param successes   number of successes r, must be positive
+     * @param probability success probability, in the range (0, 1]
+     */
+    public NegativeBinomialSampler(double successes, double probability) {
+        if (!(successes > 0.0)) {
+            String msg = String.format("Number of successes must be positive. Received %f.",
+                                       successes);
+            throw new IllegalArgumentException(msg);
+        }
+        if (!(probability > 0.0 && probability <= 1.0)) {
+            String msg = String.format("Probability must be in the range (0, 1]. Received %f.",
+                                       probability);
+            throw new IllegalArgumentException(msg);
+        }
+        this.successes = successes;
+        this.probability = probability;
+        this.gamma = (probability < 1.0) ?
+            new GammaDistribution(successes, (1.0 - probability) / probability) : null;
+    }
+
+    public double getSuccesses() {
+        return successes;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    /**
+     * @param k number of failures
+     * @return P(X <= k) = I_p(r, k + 1), the regularized incomplete beta function
+     */
+    public double cdf(long k) {
+        return (k < 0) ? 0.0 : Beta.regularizedBeta(probability, successes, k + 1.0);
+    }
+
+    @Override
+    public long sample(RandomNumberGenerator randomNumberGenerator) {
+        if (gamma == null) {
+            return 0;
+        }
+        return PoissonSampler.poisson(randomNumberGenerator, gamma.sample(randomNumberGenerator));
+    }
+}
@@ -4,8 +4,16 @@ package com.cookconsulting.randommath;
  * The inverse of the standard normal cdf, called the quantile function or probit function,
  * is expressed in terms of the inverse error function.
  * See: http://en.wikipedia.org/wiki/Normal_distribution#Quantile_function
- * See: Abramowitz and Stegun: Handbook of Mathematical Functions
- * http://people.math.sfu.ca/~cbm/aands/
+ * <p/>
+ * Uses Wichura's algorithm AS241 (PPND16), accurate to about 1e-16: for |p - 1/2| &lt;= 0.425
+ * a rational function of (p - 1/2)^2, without logarithm or square root; further out,
+ * rational functions of sqrt(-log(min(p, 1 - p))). For probabilities below about 1e-11 (or
+ * above 1 - 1e-11) the result is refined with one Halley step against Phi, down to the
+ * smallest normal double. The degree 7
+ * rational functions are evaluated with Estrin's scheme, see Polynomials.
+ * <p/>
+ * See: Wichura, M.J. Algorithm AS241: The Percentage Points of the Normal Distribution,
+ * Applied Statistics 37 (1988) 477-484
  *
  * @author Todd Cook - refactoring, unit tests, documentation
  * @author Greg Hewgill - initial Java port
@@ -14,27 +22,144 @@ package com.cookconsulting.randommath;
  */
 public class NormalCDFInverse {
 
-    private static final double c[] = {2.515517, 0.802853, 0.010328};
-    private static final double d[] = {1.432788, 0.189269, 0.001308};
+    private static final double SPLIT1 = 0.425;
+    private static final double SPLIT2 = 5.0;
+    private static final double CONST1 = 0.180625;
+    private static final double CONST2 = 1.6;
+    /* sqrt(2 pi) */
+    private static final double SQRT_2PI = 2.506628274631000502415765;
 
-    static double rationalApproximation(double t) {
-        // Abramowitz and Stegun formula 26.2.23.
-        // The absolute value of the error should be less than 4.5 e-4.
-        double numerator = (c[2] * t + c[1]) * t + c[0];
-        double denominator = ((d[2] * t + d[1]) * t + d[0]) * t + 1.0;
-        return t - numerator / denominator;
-    }
+    // central region, |p - 1/2| <= 0.425
+    private static final double A0 = 3.3871328727963666080E0;
+    private static final double A1 = 1.3314166789178437745E+2;
+    private static final double A2 = 1.9715909503065514427E+3;
+    private static final double A3 = 1.3731693765509461125E+4;
+    private static final double A4 = 4.5921953931549871457E+4;
+    private static final double A5 = 6.7265770927008700853E+4;
+    private static final double A6 = 3.3430575583588128105E+4;
+    private static final double A7 = 2.5090809287301226727E+3;
+    private static final double B1 = 4.2313330701600911252E+1;
+    private static final double B2 = 6.8718700749205790830E+2;
+    private static final double B3 = 5.3941960214247511077E+3;
+    private static final double B4 = 2.1213794301586595867E+4;
+    private static final double B5 = 3.9307895800092710610E+4;
+    private static final double B6 = 2.8729085735721942674E+4;
+    private static final double B7 = 5.2264952788528545610E+3;
+
+    // intermediate region, sqrt(-log(min(p, 1 - p))) <= 5
+    private static final double C0 = 1.42343711074968357734E0;
+    private static final double C1 = 4.63033784615654529590E0;
+    private static final double C2 = 5.76949722146069140550E0;
+    private static final double C3 = 3.64784832476320460504E0;
+    private static final double C4 = 1.27045825245236838258E0;
+    private static final double C5 = 2.41780725177450611770E-1;
+    private static final double C6 = 2.27238449892691845833E-2;
+    private static final double C7 = 7.74545014278341407640E-4;
+    private static final double D1 = 2.05319162663775882187E0;
+    private static final double D2 = 1.67638483018380384940E0;
+    private static final double D3 = 6.89767334985100004550E-1;
+    private static final double D4 = 1.48103976427480074590E-1;
+    private static final double D5 = 1.51986665636164571966E-2;
+    private static final double D6 = 5.47593808499534494600E-4;
+    private static final double D7 = 1.05075007164441684324E-9;
+
+    // far tail
+    private static final double E0 = 6.65790464350110377720E0;
+    private static final double E1 = 5.46378491116411436990E0;
+    private static final double E2 = 1.78482653991729133580E0;
+    private static final double E3 = 2.96560571828504891230E-1;
+    private static final double E4 = 2.65321895265761230930E-2;
+    private static final double E5 = 1.24266094738807843860E-3;
+    private static final double E6 = 2.71155556874348757815E-5;
+    private static final double E7 = 2.01033439929228813265E-7;
+    private static final double F1 = 5.99832206555887937690E-1;
+    private static final double F2 = 1.36929880922735805310E-1;
+    private static final double F3 = 1.48753612908506148525E-2;
+    private static final double F4 = 7.86869131145613259100E-4;
+    private static final double F5 = 1.84631831751005468180E-5;
+    private static final double F6 = 1.42151175831644588870E-7;
+    private static final double F7 = 2.04426310338993978564E-15;
+
+    // the same coefficients in ascending order of powers, for Polynomials.rational
+    private static final double[] A = {A0, A1, A2, A3, A4, A5, A6, A7};
+    private static final double[] B = {1.0, B1, B2, B3, B4, B5, B6, B7};
+    private static final double[] C = {C0, C1, C2, C3, C4, C5, C6, C7};
+    private static final double[] D = {1.0, D1, D2, D3, D4, D5, D6, D7};
+    private static final double[] E = {E0, E1, E2, E3, E4, E5, E6, E7};
+    private static final double[] F = {1.0, F1, F2, F3, F4, F5, F6, F7};
 
+    /**
+     * @param p probability in the range [0, 1]
+     * @return the x with Phi(x) = p; negative infinity for 0 and positive infinity for 1
+     */
     public static double normalCDFInverse(double p) {
-        assert (p > 0.0 && p < 1);
-        // See article above for explanation of this section.
-        if (p < 0.5) {
-            // F^-1(p) = - G^-1(p)
-            return -rationalApproximation(Math.sqrt(-2.0 * Math.log(p)));
+        if (p > 0.0 && p < 1.0) {
+            return ppnd16(p);
+        }
+        if (p == 0.0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (p == 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        String msg = String.format("Probability must be in the range [0, 1]. Received %f.", p);
+        throw new IllegalArgumentException(msg);
+    }
+
+    /**
+     * @param p in the open interval (0, 1)
+     */
+    private static double ppnd16(double p) {
+        double q = p - 0.5;
+        if (Math.abs(q) <= SPLIT1) {
+            double r = CONST1 - q * q;
+            return q * Polynomials.rational(A, B, r);
+        }
+        // 1 - p is exact for p >= 1/2
+        double tail = (q < 0.0) ? p : 1.0 - p;
+        double r = Math.sqrt(-Math.log(tail));
+        double z;
+        if (r <= SPLIT2) {
+            r -= CONST2;
+            z = Polynomials.rational(C, D, r);
         }
         else {
-            // F^-1(p) = G^-1(1-p)
-            return rationalApproximation(Math.sqrt(-2.0 * Math.log(1.0 - p)));
+            r -= SPLIT2;
+            z = Polynomials.rational(E, F, r);
+            if (tail >= Double.MIN_NORMAL) {
+                // Halley step on Phi(-z) = tail, Phi keeps full relative precision in the tail.
+                // Subnormal tails are left unrefined: Phi loses precision to underflow there
+                // and exp(x^2 / 2) overflows beyond |x| = 37.7
+                double x = -z;
+                double e = Phi.phi(x) - tail;
+                double u = e * SQRT_2PI * Math.exp(0.5 * x * x);
+                z = -(x - u / (1.0 + 0.5 * x * u));
+            }
+        }
+        return (q < 0.0) ? -z : z;
+    }
+
+    /**
+     * normalCDFInverse of each element of in[from, to), written to the same indexes of out;
+     * in and out may be the same array. Instead of failing, 0 and 1 map to negative and
+     * positive infinity, and values outside [0, 1] to NaN.
+     *
+     * @param in
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void normalCDFInverse(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double p = in[i];
+            out[i] = (p > 0.0 && p < 1.0) ? ppnd16(p) : outOfRange(p);
+        }
+    }
+
+    private static double outOfRange(double p) {
+        if (p == 0.0) {
+            return Double.NEGATIVE_INFINITY;
         }
+        return (p == 1.0) ? Double.POSITIVE_INFINITY : Double.NaN;
     }
 }
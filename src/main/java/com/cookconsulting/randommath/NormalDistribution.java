@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Normal (Gaussian) distribution with the given mean and standard deviation.
+ * see: http://en.wikipedia.org/wiki/Normal_distribution
+ * <p/>
+ * Samples use the Box-Muller algorithm; bulk fill keeps both values of each Box-Muller pair.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class NormalDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = 2811302853932287165L;
+
+    /* 1 / sqrt (2 pi) */
+    private static final double I_SQRT_2PI = 0.3989422804014326779399461;
+
+    private final double mean;
+    private final double standardDeviation;
+    private final double densityFactor;
+
+    public NormalDistribution() {
+        this(0.0, 1.0);
+    }
+
+    /**
+     * @param mean
+     * @param standardDeviation must be positive
+     */
+    public NormalDistribution(double mean, double standardDeviation) {
+        checkPositive("Standard Deviation", standardDeviation);
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+        this.densityFactor = I_SQRT_2PI / standardDeviation;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return mean + standardDeviation * RandomNumberFactory.normal(randomNumberGenerator);
+    }
+
+    @Override
+    public void fill(RandomNumberGenerator randomNumberGenerator, double[] values,
+                     int from, int to) {
+        int i = from;
+        for (; i + 1 < to; i += 2) {
+            double r = standardDeviation *
+                Math.sqrt(-2.0 * Math.log(RandomNumberFactory.uniform(randomNumberGenerator)));
+            double theta = 2.0 * Math.PI * RandomNumberFactory.uniform(randomNumberGenerator);
+            values[i] = mean + r * Math.sin(theta);
+            values[i + 1] = mean + r * Math.cos(theta);
+        }
+        if (i < to) {
+            values[i] = sample(randomNumberGenerator);
+        }
+    }
+
+    @Override
+    public double pdf(double x) {
+        double z = (x - mean) / standardDeviation;
+        return densityFactor * Math.exp(-0.5 * z * z);
+    }
+
+    @Override
+    public double cdf(double x) {
+        return Phi.phi((x - mean) / standardDeviation);
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        if (p == 0.0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (p == 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return mean + standardDeviation * NormalCDFInverse.normalCDFInverse(p);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Pareto (power law) distribution with scale x_m and shape alpha: P(X &gt; x) = (x_m / x)^alpha
+ * for x &gt;= x_m.
+ * see: http://en.wikipedia.org/wiki/Pareto_distribution
+ * <p/>
+ * Samples use inversion, x_m * U^(-1 / alpha).
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class ParetoDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = -1846637402751268457L;
+
+    private final double scale;
+    private final double shape;
+    private final double inverseShape;
+
+    /**
+     * @param scale minimum value x_m, must be positive
+     * @param shape tail index alpha, must be positive
+     */
+    public ParetoDistribution(double scale, double shape) {
+        checkPositive("Scale", scale);
+        checkPositive("Shape", shape);
+        this.scale = scale;
+        this.shape = shape;
+        this.inverseShape = 1.0 / shape;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double getShape() {
+        return shape;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return scale * Math.exp(-inverseShape * Math.log(RandomNumberFactory.uniform(randomNumberGenerator)));
+    }
+
+    @Override
+    public double pdf(double x) {
+        if (x < scale) {
+            return 0.0;
+        }
+        return shape / x * Math.exp(shape * Math.log(scale / x));
+    }
+
+    @Override
+    public double cdf(double x) {
+        if (x <= scale) {
+            return 0.0;
+        }
+        return -Math.expm1(shape * Math.log(scale / x));
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        if (p == 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return scale * Math.exp(-inverseShape * Math.log1p(-p));
+    }
+}
@@ -1,9 +1,12 @@
 package com.cookconsulting.randommath;
 
 /**
- * Phi: in probability theory is the probability density function of the normal distribution.
- * See: Abramowitz and Stegun: Handbook of Mathematical Functions
- * http://people.math.sfu.ca/~cbm/aands/
+ * Phi: in probability theory, the cumulative distribution function of the standard normal
+ * distribution, Phi(x) = erfc(-x / sqrt(2)) / 2.
+ * <p/>
+ * Both tails are computed from the complementary error function, so lower tail values
+ * Phi(x) for x &lt;&lt; 0, and upper tail values via phiComplement, keep full relative
+ * precision instead of being rounded to 0 as 1 - Phi(x) would be.
  *
  * @author Todd Cook - refactoring, unit tests, documentation
  * @author Greg Hewgill - initial Java port
@@ -12,25 +15,60 @@ package com.cookconsulting.randommath;
  */
 public class Phi {
 
-    private static final double a1 = 0.254829592;
-    private static final double a2 = -0.284496736;
-    private static final double a3 = 1.421413741;
-    private static final double a4 = -1.453152027;
-    private static final double a5 = 1.061405429;
-    private static final double p = 0.3275911;
+    /* 1 / sqrt(2) */
+    private static final double SQRT1_2 = 0.7071067811865475244008444;
 
     public static double phi(double x) {
-        // Save the sign of x
-        double sign = 1;
-        if (x < 0) {
-            sign = -1;
+        return 0.5 * Erf.erfc(-x * SQRT1_2);
+    }
+
+    /**
+     * Phi of each element of in[from, to), written to the same indexes of out; in and out
+     * may be the same array
+     *
+     * @param in
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void phi(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = 0.5 * Erf.erfc(-in[i] * SQRT1_2);
         }
-        x = Math.abs(x) / Math.sqrt(2.0);
+    }
 
-        // A&S formula 7.1.26
-        double t = 1.0 / (1.0 + p * x);
-        double y = 1.0 - (((((a5 * t + a4) * t) + a3) * t + a2) * t + a1) * t * Math.exp(-x * x);
+    /**
+     * The upper tail probability of the standard normal distribution, 1 - Phi(x)
+     *
+     * @param x
+     * @return
+     */
+    public static double phiComplement(double x) {
+        return 0.5 * Erf.erfc(x * SQRT1_2);
+    }
+
+    /**
+     * Phi from a piecewise Chebyshev approximation over [-4, 4], built on first use, with a
+     * relative error of about 1e-14; arguments outside that range are passed to phi.
+     *
+     * @param x
+     * @return
+     */
+    public static double phiFast(double x) {
+        return (x >= -4.0 && x <= 4.0) ? FastApproximation.PHI.value(x) : phi(x);
+    }
 
-        return 0.5 * (1.0 + sign * y);
+    /**
+     * Holder for the fast approximation, so it is built only when first used
+     */
+    private static final class FastApproximation {
+        static final ChebyshevApproximation PHI = new ChebyshevApproximation.Builder(
+            new UnivariateFunction() {
+                @Override
+                public double value(double x) {
+                    return phi(x);
+                }
+            }).domain(-4.0, 4.0).absoluteTolerance(0.0).relativeTolerance(1e-14).degree(8)
+            .build();
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Poisson distribution with the given mean, P(k) = mean^k exp(-mean) / k!
+ * see: http://en.wikipedia.org/wiki/Poisson_distribution
+ * <p/>
+ * For a mean below 10 samples use Knuth's multiplication of uniforms, otherwise Hormann's
+ * transformed rejection with squeeze (PTRS), whose expected cost does not depend on the mean.
+ * <p/>
+ * see: Knuth, Seminumerical Algorithms, section 3.4.1
+ * see: Hormann, W. The transformed rejection method for generating Poisson random variables,
+ * Insurance: Mathematics and Economics 12 (1993) 39-45
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class PoissonSampler extends AbstractDiscreteSampler {
+
+    private static final long serialVersionUID = 3158006342417315006L;
+
+    private static final double PTRS_LIMIT = 10.0;
+
+    private final double mean;
+    /* exp(-mean) for the multiplication method */
+    private final double expMinusMean;
+    /* PTRS constants */
+    private final double logMean;
+    private final double a;
+    private final double b;
+    private final double logInverseAlpha;
+    private final double vr;
+
+    /**
+     * @param mean must be positive
+     */
+    public PoissonSampler(double mean) {
+        if (!(mean > 0.0 && mean < Double.POSITIVE_INFINITY)) {
+            String msg = String.format("Mean must be positive and finite. Received %f.", mean);
+            throw new IllegalArgumentException(msg);
+        }
+        this.mean = mean;
+        this.expMinusMean = Math.exp(-mean);
+        this.logMean = Math.log(mean);
+        this.b = 0.931 + 2.53 * Math.sqrt(mean);
+        this.a = -0.059 + 0.02483 * b;
+        this.logInverseAlpha = Math.log(1.1239 + 1.1328 / (b - 3.4));
+        this.vr = 0.9277 - 3.6224 / (b - 2.0);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @param k
+     * @return P(X <= k) = Q(k + 1, mean), the regularized upper incomplete gamma function
+     */
+    public double cdf(long k) {
+        return (k < 0) ? 0.0 : Gamma.regularizedGammaQ(k + 1.0, mean);
+    }
+
+    @Override
+    public long sample(RandomNumberGenerator randomNumberGenerator) {
+        if (mean < PTRS_LIMIT) {
+            return multiplication(randomNumberGenerator, expMinusMean);
+        }
+        return ptrs(randomNumberGenerator, mean, logMean, a, b, logInverseAlpha, vr);
+    }
+
+    /**
+     * Sample a Poisson distribution whose mean changes from call to call, as in mixtures
+     *
+     * @param randomNumberGenerator
+     * @param mean                  must not be negative
+     * @return
+     */
+    static long poisson(RandomNumberGenerator randomNumberGenerator, double mean) {
+        if (mean == 0.0) {
+            return 0;
+        }
+        if (mean < PTRS_LIMIT) {
+            return multiplication(randomNumberGenerator, Math.exp(-mean));
+        }
+        double b = 0.931 + 2.53 * Math.sqrt(mean);
+        return ptrs(randomNumberGenerator, mean, Math.log(mean), -0.059 + 0.02483 * b, b,
+                    Math.log(1.1239 + 1.1328 / (b - 3.4)), 0.9277 - 3.6224 / (b - 2.0));
+    }
+
+    private static long multiplication(RandomNumberGenerator rng, double expMinusMean) {
+        long k = 0;
+        double product = RandomNumberFactory.uniform(rng);
+        while (product > expMinusMean) {
+            k++;
+            product *= RandomNumberFactory.uniform(rng);
+        }
+        return k;
+    }
+
+    private static long ptrs(RandomNumberGenerator rng, double mean, double logMean,
+                             double a, double b, double logInverseAlpha, double vr) {
+        while (true) {
+            double u = RandomNumberFactory.uniform(rng) - 0.5;
+            double v = RandomNumberFactory.uniform(rng);
+            double us = 0.5 - Math.abs(u);
+            double k = Math.floor((2.0 * a / us + b) * u + mean + 0.43);
+            if (us >= 0.07 && v <= vr) {
+                return (long) k;
+            }
+            if (k < 0.0 || (us < 0.013 && v > us)) {
+                continue;
+            }
+            if (Math.log(v) + logInverseAlpha - Math.log(a / (us * us) + b) <=
+                -mean + k * logMean - Gamma.logGamma(k + 1.0)) {
+                return (long) k;
+            }
+        }
+    }
+}
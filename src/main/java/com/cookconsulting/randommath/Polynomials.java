@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Polynomial and rational function evaluation shared by the special functions.
+ * <p/>
+ * Coefficients are given in ascending order, c[0] + c[1] x + ... + c[n - 1] x^(n - 1).
+ * Horner's rule is a single chain of n - 1 dependent multiply-adds, so a processor able to
+ * start several floating point operations per cycle mostly waits on the previous step.
+ * Estrin's scheme pairs the coefficients, (c[0] + c[1] x) + (c[2] + c[3] x) x^2 + ...,
+ * which gives independent operations that may execute together; here blocks of four
+ * coefficients are combined with Horner's rule in x^4, a chain of about n / 4 steps with
+ * no temporary storage. The even / odd split runs two Horner chains in x^2 side by side.
+ * The numerator and denominator of a rational function are independent chains as well.
+ * <p/>
+ * The rounding differs slightly from Horner's rule, but for the well conditioned
+ * approximations used here (coefficients of alternating magnitude, small arguments) all
+ * three schemes agree to within a few units in the last place.
+ * <p/>
+ * see: Knuth, D. E. The Art of Computer Programming, volume 2, section 4.6.4
+ * see: Estrin, G. Organization of computer systems: the fixed plus variable structure
+ * computer, Proceedings of the Western Joint Computer Conference (1960) 33-40
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class Polynomials {
+
+    private Polynomials() {
+    }
+
+    /**
+     * Horner's rule
+     *
+     * @param c coefficients in ascending order, at least one
+     * @param x
+     * @return c[0] + c[1] x + ... + c[n - 1] x^(n - 1)
+     */
+    public static double horner(double[] c, double x) {
+        int i = c.length - 1;
+        double result = c[i];
+        while (--i >= 0) {
+            result = result * x + c[i];
+        }
+        return result;
+    }
+
+    /**
+     * Estrin's scheme within blocks of four coefficients, Horner's rule in x^4 across blocks
+     *
+     * @param c coefficients in ascending order, at least one
+     * @param x
+     * @return c[0] + c[1] x + ... + c[n - 1] x^(n - 1)
+     */
+    public static double estrin(double[] c, double x) {
+        double x2 = x * x;
+        double x4 = x2 * x2;
+        int i = c.length & ~3;
+        double result;
+        switch (c.length - i) {
+            case 3:
+                result = (c[i] + c[i + 1] * x) + c[i + 2] * x2;
+                break;
+            case 2:
+                result = c[i] + c[i + 1] * x;
+                break;
+            case 1:
+                result = c[i];
+                break;
+            default:
+                i -= 4;
+                result = (c[i] + c[i + 1] * x) + (c[i + 2] + c[i + 3] * x) * x2;
+        }
+        while ((i -= 4) >= 0) {
+            result = result * x4 + ((c[i] + c[i + 1] * x) + (c[i + 2] + c[i + 3] * x) * x2);
+        }
+        return result;
+    }
+
+    /**
+     * Horner's rule in x^2 for the even and the odd coefficients separately, two independent
+     * chains of half the length
+     *
+     * @param c coefficients in ascending order, at least one
+     * @param x
+     * @return c[0] + c[1] x + ... + c[n - 1] x^(n - 1)
+     */
+    public static double evenOdd(double[] c, double x) {
+        double x2 = x * x;
+        int last = c.length - 1;
+        int i = last & ~1;
+        double even = c[i];
+        double odd = (i == last) ? 0.0 : c[last];
+        while ((i -= 2) >= 0) {
+            even = even * x2 + c[i];
+            odd = odd * x2 + c[i + 1];
+        }
+        return even + odd * x;
+    }
+
+    /**
+     * A rational function, numerator and denominator both by Estrin's scheme
+     *
+     * @param numerator   coefficients in ascending order, at least one
+     * @param denominator coefficients in ascending order, at least one
+     * @param x
+     * @return numerator(x) / denominator(x)
+     */
+    public static double rational(double[] numerator, double[] denominator, double x) {
+        return estrin(numerator, x) / estrin(denominator, x);
+    }
+
+    /**
+     * The polynomial at each element of in[from, to) by Estrin's scheme, written to the same
+     * indexes of out; in and out may be the same array
+     *
+     * @param c    coefficients in ascending order, at least one
+     * @param in
+     * @param out
+     * @param from first index, inclusive
+     * @param to   last index, exclusive
+     */
+    public static void estrin(double[] c, double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = estrin(c, in[i]);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Base class for low-discrepancy (quasi-random) sequences of points in the unit hypercube.
+ * <p/>
+ * Quasi-Monte Carlo integration with n such points has an error that shrinks roughly like
+ * (log n)^d / n, rather than the 1 / sqrt(n) of pseudo-random sampling, so far fewer points
+ * are needed for the same accuracy.
+ * <p/>
+ * Points are numbered from 0; a new sequence is positioned at index 1 because the point at
+ * index 0 is the origin, or for Sobol the corner cell next to it. skipTo positions the
+ * sequence at any index, so that parallel workers can each generate a disjoint block of the
+ * same sequence; HaltonSequence rejects index 0, whose point is exactly the origin.
+ * <p/>
+ * Every coordinate lies strictly inside (0, 1), so points can be mapped through any inverse
+ * cdf: fillNormal uses NormalCDFInverse and fill(Distribution, ...) uses
+ * Distribution.quantile. Note that a d-dimensional point maps to d samples of a single
+ * distribution, one per coordinate; never take consecutive coordinates of one dimension.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public abstract class QuasiRandomSequence {
+
+    protected final int dimension;
+    protected long index = 1;
+
+    protected QuasiRandomSequence(int dimension) {
+        this.dimension = dimension;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * @return the index of the next point to be generated
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Position the sequence so that the next point generated is the one at index
+     *
+     * @param index non negative, or positive where the point at index 0 is the origin
+     */
+    public abstract void skipTo(long index);
+
+    /**
+     * Write the next point into point[offset, offset + dimension) and advance the sequence.
+     *
+     * @param point  destination array
+     * @param offset index of the first coordinate
+     */
+    protected abstract void nextPoint(double[] point, int offset);
+
+    /**
+     * @param point array of length dimension to receive the next point
+     */
+    public void nextPoint(double[] point) {
+        if (point.length != dimension) {
+            String msg = String.format("Point length must be %d. Received %d.",
+                                       dimension, point.length);
+            throw new IllegalArgumentException(msg);
+        }
+        nextPoint(point, 0);
+    }
+
+    /**
+     * Fill the array with the next points, stored row-major: point k occupies
+     * [k * dimension, (k + 1) * dimension)
+     *
+     * @param block  destination array, at least points * dimension long
+     * @param points number of points
+     */
+    public void fill(double[] block, int points) {
+        if (points < 0 || (long) points * dimension > block.length) {
+            String msg = String.format("Array of length %d cannot hold %d points of dimension %d.",
+                                       block.length, points, dimension);
+            throw new IllegalArgumentException(msg);
+        }
+        for (int k = 0, offset = 0; k < points; k++, offset += dimension) {
+            nextPoint(block, offset);
+        }
+    }
+
+    /**
+     * Fill the array with the next points, with each coordinate transformed to a standard
+     * normal by NormalCDFInverse.
+     *
+     * @param block  destination array, at least points * dimension long
+     * @param points number of points
+     */
+    public void fillNormal(double[] block, int points) {
+        fill(block, points);
+        int n = points * dimension;
+        for (int i = 0; i < n; i++) {
+            block[i] = NormalCDFInverse.normalCDFInverse(block[i]);
+        }
+    }
+
+    /**
+     * Fill the array with the next points, with each coordinate transformed by the quantile
+     * function of the given distribution.
+     *
+     * @param distribution
+     * @param block        destination array, at least points * dimension long
+     * @param points       number of points
+     */
+    public void fill(Distribution distribution, double[] block, int points) {
+        fill(block, points);
+        int n = points * dimension;
+        for (int i = 0; i < n; i++) {
+            block[i] = distribution.quantile(block[i]);
+        }
+    }
+
+    protected static void checkIndex(long index) {
+        if (index < 0) {
+            String msg = String.format("Index must be non negative. Received %d.", index);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+}
@@ -45,9 +45,14 @@ import java.lang.reflect.Constructor;
 public class RandomNumberFactory implements RandomNumberGenerator, Serializable {
 
     private static final long serialVersionUID = 8292679980257982877L;
+    /* the largest double below 1 */
+    private static final double BELOW_ONE = 0.9999999999999999;
 
     private RandomNumberGenerator randomNumberGenerator;
     private String algorithmName;
+    private SamplingMode samplingMode = SamplingMode.STANDARD;
+    /* sampler of the last getDirichlet call, reused while alpha is unchanged */
+    private DirichletSampler dirichletSampler;
 
     public RandomNumberFactory() {
         this( RandomNumberAlgorithm.MULTIPLY_WITH_CARRY);
@@ -118,6 +123,18 @@ public class RandomNumberFactory implements RandomNumberGenerator, Serializable
      * @return
      */
     public double getUniform() {
+        return uniform(randomNumberGenerator);
+    }
+
+    /**
+     * Produce a uniform random sample from the open interval (0, 1) using the supplied
+     * generator. The sampler classes use this so that they can be driven by any
+     * RandomNumberGenerator, including a RandomNumberFactory.
+     *
+     * @param randomNumberGenerator source of unsigned integers
+     * @return
+     */
+    public static double uniform(RandomNumberGenerator randomNumberGenerator) {
         // 0 <= u < 2^32
         long u = randomNumberGenerator.getUInt();
         // The magic number below is 1/(2^32 + 2).
@@ -125,20 +142,245 @@ public class RandomNumberFactory implements RandomNumberGenerator, Serializable
         return (u + 1.0) * 2.328306435454494e-10;
     }
 
+    /**
+     * @return the variance reduction mode used by the bulk fill methods
+     */
+    public SamplingMode getSamplingMode() {
+        return samplingMode;
+    }
+
+    /**
+     * Set the variance reduction mode used by the bulk fill methods; see SamplingMode
+     *
+     * @param samplingMode
+     */
+    public void setSamplingMode(SamplingMode samplingMode) {
+        if (samplingMode == null) {
+            throw new IllegalArgumentException("Sampling mode must not be null.");
+        }
+        this.samplingMode = samplingMode;
+    }
+
+    /**
+     * Fill the array with uniform random samples from the open interval (0, 1), according to
+     * the sampling mode.
+     *
+     * @param values the array to fill
+     */
+    public void fillUniform(double[] values) {
+        fillUniform(values, 0, values.length);
+    }
+
+    /**
+     * Fill the range [from, to) of the array with uniform random samples from the open
+     * interval (0, 1), according to the sampling mode: independent, antithetic pairs
+     * (u, 1 - u) at consecutive indexes, or one sample per stratum of the range, shuffled.
+     *
+     * @param values the array to fill
+     * @param from   first index to fill, inclusive
+     * @param to     last index to fill, exclusive
+     */
+    public void fillUniform(double[] values, int from, int to) {
+        switch (samplingMode) {
+            case ANTITHETIC:
+                int i = from;
+                for (; i + 1 < to; i += 2) {
+                    double u = getUniform();
+                    values[i] = u;
+                    values[i + 1] = 1.0 - u;
+                }
+                if (i < to) {
+                    values[i] = getUniform();
+                }
+                break;
+            case STRATIFIED:
+                stratify(values, from, to);
+                break;
+            default:
+                for (int k = from; k < to; k++) {
+                    values[k] = getUniform();
+                }
+        }
+    }
+
+    /**
+     * Latin hypercube sample: fill the array with points uniformly distributed in the unit
+     * cube, stored row-major, such that in every coordinate each of the stratum
+     * [k / points, (k + 1) / points) contains exactly one point. Independent of the sampling mode.
+     *
+     * @param block     destination array, at least points * dimension long
+     * @param points    number of points
+     * @param dimension number of coordinates per point
+     */
+    public void fillLatinHypercube(double[] block, int points, int dimension) {
+        if (points < 0 || dimension < 1 || (long) points * dimension > block.length) {
+            String msg = String.format("Array of length %d cannot hold %d points of dimension %d.",
+                                       block.length, points, dimension);
+            throw new IllegalArgumentException(msg);
+        }
+        double[] column = new double[points];
+        for (int j = 0; j < dimension; j++) {
+            stratify(column, 0, points);
+            for (int k = 0; k < points; k++) {
+                block[k * dimension + j] = column[k];
+            }
+        }
+    }
+
+    /**
+     * one uniform in each of the to - from strata, in random order
+     */
+    private void stratify(double[] values, int from, int to) {
+        int n = to - from;
+        double width = 1.0 / n;
+        for (int k = 0; k < n; k++) {
+            values[from + k] = stratumPoint(k, getUniform(), width);
+        }
+        // Fisher-Yates shuffle, see Knuth, Seminumerical Algorithms, section 3.4.2, Algorithm P
+        for (int k = n - 1; k > 0; k--) {
+            int j = (int) (getUniform() * (k + 1));
+            double tmp = values[from + k];
+            values[from + k] = values[from + j];
+            values[from + j] = tmp;
+        }
+    }
+
+    /**
+     * the point a fraction u into stratum k of width 1 / n; from 2^23 strata on, (k + u) / n
+     * can round up to 1 in the top stratum, so the result is held below 1
+     */
+    static double stratumPoint(int k, double u, double width) {
+        return Math.min((k + u) * width, BELOW_ONE);
+    }
+
     /**
      * Get normal (Gaussian) random sample with mean 0 and standard deviation 1
      *
      * @return
      */
     public double getNormal() {
+        return normal(randomNumberGenerator);
+    }
+
+    /**
+     * Get normal (Gaussian) random sample with mean 0 and standard deviation 1 using the
+     * supplied generator.
+     *
+     * @param randomNumberGenerator source of unsigned integers
+     * @return
+     */
+    public static double normal(RandomNumberGenerator randomNumberGenerator) {
         // Use Box-Muller algorithm
-        double u1 = getUniform();
-        double u2 = getUniform();
+        double u1 = uniform(randomNumberGenerator);
+        double u2 = uniform(randomNumberGenerator);
         double r = Math.sqrt(-2.0 * Math.log(u1));
         double theta = 2.0 * Math.PI * u2;
         return r * Math.sin(theta);
     }
 
+    /**
+     * Fill the array with normal (Gaussian) random samples with mean 0 and standard deviation 1
+     *
+     * @param values the array to fill
+     */
+    public void fillNormal(double[] values) {
+        fillNormal(values, 0, values.length);
+    }
+
+    /**
+     * Fill the range [from, to) of the array with normal (Gaussian) random samples with mean 0
+     * and standard deviation 1.
+     * <p/>
+     * Box-Muller produces two independent normals from each pair of uniforms; getNormal()
+     * discards the cosine half, the bulk fill keeps both, halving the uniforms, logs and
+     * square roots needed per sample.
+     * <p/>
+     * In ANTITHETIC mode consecutive samples are pairs (z, -z); in STRATIFIED mode stratified
+     * uniforms are transformed by NormalCDFInverse. Both modes treat the range as one stream
+     * of scalars, so neighbouring samples are not independent; use fillNormalVectors for
+     * arrays that hold vectors.
+     *
+     * @param values the array to fill
+     * @param from   first index to fill, inclusive
+     * @param to     last index to fill, exclusive
+     */
+    public void fillNormal(double[] values, int from, int to) {
+        if (samplingMode == SamplingMode.STRATIFIED) {
+            stratify(values, from, to);
+            for (int k = from; k < to; k++) {
+                values[k] = NormalCDFInverse.normalCDFInverse(values[k]);
+            }
+            return;
+        }
+        if (samplingMode == SamplingMode.ANTITHETIC) {
+            int k = from;
+            for (; k + 1 < to; k += 2) {
+                double z = getNormal();
+                values[k] = z;
+                values[k + 1] = -z;
+            }
+            if (k < to) {
+                values[k] = getNormal();
+            }
+            return;
+        }
+        independentNormals(values, from, to);
+    }
+
+    /**
+     * Fill the array with vectors of standard normals, stored row-major: vector k occupies
+     * indexes [k * dimension, (k + 1) * dimension). The components of a vector are always
+     * independent; the sampling mode applies across vectors: in ANTITHETIC mode consecutive
+     * vectors are pairs (z, -z), and in STRATIFIED mode each coordinate is stratified
+     * separately over the vectors, a Latin hypercube sample transformed by NormalCDFInverse.
+     *
+     * @param values    the array to fill, whose length is a multiple of the dimension
+     * @param dimension number of components per vector
+     */
+    public void fillNormalVectors(double[] values, int dimension) {
+        if (dimension < 1 || values.length % dimension != 0) {
+            String msg = String.format("Array length must be a multiple of the dimension %d. " +
+                                           "Received %d.", dimension, values.length);
+            throw new IllegalArgumentException(msg);
+        }
+        switch (samplingMode) {
+            case ANTITHETIC:
+                int offset = 0;
+                for (; offset + 2 * dimension <= values.length; offset += 2 * dimension) {
+                    independentNormals(values, offset, offset + dimension);
+                    for (int j = 0; j < dimension; j++) {
+                        values[offset + dimension + j] = -values[offset + j];
+                    }
+                }
+                independentNormals(values, offset, values.length);
+                break;
+            case STRATIFIED:
+                fillLatinHypercube(values, values.length / dimension, dimension);
+                for (int k = 0; k < values.length; k++) {
+                    values[k] = NormalCDFInverse.normalCDFInverse(values[k]);
+                }
+                break;
+            default:
+                independentNormals(values, 0, values.length);
+        }
+    }
+
+    /**
+     * independent standard normals in [from, to), both halves of each Box-Muller pair
+     */
+    private void independentNormals(double[] values, int from, int to) {
+        int i = from;
+        for (; i + 1 < to; i += 2) {
+            double r = Math.sqrt(-2.0 * Math.log(getUniform()));
+            double theta = 2.0 * Math.PI * getUniform();
+            values[i] = r * Math.sin(theta);
+            values[i + 1] = r * Math.cos(theta);
+        }
+        if (i < to) {
+            values[i] = getNormal();
+        }
+    }
+
     /**
      * Get normal (Gaussian) random sample with specified mean and standard deviation
      *
@@ -328,6 +570,9 @@ public class RandomNumberFactory implements RandomNumberGenerator, Serializable
      * t-test for assessing the statistical significance of the difference between two sample
      * means, the construction of confidence intervals for the difference between two population
      * means, and in linear regression analysis.
+     * <p/>
+     * Samples are drawn directly with Bailey's polar method, see StudentTSampler; for repeated
+     * draws with the same degrees of freedom, use a StudentTSampler instance.
      *
      * @param degreesOfFreedom
      * @return
@@ -338,11 +583,8 @@ public class RandomNumberFactory implements RandomNumberGenerator, Serializable
                                        degreesOfFreedom);
             throw new IllegalArgumentException(msg);
         }
-
-        // See Seminumerical Algorithms by Knuth
-        double y1 = getNormal();
-        double y2 = getChiSquare(degreesOfFreedom);
-        return y1 / Math.sqrt(y2 / degreesOfFreedom);
+        return StudentTSampler.polar(randomNumberGenerator, degreesOfFreedom,
+                                     -2.0 / degreesOfFreedom);
     }
 
     /**
@@ -391,6 +633,239 @@ public class RandomNumberFactory implements RandomNumberGenerator, Serializable
         return u / (u + v);
     }
 
+    /**
+     * Pareto (power law) distribution, P(X > x) = (scale / x)^shape for x >= scale
+     * see: http://en.wikipedia.org/wiki/Pareto_distribution
+     *
+     * @param scale minimum value, must be positive
+     * @param shape tail index, must be positive
+     * @return
+     */
+    public double getPareto(double scale, double shape) {
+        return new ParetoDistribution(scale, shape).sample(randomNumberGenerator);
+    }
+
+    /**
+     * Zipf distribution, P(k) proportional to 1 / k^exponent for k = 1, ..., numberOfElements.
+     * For repeated sampling keep a ZipfSampler, which precomputes its constants.
+     * see: http://en.wikipedia.org/wiki/Zipf's_law
+     *
+     * @param numberOfElements must be positive
+     * @param exponent         must not be negative
+     * @return
+     */
+    public long getZipf(long numberOfElements, double exponent) {
+        return new ZipfSampler(numberOfElements, exponent).sample(randomNumberGenerator);
+    }
+
+    /**
+     * Geometric distribution: the number of failures before the first success in trials with
+     * success probability p, by inversion with a single logarithm.
+     * see: http://en.wikipedia.org/wiki/Geometric_distribution
+     *
+     * @param probability success probability, in the range (0, 1]
+     * @return
+     */
+    public long getGeometric(double probability) {
+        return new GeometricSampler(probability).sample(randomNumberGenerator);
+    }
+
+    /**
+     * Poisson distribution with the given mean, see PoissonSampler
+     * see: http://en.wikipedia.org/wiki/Poisson_distribution
+     *
+     * @param mean must be positive
+     * @return
+     */
+    public long getPoisson(double mean) {
+        if (!(mean > 0.0 && mean < Double.POSITIVE_INFINITY)) {
+            String msg = String.format("Mean must be positive and finite. Received %f.", mean);
+            throw new IllegalArgumentException(msg);
+        }
+        return PoissonSampler.poisson(randomNumberGenerator, mean);
+    }
+
+    /**
+     * Negative binomial distribution: the number of failures before the r-th success, sampled
+     * as a Poisson variable whose mean is gamma distributed with shape r and scale (1 - p) / p.
+     * see: http://en.wikipedia.org/wiki/Negative_binomial_distribution
+     *
+     * @param successes   number of successes r, must be positive
+     * @param probability success probability, in the range (0, 1]
+     * @return
+     */
+    public long getNegativeBinomial(double successes, double probability) {
+        if (!(probability > 0.0 && probability <= 1.0)) {
+            String msg = String.format("Probability must be in the range (0, 1]. Received %f.",
+                                       probability);
+            throw new IllegalArgumentException(msg);
+        }
+        if (probability == 1.0) {
+            return 0;
+        }
+        double mean = getGamma(successes, (1.0 - probability) / probability);
+        return PoissonSampler.poisson(randomNumberGenerator, mean);
+    }
+
+    /**
+     * Hypergeometric distribution: the number of marked items in a sample drawn without
+     * replacement. For repeated sampling keep a HypergeometricSampler.
+     * see: http://en.wikipedia.org/wiki/Hypergeometric_distribution
+     *
+     * @param populationSize number of items in the population
+     * @param marked         number of marked items in the population
+     * @param sampleSize     number of items drawn
+     * @return
+     */
+    public long getHypergeometric(long populationSize, long marked, long sampleSize) {
+        return new HypergeometricSampler(populationSize, marked, sampleSize)
+            .sample(randomNumberGenerator);
+    }
+
+    /**
+     * Binomial distribution: the number of successes in n trials, see BinomialSampler
+     * see: http://en.wikipedia.org/wiki/Binomial_distribution
+     *
+     * @param trials      number of trials, must not be negative
+     * @param probability success probability, in the range [0, 1]
+     * @return
+     */
+    public long getBinomial(long trials, double probability) {
+        BinomialSampler.checkParameters(trials, probability);
+        return BinomialSampler.binomial(randomNumberGenerator, trials, probability);
+    }
+
+    /**
+     * Dirichlet distribution: write a random probability vector into out. The per component
+     * gamma samplers are cached and reused for as long as alpha is unchanged.
+     * see: http://en.wikipedia.org/wiki/Dirichlet_distribution
+     *
+     * @param alpha concentration parameters, all positive
+     * @param out   receives the vector, at least alpha.length long
+     */
+    public void getDirichlet(double[] alpha, double[] out) {
+        DirichletSampler sampler = dirichletSampler;
+        if (sampler == null || !sampler.hasAlpha(alpha)) {
+            sampler = new DirichletSampler(alpha);
+            dirichletSampler = sampler;
+        }
+        sampler.sample(randomNumberGenerator, out);
+    }
+
+    /**
+     * Multinomial distribution: write the counts of each category in n draws into counts,
+     * using O(k) conditional binomial samples and no allocation.
+     * see: http://en.wikipedia.org/wiki/Multinomial_distribution
+     *
+     * @param trials        number of draws, must not be negative
+     * @param probabilities category weights, non negative with a positive sum
+     * @param counts        receives the counts, at least probabilities.length long
+     */
+    public void getMultinomial(long trials, double[] probabilities, long[] counts) {
+        double total = MultinomialSampler.checkParameters(trials, probabilities);
+        MultinomialSampler.multinomial(randomNumberGenerator, trials, probabilities, total, counts);
+    }
+
+    /**
+     * Draw a sample from a DiscreteSampler using this factory's generator.
+     *
+     * @param sampler
+     * @return
+     */
+    public long sample(DiscreteSampler sampler) {
+        return sampler.sample(randomNumberGenerator);
+    }
+
+    /**
+     * Fill the array with samples from a DiscreteSampler using this factory's generator.
+     *
+     * @param sampler
+     * @param values  the array to fill
+     */
+    public void fill(DiscreteSampler sampler, long[] values) {
+        sampler.fill(randomNumberGenerator, values, 0, values.length);
+    }
+
+    /**
+     * Draw a sample from a Distribution using this factory's generator.
+     *
+     * @param distribution
+     * @return
+     */
+    public double sample(Distribution distribution) {
+        return distribution.sample(randomNumberGenerator);
+    }
+
+    /**
+     * Fill the array with samples from a Distribution using this factory's generator.
+     * In the ANTITHETIC and STRATIFIED sampling modes the samples are obtained by applying the
+     * distribution's quantile function to uniforms from fillUniform; a distribution whose
+     * quantile throws UnsupportedOperationException gets independent samples from its own
+     * fill instead.
+     *
+     * @param distribution
+     * @param values       the array to fill
+     */
+    public void fill(Distribution distribution, double[] values) {
+        if (samplingMode == SamplingMode.STANDARD) {
+            distribution.fill(randomNumberGenerator, values, 0, values.length);
+            return;
+        }
+        fillUniform(values);
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = distribution.quantile(values[i]);
+            }
+        }
+        catch (UnsupportedOperationException e) {
+            distribution.fill(randomNumberGenerator, values, 0, values.length);
+        }
+    }
+
+    /**
+     * Fill the array with exponential random samples with the specified mean,
+     * according to the sampling mode.
+     *
+     * @param mean
+     * @param values the array to fill
+     */
+    public void fillExponential(double mean, double[] values) {
+        fill(new ExponentialDistribution(mean), values);
+    }
+
+    /**
+     * Fill the array with Weibull random samples, according to the sampling mode.
+     *
+     * @param shape
+     * @param scale
+     * @param values the array to fill
+     */
+    public void fillWeibull(double shape, double scale, double[] values) {
+        fill(new WeibullDistribution(shape, scale), values);
+    }
+
+    /**
+     * Fill the array with Cauchy random samples, according to the sampling mode.
+     *
+     * @param median
+     * @param scale
+     * @param values the array to fill
+     */
+    public void fillCauchy(double median, double scale, double[] values) {
+        fill(new CauchyDistribution(median, scale), values);
+    }
+
+    /**
+     * Fill the array with Laplace random samples, according to the sampling mode.
+     *
+     * @param mean
+     * @param scale
+     * @param values the array to fill
+     */
+    public void fillLaplace(double mean, double scale, double[] values) {
+        fill(new LaplaceDistribution(mean, scale), values);
+    }
+
     public String getAlgorithmName() {
         return this.algorithmName;
     }
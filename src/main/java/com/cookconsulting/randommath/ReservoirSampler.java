@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform random sample of a fixed number of items from a stream of unknown length, without
+ * replacement and without materializing the stream.
+ * <p/>
+ * Once the reservoir is full, subclasses draw the number of items to skip before the next
+ * replacement, so only O(k log(n / k)) random numbers are used for k items out of n.
+ * <p/>
+ * Reservoirs filled independently (e.g. one per thread over partitions of the data) can be
+ * combined with merge; the result is distributed as a reservoir of the concatenated streams.
+ * Instances are not thread safe.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public abstract class ReservoirSampler<T> {
+
+    protected final int capacity;
+    protected final RandomNumberGenerator randomNumberGenerator;
+    private Object[] reservoir;
+    private int size;
+    /* items offered so far */
+    protected long count;
+    /* items still to be skipped before the next replacement */
+    private long skip;
+
+    /**
+     * @param capacity              number of items to sample, must be positive
+     * @param randomNumberGenerator
+     */
+    protected ReservoirSampler(int capacity, RandomNumberGenerator randomNumberGenerator) {
+        if (capacity < 1) {
+            String msg = String.format("Capacity must be positive. Received %d.", capacity);
+            throw new IllegalArgumentException(msg);
+        }
+        this.capacity = capacity;
+        this.randomNumberGenerator = randomNumberGenerator;
+        this.reservoir = new Object[capacity];
+    }
+
+    /**
+     * Called when the reservoir holds capacity items out of count offered.
+     *
+     * @return the number of items to skip before the next one enters the reservoir
+     */
+    protected abstract long nextSkip();
+
+    /**
+     * Called after merge changes count, to reset any state that depends on the stream history.
+     */
+    protected void resetSkipState() {
+    }
+
+    /**
+     * Offer the next item of the stream
+     *
+     * @param item
+     */
+    public void add(T item) {
+        count++;
+        if (size < capacity) {
+            reservoir[size++] = item;
+            if (size == capacity) {
+                skip = nextSkip();
+            }
+        }
+        else if (skip > 0) {
+            skip--;
+        }
+        else {
+            reservoir[randomIndex(capacity)] = item;
+            skip = nextSkip();
+        }
+    }
+
+    public void addAll(Iterable<? extends T> items) {
+        for (T item : items) {
+            add(item);
+        }
+    }
+
+    /**
+     * @return the number of items offered so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return a copy of the current sample, min(capacity, count) items in no particular order
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> getSample() {
+        List<T> sample = new ArrayList<T>(size);
+        for (int i = 0; i < size; i++) {
+            sample.add((T) reservoir[i]);
+        }
+        return sample;
+    }
+
+    /**
+     * Combine the sample of another reservoir, over a disjoint stream, into this one.
+     * The number of items taken from each reservoir is hypergeometric, drawn sequentially;
+     * the items are a random subset of each reservoir. The other reservoir is not modified.
+     *
+     * @param other a reservoir of the same capacity
+     */
+    public void merge(ReservoirSampler<? extends T> other) {
+        if (other.capacity != capacity) {
+            String msg = String.format("Cannot merge reservoirs of capacity %d and %d.",
+                                       capacity, other.capacity);
+            throw new IllegalArgumentException(msg);
+        }
+        long total = count + other.count;
+        int target = (int) Math.min(capacity, total);
+        // number of items of the merged sample coming from this stream
+        long remainingThis = count;
+        long remainingOther = other.count;
+        int fromThis = 0;
+        for (int i = 0; i < target; i++) {
+            double u = RandomNumberFactory.uniform(randomNumberGenerator);
+            if (u * (remainingThis + remainingOther) < remainingThis) {
+                fromThis++;
+                remainingThis--;
+            }
+            else {
+                remainingOther--;
+            }
+        }
+        Object[] merged = new Object[capacity];
+        Object[] mine = Arrays.copyOf(reservoir, size);
+        Object[] theirs = Arrays.copyOf(other.reservoir, other.size);
+        partialShuffle(mine, fromThis);
+        partialShuffle(theirs, target - fromThis);
+        System.arraycopy(mine, 0, merged, 0, fromThis);
+        System.arraycopy(theirs, 0, merged, fromThis, target - fromThis);
+        reservoir = merged;
+        size = target;
+        count = total;
+        resetSkipState();
+        skip = (size == capacity) ? nextSkip() : 0;
+    }
+
+    /**
+     * move a random subset of m items to the front of the array
+     */
+    private void partialShuffle(Object[] items, int m) {
+        for (int i = 0; i < m; i++) {
+            int j = i + randomIndex(items.length - i);
+            Object tmp = items[i];
+            items[i] = items[j];
+            items[j] = tmp;
+        }
+    }
+
+    /**
+     * @return uniform random integer in [0, n)
+     */
+    protected int randomIndex(int n) {
+        return Math.min((int) (RandomNumberFactory.uniform(randomNumberGenerator) * n), n - 1);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Reservoir sampling with Li's Algorithm L: the largest of the reservoir's (implicit) uniform
+ * keys, W, is tracked, and the gap to the next item with a smaller key is geometric,
+ * floor(log(U) / log(1 - W)). Three random numbers per replacement.
+ * <p/>
+ * see: Li, K.H. Reservoir-Sampling Algorithms of Time Complexity O(n(1 + log(N/n))),
+ * ACM Transactions on Mathematical Software, Vol 20, No 4, December 1994, pp 481-493
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class ReservoirSamplerL<T> extends ReservoirSampler<T> {
+
+    /* largest key in the reservoir, 0 until the reservoir is full */
+    private double w;
+    /* set when w was redrawn by a merge and already holds the largest key */
+    private boolean current;
+
+    public ReservoirSamplerL(int capacity, RandomNumberGenerator randomNumberGenerator) {
+        super(capacity, randomNumberGenerator);
+    }
+
+    @Override
+    protected long nextSkip() {
+        if (w == 0.0) {
+            w = Math.exp(Math.log(RandomNumberFactory.uniform(randomNumberGenerator)) / capacity);
+        }
+        else if (!current) {
+            // the keys in the reservoir are uniform on [0, w): the new largest is w * U^(1/k)
+            w *= Math.exp(Math.log(RandomNumberFactory.uniform(randomNumberGenerator)) / capacity);
+        }
+        current = false;
+        double gap = Math.floor(Math.log(RandomNumberFactory.uniform(randomNumberGenerator)) /
+                                    Math.log1p(-w));
+        return (gap >= Long.MAX_VALUE) ? Long.MAX_VALUE : (long) gap;
+    }
+
+    /**
+     * After a merge the largest key is redrawn from its distribution given count: the
+     * capacity-th smallest of count uniforms, Beta(capacity, count - capacity + 1).
+     */
+    @Override
+    protected void resetSkipState() {
+        if (count <= capacity) {
+            w = 0.0;
+            current = false;
+            return;
+        }
+        w = new BetaDistribution(capacity, count - capacity + 1).sample(randomNumberGenerator);
+        current = true;
+    }
+}
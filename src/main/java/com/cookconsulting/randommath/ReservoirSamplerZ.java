@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Reservoir sampling with Vitter's Algorithm Z: while fewer than 22 times the capacity items
+ * have been seen the skip is found by sequential search (Algorithm X), after that it is drawn
+ * by rejection from a continuous approximation of its distribution, with a squeeze that
+ * usually avoids evaluating the exact probability.
+ * <p/>
+ * see: Vitter, J.S. Random Sampling with a Reservoir,
+ * ACM Transactions on Mathematical Software, Vol 11, No 1, March 1985, pp 37-57
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class ReservoirSamplerZ<T> extends ReservoirSampler<T> {
+
+    /* Vitter's recommended switch over point from Algorithm X to Algorithm Z */
+    private static final int THRESHOLD = 22;
+
+    /* variate generated in advance by the previous call, 0 if none */
+    private double w;
+
+    public ReservoirSamplerZ(int capacity, RandomNumberGenerator randomNumberGenerator) {
+        super(capacity, randomNumberGenerator);
+    }
+
+    @Override
+    protected long nextSkip() {
+        double n = capacity;
+        double t = count;
+        if (t <= THRESHOLD * n) {
+            // Algorithm X
+            double v = RandomNumberFactory.uniform(randomNumberGenerator);
+            long s = 0;
+            t += 1.0;
+            double quot = (t - n) / t;
+            while (quot > v) {
+                s++;
+                t += 1.0;
+                quot = (quot * (t - n)) / t;
+            }
+            return s;
+        }
+        if (w == 0.0) {
+            w = nextW();
+        }
+        double term = t - n + 1.0;
+        while (true) {
+            double u = RandomNumberFactory.uniform(randomNumberGenerator);
+            double x = t * (w - 1.0);
+            double s = Math.floor(x);
+            // test if U <= h(S) / cg(X)
+            double tmp = (t + 1.0) / term;
+            double lhs = Math.exp(Math.log(((u * tmp * tmp) * (term + s)) / (t + x)) / n);
+            double rhs = (((t + x) / (term + s)) * term) / t;
+            if (lhs <= rhs) {
+                w = rhs / lhs;
+                return (long) s;
+            }
+            // test if U <= f(S) / cg(X)
+            double y = (((u * (t + 1.0)) / term) * (t + s + 1.0)) / (t + x);
+            double denom;
+            double numerLimit;
+            if (n < s) {
+                denom = t;
+                numerLimit = term + s;
+            }
+            else {
+                denom = t - n + s;
+                numerLimit = t + 1.0;
+            }
+            for (double numer = t + s; numer >= numerLimit; numer -= 1.0) {
+                y = (y * numer) / denom;
+                denom -= 1.0;
+            }
+            w = nextW();
+            if (Math.exp(Math.log(y) / n) <= (t + x) / t) {
+                return (long) s;
+            }
+        }
+    }
+
+    private double nextW() {
+        return Math.exp(-Math.log(RandomNumberFactory.uniform(randomNumberGenerator)) / capacity);
+    }
+
+    @Override
+    protected void resetSkipState() {
+        w = 0.0;
+    }
+}
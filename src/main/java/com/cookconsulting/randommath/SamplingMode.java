@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Variance reduction modes for the bulk fill methods of RandomNumberFactory
+ * (fillUniform, fillNormal, fill(Distribution, ...) and the inversion based fillExponential,
+ * fillWeibull, fillCauchy and fillLaplace). fillNormalVectors, and so
+ * MultivariateNormalSampler, applies the modes to whole vectors rather than to neighbouring
+ * components.
+ * <p/>
+ * STANDARD: independent samples.
+ * <p/>
+ * ANTITHETIC: samples come in negatively correlated pairs; uniforms u and 1 - u, which the
+ * inversion based distributions map to F^-1(u) and F^-1(1 - u), and normals z and -z.
+ * For a monotone integrand the pair average has a smaller variance than two independent
+ * samples.
+ * <p/>
+ * STRATIFIED: a block of n uniforms has exactly one value in each stratum [k / n, (k + 1) / n),
+ * in random order; other distributions are obtained by inversion of the stratified uniforms.
+ * <p/>
+ * The single sample methods (getUniform, getNormal, ...) are not affected: pairing or
+ * stratifying the uniforms consumed inside one transformation (e.g. the two uniforms of
+ * Box-Muller, or the gamma rejection loop) would bias the result.
+ * <p/>
+ * see: Glasserman, P. Monte Carlo Methods in Financial Engineering, 2004, sections 4.2 and 4.3
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public enum SamplingMode {
+
+    STANDARD,
+    ANTITHETIC,
+    STRATIFIED
+}
@@ -0,0 +1,572 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Shuffles, random permutations and random combinations on primitive arrays.
+ * <p/>
+ * Fisher-Yates shuffles draw their bounded indexes without division: a 32-bit word u maps to
+ * floor(u * n / 2^32), and only in the rare biased case is a remainder computed to decide on
+ * a redraw (Lemire's nearly divisionless method). When the product of several consecutive
+ * bounds fits in 32 bits, one word yields all of them: each multiplication by the next bound
+ * splits off one index and leaves the low bits for the next (Brackett-Rozinsky and Lemire),
+ * so shuffling small ranges consumes a fraction of a random word per element.
+ * <p/>
+ * see: Knuth, Seminumerical Algorithms, section 3.4.2, Algorithm P
+ * see: Lemire, D. Fast Random Integer Generation in an Interval, ACM Transactions on Modeling
+ * and Computer Simulation, Vol 29, No 1, 2019
+ * see: Brackett-Rozinsky, N. and Lemire, D. Batched Ranged Random Integer Generation,
+ * Software: Practice and Experience, 2024
+ * see: Bacher, A., Bodini, O., Hollender, A. and Lumbroso, J. MergeShuffle: A Very Fast,
+ * Parallel Random Permutation Algorithm, 2015
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class Shuffle {
+
+    private static final long TWO_32 = 1L << 32;
+    private static final long MASK_32 = TWO_32 - 1;
+    /* enough for bounds down to 2: 2^32 is the product of at most 32 bounds */
+    private static final int MAX_BATCH = 32;
+    /* elements per block shuffled sequentially by one task of the parallel shuffle */
+    private static final int BLOCK_SIZE = 1 << 16;
+    /* below this length the parallel shuffle is done sequentially */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    /**
+     * @param randomNumberGenerator
+     * @param bound                 must be positive
+     * @return uniform random integer in [0, bound)
+     */
+    public static int boundedInt(RandomNumberGenerator randomNumberGenerator, int bound) {
+        if (bound < 1) {
+            String msg = String.format("Bound must be positive. Received %d.", bound);
+            throw new IllegalArgumentException(msg);
+        }
+        long x = randomNumberGenerator.getUInt() * bound;
+        long low = x & MASK_32;
+        if (low < bound) {
+            long threshold = TWO_32 % bound;
+            while (low < threshold) {
+                x = randomNumberGenerator.getUInt() * bound;
+                low = x & MASK_32;
+            }
+        }
+        return (int) (x >>> 32);
+    }
+
+    /**
+     * Draw indexes for the bounds bound, bound - 1, ... (down to 2 at the lowest) from as few
+     * 32-bit words as possible.
+     *
+     * @return the number of indexes written to out, at least 1
+     */
+    private static int boundedBatch(RandomNumberGenerator rng, int bound, int[] out) {
+        long product = bound;
+        int k = 1;
+        while (k < MAX_BATCH && bound - k >= 2) {
+            long next = product * (bound - k);
+            if (next > TWO_32) {
+                break;
+            }
+            product = next;
+            k++;
+        }
+        while (true) {
+            long low = rng.getUInt();
+            for (int j = 0; j < k; j++) {
+                long x = low * (bound - j);
+                out[j] = (int) (x >>> 32);
+                low = x & MASK_32;
+            }
+            // the leftover low bits decide on rejection, as for a single bound equal to product
+            if (low >= product || low >= TWO_32 % product) {
+                return k;
+            }
+        }
+    }
+
+    public static void shuffle(RandomNumberGenerator randomNumberGenerator, int[] values) {
+        shuffle(randomNumberGenerator, values, 0, values.length);
+    }
+
+    /**
+     * Shuffle the range [from, to) of the array in place
+     *
+     * @param randomNumberGenerator
+     * @param values
+     * @param from                  first index, inclusive
+     * @param to                    last index, exclusive
+     */
+    public static void shuffle(RandomNumberGenerator randomNumberGenerator, int[] values,
+                               int from, int to) {
+        int[] batch = new int[MAX_BATCH];
+        int n = to - from;
+        while (n > 1) {
+            int k = boundedBatch(randomNumberGenerator, n, batch);
+            for (int j = 0; j < k; j++) {
+                int i = from + n - 1 - j;
+                int m = from + batch[j];
+                int tmp = values[i];
+                values[i] = values[m];
+                values[m] = tmp;
+            }
+            n -= k;
+        }
+    }
+
+    public static void shuffle(RandomNumberGenerator randomNumberGenerator, long[] values) {
+        shuffle(randomNumberGenerator, values, 0, values.length);
+    }
+
+    /**
+     * Shuffle the range [from, to) of the array in place
+     *
+     * @param randomNumberGenerator
+     * @param values
+     * @param from                  first index, inclusive
+     * @param to                    last index, exclusive
+     */
+    public static void shuffle(RandomNumberGenerator randomNumberGenerator, long[] values,
+                               int from, int to) {
+        int[] batch = new int[MAX_BATCH];
+        int n = to - from;
+        while (n > 1) {
+            int k = boundedBatch(randomNumberGenerator, n, batch);
+            for (int j = 0; j < k; j++) {
+                int i = from + n - 1 - j;
+                int m = from + batch[j];
+                long tmp = values[i];
+                values[i] = values[m];
+                values[m] = tmp;
+            }
+            n -= k;
+        }
+    }
+
+    public static void shuffle(RandomNumberGenerator randomNumberGenerator, double[] values) {
+        shuffle(randomNumberGenerator, values, 0, values.length);
+    }
+
+    /**
+     * Shuffle the range [from, to) of the array in place
+     *
+     * @param randomNumberGenerator
+     * @param values
+     * @param from                  first index, inclusive
+     * @param to                    last index, exclusive
+     */
+    public static void shuffle(RandomNumberGenerator randomNumberGenerator, double[] values,
+                               int from, int to) {
+        int[] batch = new int[MAX_BATCH];
+        int n = to - from;
+        while (n > 1) {
+            int k = boundedBatch(randomNumberGenerator, n, batch);
+            for (int j = 0; j < k; j++) {
+                int i = from + n - 1 - j;
+                int m = from + batch[j];
+                double tmp = values[i];
+                values[i] = values[m];
+                values[m] = tmp;
+            }
+            n -= k;
+        }
+    }
+
+    /**
+     * @param randomNumberGenerator
+     * @param n                     must not be negative
+     * @return a uniform random permutation of 0, 1, ..., n - 1
+     */
+    public static int[] permutation(RandomNumberGenerator randomNumberGenerator, int n) {
+        if (n < 0) {
+            String msg = String.format("Size must not be negative. Received %d.", n);
+            throw new IllegalArgumentException(msg);
+        }
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        shuffle(randomNumberGenerator, permutation);
+        return permutation;
+    }
+
+    /**
+     * Uniform random k-subset of {0, 1, ..., n - 1}, in increasing order.
+     * <p/>
+     * Sparse subsets use Floyd's algorithm, k draws and a hash set, then a sort; dense subsets
+     * use selection sampling (Knuth, Algorithm S), one pass over n.
+     *
+     * @param randomNumberGenerator
+     * @param n                     size of the population
+     * @param k                     size of the subset, 0 &lt;= k &lt;= n
+     * @return the k selected indexes, sorted
+     */
+    public static int[] combination(RandomNumberGenerator randomNumberGenerator, int n, int k) {
+        if (n < 0 || k < 0 || k > n) {
+            String msg = String.format("Cannot choose %d out of %d.", k, n);
+            throw new IllegalArgumentException(msg);
+        }
+        int[] combination = new int[k];
+        if (k > n / 16) {
+            // selection sampling: choose index i with probability (needed) / (remaining)
+            int selected = 0;
+            for (int i = 0; i < n && selected < k; i++) {
+                if (boundedInt(randomNumberGenerator, n - i) < k - selected) {
+                    combination[selected++] = i;
+                }
+            }
+            return combination;
+        }
+        // Floyd: for j = n - k .. n - 1 add a random t in [0, j], or j if t is already taken
+        IntHashSet chosen = new IntHashSet(k);
+        int count = 0;
+        for (int j = n - k; j < n; j++) {
+            int t = boundedInt(randomNumberGenerator, j + 1);
+            if (!chosen.add(t)) {
+                // j is larger than everything chosen so far
+                chosen.add(j);
+                t = j;
+            }
+            combination[count++] = t;
+        }
+        Arrays.sort(combination);
+        return combination;
+    }
+
+    /**
+     * Uniform random k-subset of {0, 1, ..., n - 1}, in random order
+     *
+     * @param randomNumberGenerator
+     * @param n                     size of the population
+     * @param k                     size of the sample, 0 &lt;= k &lt;= n
+     * @return the k selected indexes
+     */
+    public static int[] sample(RandomNumberGenerator randomNumberGenerator, int n, int k) {
+        int[] sample = combination(randomNumberGenerator, n, k);
+        shuffle(randomNumberGenerator, sample);
+        return sample;
+    }
+
+    /**
+     * Shuffle a large array with MergeShuffle on a pool of daemon threads, one per processor.
+     *
+     * @param randomNumberGenerator seeds the generators of the parallel tasks
+     * @param values
+     */
+    public static void parallelShuffle(RandomNumberGenerator randomNumberGenerator, int[] values) {
+        parallelShuffle(randomNumberGenerator, new IntArray(values));
+    }
+
+    /**
+     * Shuffle a large array with MergeShuffle on the given executor
+     *
+     * @param randomNumberGenerator seeds the generators of the parallel tasks
+     * @param values
+     * @param executor
+     */
+    public static void parallelShuffle(RandomNumberGenerator randomNumberGenerator, int[] values,
+                                       ExecutorService executor) {
+        parallelShuffle(randomNumberGenerator, new IntArray(values), executor);
+    }
+
+    public static void parallelShuffle(RandomNumberGenerator randomNumberGenerator, long[] values) {
+        parallelShuffle(randomNumberGenerator, new LongArray(values));
+    }
+
+    public static void parallelShuffle(RandomNumberGenerator randomNumberGenerator, long[] values,
+                                       ExecutorService executor) {
+        parallelShuffle(randomNumberGenerator, new LongArray(values), executor);
+    }
+
+    public static void parallelShuffle(RandomNumberGenerator randomNumberGenerator, double[] values) {
+        parallelShuffle(randomNumberGenerator, new DoubleArray(values));
+    }
+
+    public static void parallelShuffle(RandomNumberGenerator randomNumberGenerator, double[] values,
+                                       ExecutorService executor) {
+        parallelShuffle(randomNumberGenerator, new DoubleArray(values), executor);
+    }
+
+    private static void parallelShuffle(RandomNumberGenerator rng, ArrayView array) {
+        if (array.length() < PARALLEL_THRESHOLD) {
+            array.shuffle(rng, 0, array.length());
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Shuffle");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            parallelShuffle(rng, array, executor);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * MergeShuffle: blocks small enough to stay in cache are shuffled independently, then
+     * neighbouring shuffled runs are merged pairwise, in parallel, by random interleaving.
+     * Each task gets its own generator, seeded in submission order, so the result depends only
+     * on the state of the given generator, not on the scheduling.
+     */
+    private static void parallelShuffle(RandomNumberGenerator rng, final ArrayView array,
+                                        ExecutorService executor) {
+        final int n = array.length();
+        if (n < PARALLEL_THRESHOLD) {
+            array.shuffle(rng, 0, n);
+            return;
+        }
+        // consecutive seeds are distinct; the generator initialization decorrelates them
+        long seed = rng.getUInt();
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (int lo = 0; lo < n; lo += BLOCK_SIZE) {
+            final int from = lo;
+            final int to = (int) Math.min((long) lo + BLOCK_SIZE, n);
+            final RandomNumberGenerator generator = taskGenerator(seed++);
+            tasks.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    array.shuffle(generator, from, to);
+                }
+            }));
+        }
+        await(tasks);
+        for (long width = BLOCK_SIZE; width < n; width *= 2) {
+            tasks.clear();
+            for (long lo = 0; lo + width < n; lo += 2 * width) {
+                final int from = (int) lo;
+                final int mid = (int) (lo + width);
+                final int to = (int) Math.min(lo + 2 * width, n);
+                final RandomNumberGenerator generator = taskGenerator(seed++);
+                tasks.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        merge(generator, array, from, mid, to);
+                    }
+                }));
+            }
+            await(tasks);
+        }
+    }
+
+    private static RandomNumberGenerator taskGenerator(long seed) {
+        Mersenne_Twister generator = new Mersenne_Twister();
+        generator.setSeed(seed);
+        return generator;
+    }
+
+    private static void await(List<Future<?>> tasks) {
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel shuffle interrupted.", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel shuffle failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Merge the shuffled runs [from, mid) and [mid, to) into a shuffle of [from, to): a random
+     * bit picks the next element from either run; when one run is exhausted, the remaining
+     * elements are inserted at random positions.
+     */
+    private static void merge(RandomNumberGenerator rng, ArrayView array, int from, int mid, int to) {
+        int i = from;
+        int j = mid;
+        long bits = 0;
+        int available = 0;
+        while (true) {
+            if (available == 0) {
+                bits = rng.getUInt();
+                available = 32;
+            }
+            long bit = bits & 1L;
+            bits >>>= 1;
+            available--;
+            if (bit == 0) {
+                if (i == j) {
+                    break;
+                }
+            }
+            else {
+                if (j == to) {
+                    break;
+                }
+                array.swap(i, j);
+                j++;
+            }
+            i++;
+        }
+        for (; i < to; i++) {
+            array.swap(i, from + boundedInt(rng, i - from + 1));
+        }
+    }
+
+    /**
+     * primitive array seen by the parallel shuffle
+     */
+    private abstract static class ArrayView {
+
+        abstract int length();
+
+        abstract void swap(int i, int j);
+
+        abstract void shuffle(RandomNumberGenerator rng, int from, int to);
+    }
+
+    private static final class IntArray extends ArrayView {
+
+        private final int[] values;
+
+        IntArray(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int length() {
+            return values.length;
+        }
+
+        @Override
+        void swap(int i, int j) {
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+
+        @Override
+        void shuffle(RandomNumberGenerator rng, int from, int to) {
+            Shuffle.shuffle(rng, values, from, to);
+        }
+    }
+
+    private static final class LongArray extends ArrayView {
+
+        private final long[] values;
+
+        LongArray(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int length() {
+            return values.length;
+        }
+
+        @Override
+        void swap(int i, int j) {
+            long tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+
+        @Override
+        void shuffle(RandomNumberGenerator rng, int from, int to) {
+            Shuffle.shuffle(rng, values, from, to);
+        }
+    }
+
+    private static final class DoubleArray extends ArrayView {
+
+        private final double[] values;
+
+        DoubleArray(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int length() {
+            return values.length;
+        }
+
+        @Override
+        void swap(int i, int j) {
+            double tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+
+        @Override
+        void shuffle(RandomNumberGenerator rng, int from, int to) {
+            Shuffle.shuffle(rng, values, from, to);
+        }
+    }
+
+    /**
+     * open addressing set of non negative ints, for Floyd's algorithm
+     */
+    private static final class IntHashSet {
+
+        private final int[] slots;
+        private final int mask;
+
+        IntHashSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2 * expected, 2)) << 1;
+            slots = new int[capacity];
+            Arrays.fill(slots, -1);
+            mask = capacity - 1;
+        }
+
+        /**
+         * @return true if the value was added, false if already present
+         */
+        boolean add(int value) {
+            int slot = (value * 0x9E3779B9) >>> 1 & mask;
+            while (slots[slot] != -1) {
+                if (slots[slot] == value) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = value;
+            return true;
+        }
+    }
+}
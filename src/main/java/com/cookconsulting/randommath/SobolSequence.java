@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Sobol low-discrepancy sequence, generated in Gray code order (Antonov and Saleev): each
+ * new point differs from the previous one by a single XOR with a direction number per
+ * coordinate.
+ * <p/>
+ * Direction numbers for the first 1000 dimensions are the new-joe-kuo-6.1000 set of
+ * Joe and Kuo, loaded from a bundled resource. Beyond that, up to MAX_DIMENSION, primitive
+ * polynomials are enumerated in the same order and the initial direction numbers are chosen
+ * by a fixed pseudo-random rule, so the sequence is valid and repeatable but the higher
+ * coordinates are not optimized for two dimensional projections.
+ * <p/>
+ * Optional scrambling applies a random linear matrix scramble and a random digital shift
+ * (Matousek) to each coordinate, which keeps the net structure of the points while making
+ * independent randomized replicates available for error estimation.
+ * <p/>
+ * Points use 32 bits per coordinate, so at most 2^32 points can be generated, and are offset
+ * by 2^-33 so every coordinate lies strictly inside (0, 1).
+ * <p/>
+ * see: Joe, S. and Kuo, F. Y. "Constructing Sobol sequences with better two-dimensional
+ * projections" SIAM J. Sci. Comput. 30, 2635-2654 (2008)
+ * http://web.maths.unsw.edu.au/~fkuo/sobol/
+ * see: Bratley, P. and Fox, B. L. "Algorithm 659: Implementing Sobol's quasirandom sequence
+ * generator" ACM TOMS Vol 14, No 1, 1988, pages 88-100
+ * see: Matousek, J. "On the L2-discrepancy for anchored boxes" J. Complexity 14, 527-556 (1998)
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class SobolSequence extends QuasiRandomSequence {
+
+    public static final int MAX_DIMENSION = 4096;
+
+    private static final int BITS = 32;
+    private static final long MAX_INDEX = 1L << BITS;
+    private static final double SCALE = 1.0 / MAX_INDEX;
+
+    private static final String RESOURCE = "new-joe-kuo-6.1000";
+
+    // direction[j][k] is the k-th direction number of coordinate j, an unsigned 32 bit fraction
+    private final int[][] direction;
+    private final int[] shift;
+    private final int[] x;
+
+    /**
+     * @param dimension number of coordinates per point, 1 to MAX_DIMENSION
+     */
+    public SobolSequence(int dimension) {
+        this(dimension, null);
+    }
+
+    /**
+     * @param dimension             number of coordinates per point, 1 to MAX_DIMENSION
+     * @param randomNumberGenerator source of the random scramble, or null for the plain sequence
+     */
+    public SobolSequence(int dimension, RandomNumberGenerator randomNumberGenerator) {
+        super(dimension);
+        if (dimension < 1 || dimension > MAX_DIMENSION) {
+            String msg = String.format("Dimension must be in the range [1, %d]. Received %d.",
+                                       MAX_DIMENSION, dimension);
+            throw new IllegalArgumentException(msg);
+        }
+        this.direction = new int[dimension][];
+        this.shift = new int[dimension];
+        this.x = new int[dimension];
+        List<int[]> parameters = DirectionNumbers.get(dimension);
+        for (int j = 0; j < dimension; j++) {
+            direction[j] = directionNumbers(parameters.get(j));
+            if (randomNumberGenerator != null) {
+                scramble(direction[j], randomNumberGenerator);
+                shift[j] = (int) randomNumberGenerator.getUInt();
+            }
+        }
+        skipTo(1);
+    }
+
+    /**
+     * The Gray code of the index selects which direction numbers make up the point, so any
+     * index can be reached in 32 XORs per coordinate.
+     */
+    @Override
+    public void skipTo(long index) {
+        checkIndex(index);
+        if (index >= MAX_INDEX) {
+            String msg = String.format("Index must be less than 2^%d. Received %d.", BITS, index);
+            throw new IllegalArgumentException(msg);
+        }
+        long gray = index ^ (index >>> 1);
+        for (int j = 0; j < dimension; j++) {
+            int value = 0;
+            for (int k = 0; k < BITS; k++) {
+                if (((gray >>> k) & 1L) != 0) {
+                    value ^= direction[j][k];
+                }
+            }
+            x[j] = value;
+        }
+        this.index = index;
+    }
+
+    @Override
+    protected void nextPoint(double[] point, int offset) {
+        if (index >= MAX_INDEX) {
+            throw new IllegalStateException("Sobol sequence exhausted after 2^32 points");
+        }
+        for (int j = 0; j < dimension; j++) {
+            point[offset + j] = (((x[j] ^ shift[j]) & 0xffffffffL) + 0.5) * SCALE;
+        }
+        // the next Gray code differs in the bit of the lowest zero bit of the index
+        int c = Long.numberOfTrailingZeros(~index);
+        if (c < BITS) {
+            for (int j = 0; j < dimension; j++) {
+                x[j] ^= direction[j][c];
+            }
+        }
+        index++;
+    }
+
+    /**
+     * @param parameter {s, a, m_1, ..., m_s}, or an empty array for the first coordinate
+     * @return the BITS direction numbers for the coordinate
+     */
+    private static int[] directionNumbers(int[] parameter) {
+        int[] v = new int[BITS];
+        if (parameter.length == 0) {
+            for (int k = 0; k < BITS; k++) {
+                v[k] = 1 << (BITS - 1 - k);
+            }
+            return v;
+        }
+        int s = parameter[0];
+        int a = parameter[1];
+        for (int k = 0; k < s && k < BITS; k++) {
+            v[k] = parameter[2 + k] << (BITS - 1 - k);
+        }
+        for (int k = s; k < BITS; k++) {
+            v[k] = v[k - s] ^ (v[k - s] >>> s);
+            for (int i = 1; i < s; i++) {
+                if (((a >>> (s - 1 - i)) & 1) != 0) {
+                    v[k] ^= v[k - i];
+                }
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Multiply the direction numbers by a random non singular lower triangular bit matrix:
+     * output bit r (counting from the most significant) is bit r of the input XOR a random
+     * subset of the more significant input bits.
+     */
+    private static void scramble(int[] v, RandomNumberGenerator randomNumberGenerator) {
+        int[] rows = new int[BITS];
+        for (int r = 0; r < BITS; r++) {
+            int bit = 1 << (BITS - 1 - r);
+            int higher = r == 0 ? 0 : (int) (0xffffffffL << (BITS - r));
+            rows[r] = bit | ((int) randomNumberGenerator.getUInt() & higher);
+        }
+        for (int k = 0; k < BITS; k++) {
+            int scrambled = 0;
+            for (int r = 0; r < BITS; r++) {
+                if ((Integer.bitCount(v[k] & rows[r]) & 1) != 0) {
+                    scrambled |= 1 << (BITS - 1 - r);
+                }
+            }
+            v[k] = scrambled;
+        }
+    }
+
+    /**
+     * Lazily loaded primitive polynomials and initial direction numbers, shared by all
+     * sequences.
+     */
+    static final class DirectionNumbers {
+
+        private static List<int[]> parameters = null;
+
+        /**
+         * @return {s, a, m_1, ..., m_s} for each of the first dimension coordinates
+         */
+        static synchronized List<int[]> get(int dimension) {
+            if (parameters == null) {
+                parameters = load();
+            }
+            if (parameters.size() < dimension) {
+                extend(parameters, dimension);
+            }
+            return parameters;
+        }
+
+        private static List<int[]> load() {
+            List<int[]> list = new ArrayList<int[]>();
+            list.add(new int[0]);
+            InputStream in = SobolSequence.class.getResourceAsStream(RESOURCE);
+            if (in == null) {
+                throw new IllegalStateException("Missing Sobol direction numbers: " + RESOURCE);
+            }
+            try {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, "US-ASCII"));
+                String line = reader.readLine(); // header: d s a m_i
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.trim().split("\\s+");
+                    if (fields.length < 4) {
+                        continue;
+                    }
+                    int s = Integer.parseInt(fields[1]);
+                    int[] parameter = new int[s + 2];
+                    parameter[0] = s;
+                    parameter[1] = Integer.parseInt(fields[2]);
+                    for (int k = 0; k < s; k++) {
+                        parameter[2 + k] = Integer.parseInt(fields[3 + k]);
+                    }
+                    list.add(parameter);
+                }
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("Unable to read Sobol direction numbers", e);
+            }
+            finally {
+                try {
+                    in.close();
+                }
+                catch (IOException ignored) {
+                    // nothing to do
+                }
+            }
+            return list;
+        }
+
+        /**
+         * Continue the Joe and Kuo ordering of primitive polynomials (by degree, then by
+         * coefficients), choosing odd initial direction numbers m_k < 2^k pseudo-randomly.
+         */
+        private static void extend(List<int[]> list, int dimension) {
+            int[] last = list.get(list.size() - 1);
+            int s = last[0];
+            int a = last[1] + 1;
+            long state = 0x9E3779B97F4A7C15L;
+            while (list.size() < dimension) {
+                if (a >= (1 << (s - 1))) {
+                    s++;
+                    a = 0;
+                }
+                if (isPrimitive(s, a)) {
+                    int[] parameter = new int[s + 2];
+                    parameter[0] = s;
+                    parameter[1] = a;
+                    for (int k = 1; k <= s; k++) {
+                        // xorshift64*
+                        state ^= state >>> 12;
+                        state ^= state << 25;
+                        state ^= state >>> 27;
+                        long random = (state * 0x2545F4914F6CDD1DL) >>> 33;
+                        parameter[1 + k] = (int) ((random % (1L << (k - 1))) * 2 + 1);
+                    }
+                    list.add(parameter);
+                }
+                a++;
+            }
+        }
+
+        /**
+         * @param s degree
+         * @param a the inner coefficients, most significant bit for x^(s-1)
+         * @return true if x^s + a(x) + 1 is primitive over GF(2)
+         */
+        static boolean isPrimitive(int s, int a) {
+            long polynomial = (1L << s) | ((long) a << 1) | 1L;
+            long order = (1L << s) - 1;
+            if (powerOfX(order, polynomial, s) != 1L) {
+                return false;
+            }
+            long remaining = order;
+            for (long q = 2; q * q <= remaining; q++) {
+                if (remaining % q == 0) {
+                    if (powerOfX(order / q, polynomial, s) == 1L) {
+                        return false;
+                    }
+                    while (remaining % q == 0) {
+                        remaining /= q;
+                    }
+                }
+            }
+            return remaining == 1 || order == remaining ||
+                powerOfX(order / remaining, polynomial, s) != 1L;
+        }
+
+        /**
+         * @return x^e modulo the polynomial, over GF(2)
+         */
+        private static long powerOfX(long e, long polynomial, int s) {
+            long result = 1L;
+            long base = 2L; // x
+            if (s == 1) {
+                base = 1L; // x = 1 modulo x + 1
+            }
+            while (e > 0) {
+                if ((e & 1L) != 0) {
+                    result = multiply(result, base, polynomial, s);
+                }
+                base = multiply(base, base, polynomial, s);
+                e >>>= 1;
+            }
+            return result;
+        }
+
+        private static long multiply(long a, long b, long polynomial, int s) {
+            long result = 0L;
+            while (b != 0) {
+                if ((b & 1L) != 0) {
+                    result ^= a;
+                }
+                b >>>= 1;
+                a <<= 1;
+                if (((a >>> s) & 1L) != 0) {
+                    a ^= polynomial;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Student's t-distribution with the given degrees of freedom; samples come from a
+ * StudentTSampler.
+ * see: http://en.wikipedia.org/wiki/Student%27s_t-distribution
+ * <p/>
+ * The cdf uses the regularized incomplete beta function, with closed forms for one and two
+ * degrees of freedom. The quantile function inverts the same relations with
+ * Beta.inverseRegularizedBeta, solving for df / (df + t^2) in the tails and for
+ * t^2 / (df + t^2) near the center, so that both keep their precision; one and two degrees
+ * of freedom again have closed forms.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class StudentTDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = 1370734436719558412L;
+
+    private final double degreesOfFreedom;
+    private final StudentTSampler sampler;
+    private final double logNormalizer;
+
+    /**
+     * @param degreesOfFreedom must be positive
+     */
+    public StudentTDistribution(double degreesOfFreedom) {
+        this.sampler = new StudentTSampler(degreesOfFreedom);
+        this.degreesOfFreedom = degreesOfFreedom;
+        this.logNormalizer = Gamma.logGamma(0.5 * (degreesOfFreedom + 1.0))
+            - Gamma.logGamma(0.5 * degreesOfFreedom)
+            - 0.5 * Math.log(degreesOfFreedom * Math.PI);
+    }
+
+    public double getDegreesOfFreedom() {
+        return degreesOfFreedom;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return sampler.sample(randomNumberGenerator);
+    }
+
+    @Override
+    public void fill(RandomNumberGenerator randomNumberGenerator, double[] values,
+                     int from, int to) {
+        sampler.fill(randomNumberGenerator, values, from, to);
+    }
+
+    @Override
+    public double pdf(double x) {
+        return Math.exp(logNormalizer - 0.5 * (degreesOfFreedom + 1.0) *
+            Math.log1p(x * x / degreesOfFreedom));
+    }
+
+    @Override
+    public double cdf(double x) {
+        // in the closed forms the lower tail is written so that it does not cancel
+        if (degreesOfFreedom == 1.0) {
+            return (x < 0.0) ? Math.atan(-1.0 / x) / Math.PI : 0.5 + Math.atan(x) / Math.PI;
+        }
+        if (degreesOfFreedom == 2.0) {
+            double s = Math.sqrt(2.0 + x * x);
+            return (x < 0.0) ? 1.0 / (s * (s - x)) : 0.5 + x / (2.0 * s);
+        }
+        double t2 = x * x;
+        double half = 0.5 * degreesOfFreedom;
+        if (x >= 0.0 && t2 < degreesOfFreedom) {
+            // central region: P(|T| < x) = I_{x^2 / (df + x^2)}(1/2, df/2); the lower side
+            // uses the tail below, as 1/2 minus this would cancel
+            double central = 0.5 * Beta.regularizedBeta(t2 / (degreesOfFreedom + t2), 0.5, half);
+            return 0.5 + central;
+        }
+        // tails: P(T < -|x|) = I_{df / (df + x^2)}(df/2, 1/2) / 2
+        double tail = 0.5 * Beta.regularizedBeta(degreesOfFreedom / (degreesOfFreedom + t2),
+                                                 half, 0.5);
+        return (x < 0.0) ? tail : 1.0 - tail;
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        if (p == 0.0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (p == 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (degreesOfFreedom == 1.0) {
+            // p - 1/2 is exact near the center; in the tails tan(pi (p - 1/2)) would lose the
+            // low bits of p, so use cot(pi p) instead, with 1 - p exact above 3/4
+            if (p < 0.25) {
+                return -1.0 / Math.tan(Math.PI * p);
+            }
+            if (p > 0.75) {
+                return 1.0 / Math.tan(Math.PI * (1.0 - p));
+            }
+            return Math.tan(Math.PI * (p - 0.5));
+        }
+        if (degreesOfFreedom == 2.0) {
+            double alpha = 4.0 * p * (1.0 - p);
+            return 2.0 * (p - 0.5) * Math.sqrt(2.0 / alpha);
+        }
+        // P(T < -|t|) = tail, with 2 tail = I_{df / (df + t^2)}(df/2, 1/2)
+        double tail = (p < 0.5) ? p : 1.0 - p;
+        double half = 0.5 * degreesOfFreedom;
+        double t;
+        if (tail <= 0.25) {
+            double x = Beta.inverseLowerTail(2.0 * tail, half, 0.5);
+            t = Math.sqrt(degreesOfFreedom * ((1.0 - x) / x));
+        }
+        else {
+            // near the center: 1 - 2 tail = I_{t^2 / (df + t^2)}(1/2, df/2)
+            double y = Beta.inverseLowerTail(2.0 * (0.5 - tail), 0.5, half);
+            t = Math.sqrt(degreesOfFreedom * (y / (1.0 - y)));
+        }
+        return (p < 0.5) ? -t : t;
+    }
+}
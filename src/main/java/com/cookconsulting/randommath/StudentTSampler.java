@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.io.Serializable;
+
+/**
+ * Reusable sampler for the Student's t-distribution with a fixed number of degrees of freedom.
+ * <p/>
+ * Rather than dividing a normal sample by the square root of a chi square sample (which costs
+ * a Box-Muller normal plus a full gamma draw with its own rejection loop), this class uses
+ * Bailey's polar method: a point (u, v) is drawn uniformly from the unit disc and transformed
+ * directly into a t variate. The acceptance rate of the disc is pi / 4, so on average only
+ * 2.55 uniforms and one call to Math.pow are needed per sample.
+ * <p/>
+ * Bailey, R. W. "Polar Generation of Random Variates with the t-Distribution"
+ * Mathematics of Computation, Vol 62, No 206, April 1994, pages 779-781.
+ * <p/>
+ * Instances are immutable, so one sampler may be shared across threads provided each
+ * thread uses its own RandomNumberGenerator.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class StudentTSampler implements Serializable {
+
+    private static final long serialVersionUID = -3160468125837046155L;
+
+    private final double degreesOfFreedom;
+    // -2 / degreesOfFreedom, the exponent applied to the squared radius
+    private final double exponent;
+
+    /**
+     * @param degreesOfFreedom must be positive
+     */
+    public StudentTSampler(double degreesOfFreedom) {
+        if (degreesOfFreedom <= 0) {
+            String msg = String.format("Degrees of freedom must be positive. Received %f.",
+                                       degreesOfFreedom);
+            throw new IllegalArgumentException(msg);
+        }
+        this.degreesOfFreedom = degreesOfFreedom;
+        this.exponent = -2.0 / degreesOfFreedom;
+    }
+
+    public double getDegreesOfFreedom() {
+        return degreesOfFreedom;
+    }
+
+    /**
+     * @param randomNumberGenerator source of uniforms
+     * @return a Student's t random sample
+     */
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return polar(randomNumberGenerator, degreesOfFreedom, exponent);
+    }
+
+    /**
+     * Fill the array with Student's t random samples
+     *
+     * @param randomNumberGenerator source of uniforms
+     * @param values                the array to fill
+     */
+    public void fill(RandomNumberGenerator randomNumberGenerator, double[] values) {
+        fill(randomNumberGenerator, values, 0, values.length);
+    }
+
+    /**
+     * Fill the range [from, to) of the array with Student's t random samples
+     *
+     * @param randomNumberGenerator source of uniforms
+     * @param values                the array to fill
+     * @param from                  first index to fill, inclusive
+     * @param to                    last index to fill, exclusive
+     */
+    public void fill(RandomNumberGenerator randomNumberGenerator, double[] values,
+                     int from, int to) {
+        final double df = degreesOfFreedom;
+        final double e = exponent;
+        for (int i = from; i < to; i++) {
+            values[i] = polar(randomNumberGenerator, df, e);
+        }
+    }
+
+    /**
+     * Bailey's polar method; the parameters are not checked.
+     *
+     * @param randomNumberGenerator source of uniforms
+     * @param degreesOfFreedom      must be positive
+     * @param exponent              -2 / degreesOfFreedom
+     * @return
+     */
+    static double polar(RandomNumberGenerator randomNumberGenerator, double degreesOfFreedom,
+                        double exponent) {
+        double u, v, w;
+        do {
+            u = 2.0 * RandomNumberFactory.uniform(randomNumberGenerator) - 1.0;
+            v = 2.0 * RandomNumberFactory.uniform(randomNumberGenerator) - 1.0;
+            w = u * u + v * v;
+        }
+        while (w >= 1.0 || w == 0.0);
+        return u * Math.sqrt(degreesOfFreedom * (Math.pow(w, exponent) - 1.0) / w);
+    }
+}
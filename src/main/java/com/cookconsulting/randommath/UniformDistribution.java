@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Continuous uniform distribution on the interval (lower, upper).
+ * see: http://en.wikipedia.org/wiki/Uniform_distribution_(continuous)
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class UniformDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = 3001837458612003711L;
+
+    private final double lower;
+    private final double upper;
+    private final double width;
+
+    public UniformDistribution() {
+        this(0.0, 1.0);
+    }
+
+    /**
+     * @param lower
+     * @param upper must be greater than lower
+     */
+    public UniformDistribution(double lower, double upper) {
+        if (!(upper > lower)) {
+            String msg = String.format("Upper bound must be greater than lower bound. " +
+                                           "Received lower %f and upper %f.", lower, upper);
+            throw new IllegalArgumentException(msg);
+        }
+        this.lower = lower;
+        this.upper = upper;
+        this.width = upper - lower;
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return lower + width * RandomNumberFactory.uniform(randomNumberGenerator);
+    }
+
+    @Override
+    public double pdf(double x) {
+        return (x < lower || x > upper) ? 0.0 : 1.0 / width;
+    }
+
+    @Override
+    public double cdf(double x) {
+        if (x <= lower) {
+            return 0.0;
+        }
+        if (x >= upper) {
+            return 1.0;
+        }
+        return (x - lower) / width;
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        return lower + width * p;
+    }
+}
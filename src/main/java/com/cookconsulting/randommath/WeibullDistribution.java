@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Weibull distribution with the given shape and scale; see RandomNumberFactory.getWeibull
+ * see: http://en.wikipedia.org/wiki/Weibull_distribution
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class WeibullDistribution extends AbstractDistribution {
+
+    private static final long serialVersionUID = 4513593725036227339L;
+
+    private final double shape;
+    private final double scale;
+    private final double inverseShape;
+
+    /**
+     * @param shape must be positive
+     * @param scale must be positive
+     */
+    public WeibullDistribution(double shape, double scale) {
+        checkPositive("Shape", shape);
+        checkPositive("Scale", scale);
+        this.shape = shape;
+        this.scale = scale;
+        this.inverseShape = 1.0 / shape;
+    }
+
+    public double getShape() {
+        return shape;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    public double sample(RandomNumberGenerator randomNumberGenerator) {
+        return scale * Math.pow(-Math.log(RandomNumberFactory.uniform(randomNumberGenerator)),
+                                inverseShape);
+    }
+
+    @Override
+    public double pdf(double x) {
+        if (x < 0.0) {
+            return 0.0;
+        }
+        double z = x / scale;
+        double zk = Math.pow(z, shape);
+        return shape / scale * Math.pow(z, shape - 1.0) * Math.exp(-zk);
+    }
+
+    @Override
+    public double cdf(double x) {
+        return x <= 0.0 ? 0.0 : -Math.expm1(-Math.pow(x / scale, shape));
+    }
+
+    @Override
+    public double quantile(double p) {
+        checkProbability(p);
+        return scale * Math.pow(-Math.log1p(-p), inverseShape);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Weighted random sample without replacement of a fixed number of items from a stream,
+ * using the Efraimidis-Spirakis A-ExpJ algorithm: each item conceptually gets the key
+ * U^(1 / weight) and the items with the largest keys are kept. Instead of a key per item,
+ * the total weight to skip before the next replacement is drawn (exponential jumps), so only
+ * O(k log(n / k)) random numbers are used.
+ * <p/>
+ * Keys are kept as logarithms, log(U) / weight, so very large weights do not underflow.
+ * Independently filled reservoirs can be merged by keeping the largest keys of both.
+ * Instances are not thread safe.
+ * <p/>
+ * see: Efraimidis, P.S. and Spirakis, P.G. Weighted random sampling with a reservoir,
+ * Information Processing Letters 97 (2006) 181-185
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class WeightedReservoirSampler<T> {
+
+    private final int capacity;
+    private final RandomNumberGenerator randomNumberGenerator;
+    /* min heap on key, the root is the replacement threshold */
+    private final PriorityQueue<Entry<T>> reservoir;
+    private long count;
+    /* weight still to be skipped before the next replacement */
+    private double skipWeight;
+
+    /**
+     * @param capacity              number of items to sample, must be positive
+     * @param randomNumberGenerator
+     */
+    public WeightedReservoirSampler(int capacity, RandomNumberGenerator randomNumberGenerator) {
+        if (capacity < 1) {
+            String msg = String.format("Capacity must be positive. Received %d.", capacity);
+            throw new IllegalArgumentException(msg);
+        }
+        this.capacity = capacity;
+        this.randomNumberGenerator = randomNumberGenerator;
+        this.reservoir = new PriorityQueue<Entry<T>>(capacity + 1);
+    }
+
+    /**
+     * Offer the next item of the stream; items of weight zero are counted but never sampled
+     *
+     * @param item
+     * @param weight must be non negative and finite
+     */
+    public void add(T item, double weight) {
+        if (!(weight >= 0.0 && weight < Double.POSITIVE_INFINITY)) {
+            String msg = String.format("Weight must be non negative and finite. Received %f.", weight);
+            throw new IllegalArgumentException(msg);
+        }
+        count++;
+        if (weight == 0.0) {
+            return;
+        }
+        if (reservoir.size() < capacity) {
+            reservoir.add(new Entry<T>(item, Math.log(uniform()) / weight));
+            if (reservoir.size() == capacity) {
+                skipWeight = nextSkipWeight();
+            }
+            return;
+        }
+        skipWeight -= weight;
+        if (skipWeight > 0.0) {
+            return;
+        }
+        // the key of the new item is conditioned to exceed the threshold T: U in (T^w, 1)
+        double tw = Math.exp(weight * reservoir.peek().logKey);
+        double r = tw + (1.0 - tw) * uniform();
+        reservoir.poll();
+        reservoir.add(new Entry<T>(item, Math.log(r) / weight));
+        skipWeight = nextSkipWeight();
+    }
+
+    /**
+     * @return log(U) / log(T) where T is the smallest key in the reservoir
+     */
+    private double nextSkipWeight() {
+        return Math.log(uniform()) / reservoir.peek().logKey;
+    }
+
+    private double uniform() {
+        return RandomNumberFactory.uniform(randomNumberGenerator);
+    }
+
+    /**
+     * @return the number of items offered so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return a copy of the current sample, min(capacity, items of positive weight) items in
+     *         no particular order
+     */
+    public List<T> getSample() {
+        List<T> sample = new ArrayList<T>(reservoir.size());
+        for (Entry<T> entry : reservoir) {
+            sample.add(entry.item);
+        }
+        return sample;
+    }
+
+    /**
+     * Combine the sample of another reservoir, over a disjoint stream, into this one by keeping
+     * the items with the largest keys. The other reservoir is not modified.
+     *
+     * @param other a reservoir of the same capacity
+     */
+    public void merge(WeightedReservoirSampler<? extends T> other) {
+        if (other.capacity != capacity) {
+            String msg = String.format("Cannot merge reservoirs of capacity %d and %d.",
+                                       capacity, other.capacity);
+            throw new IllegalArgumentException(msg);
+        }
+        for (Entry<? extends T> entry : other.reservoir) {
+            reservoir.add(new Entry<T>(entry.item, entry.logKey));
+            if (reservoir.size() > capacity) {
+                reservoir.poll();
+            }
+        }
+        count += other.count;
+        // the jump is memoryless, so it can be redrawn from the new threshold
+        if (reservoir.size() == capacity) {
+            skipWeight = nextSkipWeight();
+        }
+    }
+
+    private static final class Entry<T> implements Comparable<Entry<T>> {
+
+        private final T item;
+        private final double logKey;
+
+        private Entry(T item, double logKey) {
+            this.item = item;
+            this.logKey = logKey;
+        }
+
+        @Override
+        public int compareTo(Entry<T> other) {
+            return Double.compare(logKey, other.logKey);
+        }
+    }
+}
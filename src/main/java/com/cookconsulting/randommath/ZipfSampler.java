@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2011, Todd Cook.
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without modification,
+ *  are permitted provided that the following conditions are met:
+ *
+ *      * Redistributions of source code must retain the above copyright notice,
+ *        this list of conditions and the following disclaimer.
+ *      * Redistributions in binary form must reproduce the above copyright notice,
+ *        this list of conditions and the following disclaimer in the documentation
+ *        and/or other materials provided with the distribution.
+ *      * Neither the name of the <ORGANIZATION> nor the names of its contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ *  ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ *  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ *  DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ *  FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ *  DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ *  SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ *  CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ *  OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ *  OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.cookconsulting.randommath;
+
+/**
+ * Zipf distribution: P(k) proportional to 1 / k^exponent for k = 1, 2, ..., numberOfElements,
+ * or for all positive k (the zeta distribution) when no bound is given and exponent &gt; 1.
+ * see: http://en.wikipedia.org/wiki/Zipf's_law
+ * <p/>
+ * Samples use Hormann and Derflinger's rejection-inversion: a continuous hat function
+ * h(x) = x^-exponent is inverted, and the integer nearest to the result is accepted when it
+ * falls under the hat, which it almost always does. No table is built, so memory is constant
+ * and the expected time is bounded for every exponent and any number of elements.
+ * <p/>
+ * see: Hormann, W. and Derflinger, G. Rejection-inversion to generate variates from monotone
+ * discrete distributions, ACM Transactions on Modeling and Computer Simulation,
+ * Vol 6, No 3, 1996, pp 169-184
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class ZipfSampler extends AbstractDiscreteSampler {
+
+    private static final long serialVersionUID = 7216431640961457720L;
+
+    private final long numberOfElements;
+    private final double exponent;
+    /* H(1.5) - 1 */
+    private final double hIntegralX1;
+    /* H(numberOfElements + 0.5), or its limit for the zeta distribution */
+    private final double hIntegralNumberOfElements;
+    /* squeeze: k - x <= s guarantees acceptance */
+    private final double s;
+
+    /**
+     * Zeta distribution, unbounded support
+     *
+     * @param exponent must be greater than 1
+     */
+    public ZipfSampler(double exponent) {
+        this(Long.MAX_VALUE, exponent, true);
+    }
+
+    /**
+     * @param numberOfElements must be positive
+     * @param exponent         must not be negative
+     */
+    public ZipfSampler(long numberOfElements, double exponent) {
+        this(numberOfElements, exponent, false);
+    }
+
+    private ZipfSampler(long numberOfElements, double exponent, boolean unbounded) {
+        if (numberOfElements < 1) {
+            String msg = String.format("Number of elements must be positive. Received %d.",
+                                       numberOfElements);
+            throw new IllegalArgumentException(msg);
+        }
+        if (unbounded ? !(exponent > 1.0) : !(exponent >= 0.0)) {
+            String msg = String.format("Exponent must be %s. Received %f.",
+                                       unbounded ? "greater than 1" : "non negative", exponent);
+            throw new IllegalArgumentException(msg);
+        }
+        this.numberOfElements = numberOfElements;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralNumberOfElements = unbounded ? 1.0 / (exponent - 1.0) :
+            hIntegral(numberOfElements + 0.5);
+        this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+    }
+
+    public long getNumberOfElements() {
+        return numberOfElements;
+    }
+
+    public double getExponent() {
+        return exponent;
+    }
+
+    @Override
+    public long sample(RandomNumberGenerator randomNumberGenerator) {
+        while (true) {
+            double u = hIntegralNumberOfElements + RandomNumberFactory.uniform(randomNumberGenerator) *
+                (hIntegralX1 - hIntegralNumberOfElements);
+            double x = hIntegralInverse(u);
+            // the cast saturates at Long.MAX_VALUE
+            long k = (long) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            }
+            else if (k > numberOfElements) {
+                k = numberOfElements;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * H(x) = (x^(1 - exponent) - 1) / (1 - exponent), the integral of h from 1 to x,
+     * computed without cancellation when the exponent is close to 1
+     */
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1.0 - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1.0 - exponent);
+        if (t < -1.0) {
+            // limit rounding errors near the pole
+            t = -1.0;
+        }
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    /**
+     * @return log(1 + x) / x, 1 at 0
+     */
+    static double log1pOverX(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    /**
+     * @return (exp(x) - 1) / x, 1 at 0
+     */
+    static double expm1OverX(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1.0 + x * 0.5 * (1.0 + x / 3.0 * (1.0 + 0.25 * x));
+    }
+}
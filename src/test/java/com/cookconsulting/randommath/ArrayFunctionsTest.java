@@ -0,0 +1,110 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The array versions of the special functions must agree with the scalar versions, return
+ * NaN instead of throwing, and give the same results when evaluated in parallel.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class ArrayFunctionsTest {
+
+    private static double[] grid(double from, double to, int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = from + (to - from) * i / (n - 1);
+        }
+        return values;
+    }
+
+    @Test
+    public void testMatchesScalar() {
+        double[] x = grid(-8.0, 8.0, 10001);
+        double[] out = new double[x.length];
+        Erf.erf(x, out, 0, x.length);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(Erf.erf(x[i]), out[i], 0.0);
+        }
+        Erf.erfc(x, out, 0, x.length);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(Erf.erfc(x[i]), out[i], 0.0);
+        }
+        Phi.phi(x, out, 0, x.length);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(Phi.phi(x[i]), out[i], 0.0);
+        }
+        Expm1.expm1(x, out, 0, x.length);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(Expm1.expm1(x[i]), out[i], 0.0);
+        }
+        double[] positive = grid(0.01, 170.0, 10001);
+        Gamma.gamma(positive, out, 0, positive.length);
+        for (int i = 0; i < positive.length; i++) {
+            assertEquals(Gamma.gamma(positive[i]), out[i], 0.0);
+        }
+        Gamma.logGamma(positive, out, 0, positive.length);
+        for (int i = 0; i < positive.length; i++) {
+            assertEquals(Gamma.logGamma(positive[i]), out[i], 0.0);
+        }
+        double[] p = grid(0.0001, 0.9999, 10001);
+        NormalCDFInverse.normalCDFInverse(p, out, 0, p.length);
+        for (int i = 0; i < p.length; i++) {
+            assertEquals(NormalCDFInverse.normalCDFInverse(p[i]), out[i], 0.0);
+        }
+        int[] n = {0, 1, 10, 254, 255, 100000};
+        double[] logFactorials = new double[n.length];
+        LogFactorial.logFactorial(n, logFactorials, 0, n.length);
+        for (int i = 0; i < n.length; i++) {
+            assertEquals(LogFactorial.logFactorial(n[i]), logFactorials[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testInvalidArgumentsGiveNaN() {
+        double[] x = {-1.0, 0.0, 2.0};
+        double[] out = new double[x.length];
+        Gamma.gamma(x, out, 0, x.length);
+        assertTrue(Double.isNaN(out[0]) && Double.isNaN(out[1]));
+        assertEquals(1.0, out[2], 1e-12);
+        Gamma.logGamma(x, out, 0, x.length);
+        assertTrue(Double.isNaN(out[0]) && Double.isNaN(out[1]));
+        double[] p = {-0.5, 0.0, 1.0, Double.NaN};
+        out = new double[p.length];
+        NormalCDFInverse.normalCDFInverse(p, out, 0, p.length);
+        assertTrue(Double.isNaN(out[0]));
+        assertEquals(Double.NEGATIVE_INFINITY, out[1], 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, out[2], 0.0);
+        assertTrue(Double.isNaN(out[3]));
+        double[] logFactorials = new double[1];
+        LogFactorial.logFactorial(new int[]{-3}, logFactorials, 0, 1);
+        assertTrue(Double.isNaN(logFactorials[0]));
+    }
+
+    @Test
+    public void testParallel() {
+        double[] x = grid(-10.0, 10.0, 1000003);
+        double[] sequential = new double[x.length];
+        double[] parallel = new double[x.length];
+        ArrayFunction[] functions = {ArrayFunctions.ERF, ArrayFunctions.ERFC, ArrayFunctions.PHI,
+            ArrayFunctions.EXPM1, ArrayFunctions.LOG_GAMMA};
+        for (ArrayFunction function : functions) {
+            function.apply(x, sequential, 0, x.length);
+            ArrayFunctions.parallel(function, x, parallel);
+            for (int i = 0; i < x.length; i++) {
+                assertEquals(sequential[i], parallel[i], 0.0);
+            }
+        }
+        // in place
+        double[] copy = x.clone();
+        ArrayFunctions.parallel(ArrayFunctions.ERF, copy, copy);
+        ArrayFunctions.ERF.apply(x, sequential, 0, x.length);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(sequential[i], copy[i], 0.0);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.cookconsulting.randommath;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Timings of the fast paths, kept out of the unit tests (whose names end in Test) so that
+ * the build does not spend its time on them. Run the main method with the test classpath;
+ * each figure is the best of several rounds after a warm up, in nanoseconds per call.
+ * <p/>
+ * Arguments are drawn in random order, so that branches are not predicted better than in
+ * real use. Every function is called through UnivariateFunction, which adds the same small
+ * dispatch cost to each. Polynomial latencies chain each argument to the previous result
+ * instead, so that calls cannot overlap.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public final class Benchmarks {
+
+    private static final int POINTS = 1 << 20;
+    private static final int WARM_UP = 3;
+    private static final int ROUNDS = 5;
+
+    /* accumulates every result, so that no call can be optimized away */
+    private static double checksum;
+
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args) {
+        chebyshevApproximations();
+        polynomials();
+        regularizedGamma();
+        functionCache();
+        chiSquaredTable();
+        goodnessOfFit();
+        System.out.println(String.format("checksum %g", checksum));
+    }
+
+    private static double[] uniform(double from, double to, int n, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = from + (to - from) * random.nextDouble();
+        }
+        return values;
+    }
+
+    /**
+     * @return the best time over the rounds, in nanoseconds per argument
+     */
+    private static double time(UnivariateFunction function, double[] arguments) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+            double sum = 0.0;
+            long start = System.nanoTime();
+            for (double x : arguments) {
+                sum += function.value(x);
+            }
+            long elapsed = System.nanoTime() - start;
+            checksum += sum;
+            if (round >= WARM_UP) {
+                best = Math.min(best, elapsed / (double) arguments.length);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * logGamma and Phi against their ChebyshevApproximation variants
+     */
+    private static void chebyshevApproximations() {
+        double[] positive = uniform(0.5, 12.0, POINTS, 1L);
+        double[] normal = uniform(-4.0, 4.0, POINTS, 2L);
+        double logGamma = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Gamma.logGamma(x);
+            }
+        }, positive);
+        double logGammaFast = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Gamma.logGammaFast(x);
+            }
+        }, positive);
+        double phi = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Phi.phi(x);
+            }
+        }, normal);
+        double phiFast = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Phi.phiFast(x);
+            }
+        }, normal);
+        System.out.println(String.format("ChebyshevApproximation: ns per call logGamma %.1f / " +
+                                             "%.1f, phi %.1f / %.1f (original / fast)",
+                                         logGamma, logGammaFast, phi, phiFast));
+    }
+
+    /**
+     * @return the best time over the rounds, in nanoseconds per call, of a degree 8 polynomial
+     *         whose argument depends on the previous result
+     */
+    private static double latency(UnivariateFunction polynomial) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+            double x = 0.3;
+            long start = System.nanoTime();
+            for (int i = 0; i < POINTS; i++) {
+                x = 0.3 + polynomial.value(x) * 1e-20;
+            }
+            long elapsed = System.nanoTime() - start;
+            checksum += x;
+            if (round >= WARM_UP) {
+                best = Math.min(best, elapsed / (double) POINTS);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * the evaluation schemes of Polynomials, and the special functions built with them
+     */
+    private static void polynomials() {
+        final double[] c = {1.0, -0.5, 1.0 / 6, -1.0 / 24, 1.0 / 120, -1.0 / 720, 1.0 / 5040,
+            -1.0 / 40320, 1.0 / 362880};
+        double horner = latency(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Polynomials.horner(c, x);
+            }
+        });
+        double estrin = latency(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Polynomials.estrin(c, x);
+            }
+        });
+        double evenOdd = latency(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Polynomials.evenOdd(c, x);
+            }
+        });
+        double special = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Erf.erfc(x * 4.0) + NormalCDFInverse.normalCDFInverse(x) +
+                    Gamma.gamma(0.5 + x * 5.0);
+            }
+        }, uniform(0.0, 1.0, POINTS, 3L));
+        System.out.println(String.format("Polynomials: ns per degree 8 evaluation: Horner %.2f, " +
+                                             "Estrin %.2f, even / odd %.2f; erfc + Phi inverse " +
+                                             "+ gamma %.1f", horner, estrin, evenOdd, special));
+    }
+
+    /**
+     * the quadrature branch of the regularized gamma functions does not slow down as a grows
+     */
+    private static void regularizedGamma() {
+        double small = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Gamma.regularizedGammaP(1e3, 1e3 + x);
+            }
+        }, uniform(-50.0, 50.0, POINTS >> 4, 4L));
+        double large = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Gamma.regularizedGammaP(1e7, 1e7 + 30.0 * x);
+            }
+        }, uniform(-50.0, 50.0, POINTS >> 4, 5L));
+        System.out.println(String.format("RegularizedGamma: ns per call a = 1e3 %.1f, " +
+                                             "a = 1e7 %.1f", small, large));
+    }
+
+    /**
+     * logGamma at recurring half integers, computed directly and through FunctionCache
+     */
+    private static void functionCache() {
+        double[] halves = new double[POINTS];
+        Random random = new Random(6L);
+        for (int i = 0; i < POINTS; i++) {
+            halves[i] = 0.5 + random.nextInt(128) * 0.5;
+        }
+        final FunctionCache cache = FunctionCache.logGamma();
+        double direct = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return Gamma.logGamma(x);
+            }
+        }, halves);
+        double cached = time(cache, halves);
+        System.out.println(String.format("FunctionCache: ns per logGamma call at half integers " +
+                                             "direct %.1f, cached %.1f; hit rate %.4f",
+                                         direct, cached, cache.getHitRate()));
+    }
+
+    /**
+     * building rows of ChiSquaredTable, looking them up, and the p-values beside them
+     */
+    private static void chiSquaredTable() {
+        for (int df : new int[]{1000, 10000}) {
+            long start = System.nanoTime();
+            ChiSquaredTable cst = new ChiSquaredTable.Builder().degreesOfFreedom(df).build();
+            for (int i = 1; i <= df; i++) {
+                cst.getChiSquaredForDegreesOfFreedom(i);
+            }
+            System.out.println(String.format("ChiSquaredTable: rows up to %d degrees of " +
+                                                 "freedom computed in %.1f ms",
+                                             df, (System.nanoTime() - start) / 1e6));
+        }
+        long start = System.nanoTime();
+        new ChiSquaredTable.Builder().degreesOfFreedom(1000000).build();
+        System.out.println(String.format("ChiSquaredTable: 1000000 degrees of freedom built " +
+                                             "in %.3f ms", (System.nanoTime() - start) / 1e6));
+
+        final ChiSquaredTable cst = new ChiSquaredTable.Builder().degreesOfFreedom(100).build();
+        final double[] percentages = {0.995, 0.5, 0.05, 0.01};
+        double[] indices = new double[POINTS];
+        Random random = new Random(7L);
+        for (int i = 0; i < POINTS; i++) {
+            indices[i] = random.nextInt(100 * 64);
+        }
+        double lookup = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                int i = (int) x;
+                return cst.getChiSquared(1 + i % 100, percentages[i & 3]);
+            }
+        }, indices);
+        double pValue = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                int i = (int) x;
+                return ChiSquaredTable.getPValue(1 + i % 100, (i & 63) * 2.0);
+            }
+        }, indices);
+
+        int n = 10000;
+        double[] df = new double[n];
+        double[] x = new double[n];
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) {
+            df[i] = 1 + i % 500;
+            x[i] = df[i] * (0.5 + (i % 7) * 0.25);
+        }
+        double bulk = Double.POSITIVE_INFINITY;
+        for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+            start = System.nanoTime();
+            ChiSquaredTable.getPValues(df, x, out);
+            long elapsed = System.nanoTime() - start;
+            checksum += out[n - 1];
+            if (round >= WARM_UP) {
+                bulk = Math.min(bulk, elapsed / (double) n);
+            }
+        }
+        System.out.println(String.format("ChiSquaredTable: ns per getChiSquared %.1f, " +
+                                             "getPValue %.1f, getPValues %.1f",
+                                         lookup, pValue, bulk));
+    }
+
+    /**
+     * the chi square of 11 categories from GoodnessOfFitAccumulator and from the maps given to
+     * ChiSquaredTable
+     */
+    private static void goodnessOfFit() {
+        final Map<Integer, Double> probabilities = DiceSimulation.create2DiceProbabilites();
+        final GoodnessOfFitAccumulator gof = new GoodnessOfFitAccumulator(probabilities);
+        Random random = new Random(8L);
+        final Map<Integer, Integer> actual = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 1800; i++) {
+            int roll = random.nextInt(6) + random.nextInt(6) + 2;
+            gof.add(roll);
+            Integer count = actual.get(roll);
+            actual.put(roll, (count == null) ? 1 : count + 1);
+        }
+        final ChiSquaredTable cst = new ChiSquaredTable.Builder().build();
+        double[] calls = new double[POINTS >> 3];
+        double accumulator = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return gof.chiSquared();
+            }
+        }, calls);
+        double maps = time(new UnivariateFunction() {
+            @Override
+            public double value(double x) {
+                return cst.calculateChiSquared(probabilities, actual, 1800);
+            }
+        }, calls);
+        System.out.println(String.format("GoodnessOfFitAccumulator: ns per chi square of 11 " +
+                                             "categories: accumulator %.1f, maps %.1f",
+                                         accumulator, maps));
+    }
+}
@@ -0,0 +1,140 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The beta function and the regularized incomplete beta function, against values computed
+ * to 100 digits from binomial sums, I_x(a, b) = P(Binomial(a + b - 1, x) >= a).
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class BetaTest {
+
+    // x, a, b, I_x(a, b), 1 - I_x(a, b)
+    private static final double[][] VALUES = {
+        {0.05, 2, 3, 0.014018750000000002, 0.98598125},
+        {0.8, 2, 3, 0.9728, 0.027199999999999985},
+        {0.3, 5, 1, 0.0024299999999999994, 0.99757},
+        {0.147048, 1, 7, 0.6715478242551026, 0.3284521757448973},
+        {0.3, 10, 10, 0.03255335688130095, 0.9674466431186991},
+        {0.827327, 10, 10, 0.9995266683597069, 0.0004733316402930689},
+        {0.05, 30, 4, 4.378838930279024e-36, 1.0},
+        {0.718973, 30, 4, 0.007855381545469426, 0.9921446184545306},
+        {0.001, 4, 60, 5.682181360331661e-07, 0.999999431781864},
+        {0.0685048, 4, 60, 0.6340562473515174, 0.36594375264848256},
+        {0.05, 150, 150, 1.661301606154013e-110, 1.0},
+        {0.413541, 150, 150, 0.0012837165704944454, 0.9987162834295056},
+        {0.175393, 120, 400, 0.0007373381842447968, 0.9992626618157552},
+        {0.25, 1000, 3000, 0.502427980892099, 0.497572019107901},
+        {0.113086, 1000, 3000, 1.693910064827514e-128, 1.0},
+        {0.485001, 5000, 5000, 0.0013481255195939186, 0.998651874480406},
+        {0.00646391, 100, 20000, 0.9972627406491195, 0.0027372593508804897},
+        {0.00507438, 100, 20000, 0.5916257744276741, 0.40837422557232594}};
+
+    @Test
+    public void testReferenceValues() {
+        double maxError = 0.0;
+        for (double[] row : VALUES) {
+            double value = Beta.regularizedBeta(row[0], row[1], row[2]);
+            double error = Math.abs(value - row[3]) / row[3];
+            maxError = Math.max(maxError, error);
+            assertTrue("x " + row[0] + " a " + row[1] + " b " + row[2] + " error " + error,
+                       error < 5e-13);
+            // symmetry I_x(a, b) = 1 - I_{1-x}(b, a)
+            assertEquals(row[4], Beta.regularizedBeta(1.0 - row[0], row[2], row[1]),
+                         5e-13 * row[4]);
+        }
+        System.out.println("Beta: max relative error: " + maxError);
+    }
+
+    @Test
+    public void testLogBeta() {
+        // B(2, 3) = 1 / 12, B(1/2, 1/2) = pi
+        assertEquals(-Math.log(12.0), Beta.logBeta(2.0, 3.0), 1e-15);
+        assertEquals(Math.log(Math.PI), Beta.logBeta(0.5, 0.5), 1e-14);
+        // log B(a, b) = log Gamma(a) + log Gamma(b) - log Gamma(a + b) away from cancellation
+        double[][] pairs = {{0.3, 7.5}, {3.0, 40.0}, {20.0, 25.0}, {0.5, 500.0}};
+        for (double[] pair : pairs) {
+            double expected = Gamma.logGamma(pair[0]) + Gamma.logGamma(pair[1]) -
+                Gamma.logGamma(pair[0] + pair[1]);
+            assertEquals(expected, Beta.logBeta(pair[0], pair[1]), 1e-11 * Math.abs(expected));
+            assertEquals(Beta.logBeta(pair[0], pair[1]), Beta.logBeta(pair[1], pair[0]), 0.0);
+        }
+        // B(n, 1) = 1 / n, exercising the large parameter branches
+        assertEquals(-Math.log(1e6), Beta.logBeta(1e6, 1.0), 1e-12);
+        // log C(n, k) = -log((n + 1) B(k + 1, n - k + 1))
+        double logChoose = -Math.log(20001.0) - Beta.logBeta(7001.0, 13001.0);
+        assertEquals(12943.80238675512, logChoose, 1e-13 * 12943.8);
+    }
+
+    @Test
+    public void testInverse() {
+        for (double[] row : VALUES) {
+            double x = row[0], a = row[1], b = row[2];
+            // lower tails down to 1e-128 and upper tails both come back to x
+            assertEquals(x, Beta.inverseRegularizedBeta(row[3], a, b), 1e-10 * x);
+            if (row[4] < 1.0) {
+                assertEquals(1.0 - x, Beta.inverseRegularizedBeta(row[4], b, a),
+                             1e-10 * (1.0 - x));
+            }
+        }
+        double[][] shapes = {{0.1, 0.1}, {0.5, 3.0}, {2.0, 0.3}, {1.0, 1.0}, {25.0, 4.0},
+                             {400.0, 600.0}};
+        for (double[] shape : shapes) {
+            for (double p : new double[]{1e-20, 1e-6, 0.01, 0.3, 0.5, 0.7, 0.99}) {
+                double x = Beta.inverseRegularizedBeta(p, shape[0], shape[1]);
+                if (x == 1.0) {
+                    // a 0.1, b 0.1: 1 - x near 1e-17 is not representable next to 1
+                    continue;
+                }
+                assertEquals("a " + shape[0] + " b " + shape[1] + " p " + p, p,
+                             Beta.regularizedBeta(x, shape[0], shape[1]), 1e-11 * p);
+            }
+        }
+        // I_x(1, 1) = x and I_x(a, 1) = x^a
+        assertEquals(0.375, Beta.inverseRegularizedBeta(0.375, 1.0, 1.0), 1e-15);
+        assertEquals(Math.pow(0.2, 1 / 3.0), Beta.inverseRegularizedBeta(0.2, 3.0, 1.0), 1e-14);
+        assertEquals(0.0, Beta.inverseRegularizedBeta(0.0, 2.0, 3.0), 0.0);
+        assertEquals(1.0, Beta.inverseRegularizedBeta(1.0, 2.0, 3.0), 0.0);
+    }
+
+    @Test
+    public void testInverseExtremeShapes() {
+        double[][] shapes = {{5000.0, 0.01}, {100.0, 0.1}, {0.01, 5000.0}, {0.1, 100.0}};
+        for (double[] shape : shapes) {
+            for (double p : new double[]{1e-10, 0.01, 0.3, 0.5, 0.7, 0.99, 1.0 - 1e-10}) {
+                double x = Beta.inverseRegularizedBeta(p, shape[0], shape[1]);
+                String message = "a " + shape[0] + " b " + shape[1] + " p " + p;
+                assertTrue(message, x >= 0.0 && x <= 1.0);
+                if (x >= Double.MIN_NORMAL && x < 1.0) {
+                    // elsewhere the root is not representable apart from 0 or 1
+                    assertEquals(message, p, Beta.regularizedBeta(x, shape[0], shape[1]),
+                                 1e-9 * p);
+                }
+            }
+        }
+        assertTrue(new BetaDistribution(5000.0, 0.01).quantile(0.5) <= 1.0);
+        // a root near 2.5e-20 below a probability above 1/2
+        double x = Beta.inverseRegularizedBeta(0.7, 0.01, 5000.0);
+        assertTrue(x > 1e-21 && x < 1e-18);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidProbability() {
+        Beta.inverseRegularizedBeta(1.5, 2.0, 2.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidArgument() {
+        Beta.regularizedBeta(1.5, 2.0, 2.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParameter() {
+        Beta.logBeta(-1.0, 2.0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Piecewise Chebyshev approximations must meet their tolerance, survive a save and load, and
+ * the fast special functions built on them must agree with the originals. Timings are in
+ * Benchmarks.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class ChebyshevApproximationTest {
+
+    private static final UnivariateFunction COSINE = new UnivariateFunction() {
+        @Override
+        public double value(double x) {
+            return Math.cos(x);
+        }
+    };
+
+    private static double[] grid(double from, double to, int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = from + (to - from) * i / (n - 1);
+        }
+        return values;
+    }
+
+    @Test
+    public void testTolerance() {
+        ChebyshevApproximation cosine = new ChebyshevApproximation.Builder(COSINE)
+            .domain(-10.0, 10.0).absoluteTolerance(1e-12).degree(12).build();
+        double maxError = 0.0;
+        for (double x : grid(-10.0, 10.0, 100001)) {
+            maxError = Math.max(maxError, Math.abs(cosine.value(x) - Math.cos(x)));
+        }
+        System.out.println("ChebyshevApproximation: cos on [-10, 10] with " + cosine.getPieces() +
+                               " pieces, " + cosine.getCoefficientCount() +
+                               " coefficients, max error " + maxError);
+        assertTrue(maxError < 1e-12);
+        assertTrue(cosine.getAbsoluteError() <= 1e-12);
+        assertEquals(1.0, cosine.value(0.0), 1e-12);
+        assertEquals(Math.cos(10.0), cosine.value(10.0), 1e-12);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        ChebyshevApproximation cosine = new ChebyshevApproximation.Builder(COSINE)
+            .domain(0.0, 3.0).absoluteTolerance(1e-14).build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        cosine.save(bytes);
+        ChebyshevApproximation loaded = ChebyshevApproximation.load(
+            new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(cosine.getPieces(), loaded.getPieces());
+        assertEquals(cosine.getCoefficientCount(), loaded.getCoefficientCount());
+        assertEquals(cosine.getAbsoluteError(), loaded.getAbsoluteError(), 0.0);
+        for (double x : grid(0.0, 3.0, 1001)) {
+            assertEquals(cosine.value(x), loaded.value(x), 0.0);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadRejectsOtherData() throws IOException {
+        ChebyshevApproximation.load(new ByteArrayInputStream(new byte[64]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutsideDomain() {
+        new ChebyshevApproximation.Builder(COSINE).domain(0.0, 1.0).build().value(1.5);
+    }
+
+    @Test
+    public void testArrayOutsideDomainGivesNaN() {
+        ChebyshevApproximation cosine = new ChebyshevApproximation.Builder(COSINE)
+            .domain(0.0, 1.0).build();
+        double[] x = {-0.5, 0.5, 1.5};
+        double[] out = new double[x.length];
+        cosine.apply(x, out, 0, x.length);
+        assertTrue(Double.isNaN(out[0]) && Double.isNaN(out[2]));
+        assertEquals(Math.cos(0.5), out[1], 1e-14);
+    }
+
+    @Test
+    public void testFastFunctions() {
+        double[] positive = grid(0.01, 40.0, 200001);
+        double logGammaError = 0.0;
+        for (double x : positive) {
+            double logGamma = Gamma.logGamma(x);
+            logGammaError = Math.max(logGammaError, Math.abs(Gamma.logGammaFast(x) - logGamma) /
+                Math.max(1.0, Math.abs(logGamma)));
+        }
+        double phiError = 0.0;
+        for (double x : grid(-6.0, 6.0, 200001)) {
+            double phi = Phi.phi(x);
+            phiError = Math.max(phiError, Math.abs(Phi.phiFast(x) - phi) / phi);
+        }
+        System.out.println("ChebyshevApproximation: max relative difference logGammaFast " +
+                               logGammaError + " phiFast " + phiError);
+        assertTrue(logGammaError < 5e-14);
+        assertTrue(phiError < 5e-14);
+    }
+}
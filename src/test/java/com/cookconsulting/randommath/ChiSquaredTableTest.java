@@ -36,8 +36,10 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ChiSquaredTableTest {
@@ -98,6 +100,138 @@ public class ChiSquaredTableTest {
         }
     }
 
+    @Test
+    public void testClosedForms() {
+        ChiSquaredTable cst = new ChiSquaredTable.Builder().build();
+        for (Double p : cst.getPercentages()) {
+            // two degrees of freedom: exponential with mean 2
+            assertEquals(-2.0 * Math.log(p), cst.getChiSquared(2, p), 1e-12 * cst.getChiSquared(2, p));
+            // one degree of freedom: the square of a normal quantile
+            double z = NormalCDFInverse.normalCDFInverse(0.5 * p);
+            assertEquals(z * z, cst.getChiSquared(1, p), 1e-12 * z * z);
+        }
+    }
+
+    @Test
+    public void testLargeDegreesOfFreedom() {
+        for (int df : new int[]{1000, 10000}) {
+            ChiSquaredTable cst = new ChiSquaredTable.Builder().degreesOfFreedom(df).build();
+            for (Double p : cst.getPercentages()) {
+                double x = cst.getChiSquared(df, p);
+                assertEquals(p, Gamma.regularizedGammaQ(0.5 * df, 0.5 * x), 1e-12 * p);
+            }
+        }
+    }
+
+    @Test
+    public void testLazySharedRows() throws InterruptedException {
+        final ChiSquaredTable cst = new ChiSquaredTable.Builder().degreesOfFreedom(1000000).build();
+        // concurrent first lookups of a row all receive the one computed instance
+        final List<double[]> seen = new ArrayList<double[]>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    double[] row = cst.row(777777);
+                    synchronized (seen) {
+                        seen.add(row);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length, seen.size());
+        for (double[] row : seen) {
+            assertTrue(row == seen.get(0));
+        }
+        // another table with the same columns, listed in a different order, shares the rows
+        List<Double> reversed = new ArrayList<Double>(cst.getPercentages());
+        Collections.reverse(reversed);
+        ChiSquaredTable other =
+            new ChiSquaredTable.Builder().degreesOfFreedom(777777).columnPercentages(reversed).build();
+        assertTrue(other.row(777777) == seen.get(0));
+        assertTrue(other.getChiSquaredForDegreesOfFreedom(777778) == null);
+    }
+
+    @Test
+    public void testLookup() {
+        ChiSquaredTable cst = new ChiSquaredTable.Builder().degreesOfFreedom(100).build();
+        List<Double> percentages = cst.getPercentages();
+        for (int df = 1; df <= 100; df++) {
+            for (int k = 0; k < 64; k++) {
+                double x = k * 2.0;
+                double p = ChiSquaredTable.getPValue(df, x);
+                // the exact p-value falls between the table columns that bracket x
+                for (Double column : percentages) {
+                    double critical = cst.getChiSquared(df, column);
+                    if (x > critical) {
+                        assertTrue(p < column);
+                    }
+                    else if (x < critical) {
+                        assertTrue(p > column);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPValues() {
+        assertEquals(0.05, ChiSquaredTable.getPValue(10, 18.307038053275146), 1e-14);
+        assertEquals(0.05, ChiSquaredTable.getPValue(1, 3.841458820694124), 1e-14);
+        assertEquals(Math.exp(-3.5), ChiSquaredTable.getPValue(2, 7.0), 1e-15);
+        assertEquals(1.0, ChiSquaredTable.getPValue(5, 0.0), 0.0);
+        // the table and the direct computation agree
+        ChiSquaredTable cst = new ChiSquaredTable.Builder().build();
+        for (Double p : cst.getPercentages()) {
+            for (int df : new int[]{1, 7, 30}) {
+                double x = cst.getChiSquared(df, p);
+                assertEquals(x, ChiSquaredTable.getCriticalValue(df, p), 1e-13 * x);
+                assertEquals(p, ChiSquaredTable.getPValue(df, x), 1e-12 * p);
+            }
+        }
+        // far beyond any table
+        double x = ChiSquaredTable.getCriticalValue(1e6, 1e-10);
+        assertEquals(1e-10, ChiSquaredTable.getPValue(1e6, x), 1e-21);
+        assertEquals(Double.POSITIVE_INFINITY, ChiSquaredTable.getCriticalValue(3, 0.0), 0.0);
+        // table columns at the ends of [0, 1] agree with getCriticalValue
+        ChiSquaredTable ends = new ChiSquaredTable.Builder().degreesOfFreedom(3)
+            .columnPercentages(Arrays.asList(0.0, 0.5, 1.0)).build();
+        assertEquals(Double.POSITIVE_INFINITY, ends.getChiSquared(3, 0.0), 0.0);
+        assertEquals(0.0, ends.getChiSquared(3, 1.0), 0.0);
+    }
+
+    @Test
+    public void testBulkPValues() {
+        int n = 10000;
+        double[] df = new double[n];
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            df[i] = 1 + i % 500;
+            x[i] = df[i] * (0.5 + (i % 7) * 0.25);
+        }
+        double[] out = new double[n];
+        ChiSquaredTable.getPValues(df, x, out);
+        for (int i = 0; i < n; i += 37) {
+            assertEquals(ChiSquaredTable.getPValue(df[i], x[i]), out[i], 0.0);
+        }
+        df[3] = -1.0;
+        ChiSquaredTable.getPValues(df, x, out, 0, 10);
+        assertTrue(Double.isNaN(out[3]));
+        // common degrees of freedom, in parallel
+        double[] parallel = new double[n];
+        ArrayFunctions.parallel(ChiSquaredTable.pValues(42), x, parallel);
+        assertEquals(ChiSquaredTable.getPValue(42, x[n - 1]), parallel[n - 1], 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDegreesOfFreedom() {
+        ChiSquaredTable.getPValue(0, 1.0);
+    }
+
     @Test
     public void knuthTable() {
         ChiSquaredTable cst = new ChiSquaredTable.Builder().build();
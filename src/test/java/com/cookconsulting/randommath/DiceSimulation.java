@@ -32,6 +32,7 @@ import org.junit.Test;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -98,6 +99,28 @@ public class DiceSimulation {
         return (difference / expected < tolerance);
     }
 
+    /**
+     * The chi square value of the counts from a GoodnessOfFitAccumulator, checked against
+     * ChiSquaredTable.calculateChiSquared
+     *
+     * @param actualValues
+     * @param sampleSize
+     * @return
+     */
+    private double checkChiSquared(Map<Integer, Integer> actualValues, int sampleSize) {
+        GoodnessOfFitAccumulator gof = new GoodnessOfFitAccumulator(probabilitesForTwoDice);
+        for (Map.Entry<Integer, Integer> entry : actualValues.entrySet()) {
+            gof.add(entry.getKey(), entry.getValue());
+        }
+        assertEquals(sampleSize, gof.getSampleSize());
+        double chiSquaredValue = gof.chiSquared();
+        assertEquals(cst.calculateChiSquared(probabilitesForTwoDice, actualValues, sampleSize),
+                     chiSquaredValue, 1e-12 * chiSquaredValue);
+        System.out.println(String.format("Chi Squared Value: %f p-value %f.",
+                                         chiSquaredValue, gof.pValue()));
+        return chiSquaredValue;
+    }
+
     public static HashMap<Integer, Double> create2DiceProbabilites() {
         HashMap<Integer, Double> p = new HashMap<Integer, Double>();
         p.put(2, 1 / 36d);
@@ -128,11 +151,7 @@ public class DiceSimulation {
         actualValues.put(10, 14);
         actualValues.put(11, 9);
         actualValues.put(12, 6);
-        double chiSquaredValue =
-            cst.calculateChiSquared(probabilitesForTwoDice, actualValues, 144);
-        double percentage = cst.getPercentage(10, chiSquaredValue);
-        System.out.println(String.format("Chi Squared Value: %f percentage %f.",
-                                         chiSquaredValue, percentage));
+        double chiSquaredValue = checkChiSquared(actualValues, 144);
         assertTrue(nearEquivalent(chiSquaredValue, 7.14583d, 0.001));
     }
 
@@ -151,11 +170,7 @@ public class DiceSimulation {
         actualValues.put(10, 13);
         actualValues.put(11, 14);
         actualValues.put(12, 13);
-        double chiSquaredValue =
-            cst.calculateChiSquared(probabilitesForTwoDice, actualValues, 144);
-        double percentage = cst.getPercentage(10, chiSquaredValue);
-        System.out.println(String.format("Chi Squared Value: %f percentage %f.",
-                                         chiSquaredValue, percentage));
+        double chiSquaredValue = checkChiSquared(actualValues, 144);
         assertTrue(nearEquivalent(chiSquaredValue, 29.49166d, 0.001));
     }
 
@@ -173,11 +188,7 @@ public class DiceSimulation {
         actualValues.put(10, 13);
         actualValues.put(11, 9);
         actualValues.put(12, 5);
-        double chiSquaredValue =
-            cst.calculateChiSquared(probabilitesForTwoDice, actualValues, 144);
-        double percentage = cst.getPercentage(10, chiSquaredValue);
-        System.out.println(String.format("Chi Squared Value: %f percentage %f.",
-                                         chiSquaredValue, percentage));
+        double chiSquaredValue = checkChiSquared(actualValues, 144);
         assertTrue(nearEquivalent(chiSquaredValue, 1.14166d, 0.001));
     }
 
@@ -209,13 +220,13 @@ public class DiceSimulation {
      * Utility method for testing simulations
      * Interesting simulation note: trying to model the dice roll event as a single random act,
      * causes the metric to go wildly awry, as one should suspect:
-     * fm.add(rnf.nextInt(10) + 2);
+     * gof.add(rnf.nextInt(10) + 2);
      * yields:
      * <p/>
      * MERSENNE_TWISTER iterations: 1000 iterations mean Chi Squared Value: 68.744717
      * Std Deviation: 25.170323 percentage 0.005120 std dev: 0.001445.
      * whereas:
-     * fm.add(rnf.nextInt(6) + 1 + rnf.nextInt(6) + 1);
+     * gof.add(rnf.nextInt(6) + 1 + rnf.nextInt(6) + 1);
      * MERSENNE_TWISTER iterations: 1000 iterations mean Chi Squared Value: 9.706987
      * Std Deviation: 4.501019 percentage 0.180365 std dev: 0.257793.
      *
@@ -224,26 +235,23 @@ public class DiceSimulation {
      * @param sampleSize
      */
     private void testDiceSimulation(RandomNumberFactory rnf, int iterations, int sampleSize) {
-        FrequencyMap<Integer> fm = new FrequencyMap<Integer>();
+        GoodnessOfFitAccumulator gof = new GoodnessOfFitAccumulator(probabilitesForTwoDice);
         RunningStats rsChiSquared = new RunningStats();
-        RunningStats rsPercentage = new RunningStats();
+        RunningStats rsPValue = new RunningStats();
         for (int i = 0; i < iterations; i++) {
             for (int ii = 0; ii < sampleSize; ii++) {
-                // fm.add(rnf.nextInt(10) + 2);  //
-                fm.add(rnf.nextInt(6) + 1 + rnf.nextInt(6) + 1);
+                // gof.add(rnf.nextInt(10) + 2);  //
+                gof.add(rnf.nextInt(6) + 1 + rnf.nextInt(6) + 1);
             }
-            double chiSquaredValue =
-                cst.calculateChiSquared(probabilitesForTwoDice, fm.getMap(), sampleSize);
-            double percentage = cst.getPercentage(10, chiSquaredValue);
-            rsChiSquared.push(chiSquaredValue);
-            rsPercentage.push(percentage);
-            fm.clear();
+            rsChiSquared.push(gof.chiSquared());
+            rsPValue.push(gof.pValue());
+            gof.clear();
         }
         System.out.println(String.format(
             "%s iterations: %d iterations mean Chi Squared Value: %f" +
-                " Std Deviation: %f percentage %f std dev: %f.",
+                " Std Deviation: %f p-value %f std dev: %f.",
             rnf.getAlgorithmName(), iterations, rsChiSquared.mean(),
             rsChiSquared.standardDeviation(),
-            rsPercentage.mean(), rsPercentage.standardDeviation()));
+            rsPValue.mean(), rsPValue.standardDeviation()));
     }
 }
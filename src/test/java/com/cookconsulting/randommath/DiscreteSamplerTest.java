@@ -0,0 +1,147 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compare sample moments and selected probabilities of the discrete samplers with their
+ * exact values; the probabilities were computed with exact binomial coefficients.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class DiscreteSamplerTest {
+
+    private static final int SAMPLES = 200000;
+
+    private static long[] draw(DiscreteSampler sampler) {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(20111106L);
+        long[] values = new long[SAMPLES];
+        rnf.fill(sampler, values);
+        return values;
+    }
+
+    private static void checkMoments(String name, long[] values, double mean, double variance) {
+        RunningStats rs = new RunningStats();
+        for (long k : values) {
+            assertTrue(k >= 0);
+            rs.push(k);
+        }
+        System.out.println(String.format("%s: expected mean: %f computed mean: %f expected variance:" +
+                                             " %f computed variance: %f", name, mean, rs.mean(),
+                                         variance, rs.variance()));
+        assertEquals(mean, rs.mean(), 5.0 * Math.sqrt(variance / values.length) + 1e-9);
+        assertEquals(variance, rs.variance(), 0.02 * variance + 1e-9);
+    }
+
+    private static double frequency(long[] values, long k) {
+        long count = 0;
+        for (long value : values) {
+            if (value == k) {
+                count++;
+            }
+        }
+        return count / (double) values.length;
+    }
+
+    @Test
+    public void testGeometric() {
+        double p = 0.2;
+        long[] values = draw(new GeometricSampler(p));
+        checkMoments("geometric", values, (1 - p) / p, (1 - p) / (p * p));
+        assertEquals(p, frequency(values, 0), 0.003);
+    }
+
+    @Test
+    public void testPoisson() {
+        checkMoments("Poisson small mean", draw(new PoissonSampler(3.5)), 3.5, 3.5);
+        long[] values = draw(new PoissonSampler(20.0));
+        checkMoments("Poisson", values, 20.0, 20.0);
+        assertEquals(0.051648853531758326, frequency(values, 15), 0.002);
+        assertEquals(0.0888353173920848, frequency(values, 20), 0.002);
+        assertEquals(0.04458764910826764, frequency(values, 25), 0.002);
+        checkMoments("Poisson large mean", draw(new PoissonSampler(1.0e6)), 1.0e6, 1.0e6);
+    }
+
+    @Test
+    public void testNegativeBinomial() {
+        double r = 3.5, p = 0.3;
+        checkMoments("negative binomial", draw(new NegativeBinomialSampler(r, p)),
+                     r * (1 - p) / p, r * (1 - p) / (p * p));
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        RunningStats rs = new RunningStats();
+        for (int i = 0; i < SAMPLES; i++) {
+            rs.push(rnf.getNegativeBinomial(r, p));
+        }
+        assertEquals(r * (1 - p) / p, rs.mean(), 0.05);
+    }
+
+    private static void checkCumulative(DiscreteSampler sampler, double[] logPmf, long[] points) {
+        double sum = 0.0;
+        int k = 0;
+        for (long point : points) {
+            for (; k <= point; k++) {
+                sum += Math.exp(logPmf[k]);
+            }
+            double cdf = (sampler instanceof PoissonSampler) ?
+                ((PoissonSampler) sampler).cdf(point) : ((BinomialSampler) sampler).cdf(point);
+            assertEquals(sum, cdf, 1e-12 * Math.max(sum, 1e-3));
+        }
+    }
+
+    @Test
+    public void testCumulativeProbabilities() {
+        double[] logPmf = new double[200];
+        LogFactorial.logPoissonPmf(20.0, logPmf);
+        checkCumulative(new PoissonSampler(20.0), logPmf, new long[]{0, 5, 15, 20, 25, 40, 80});
+        LogFactorial.logBinomialPmf(150, 0.3, logPmf);
+        checkCumulative(new BinomialSampler(150, 0.3), logPmf, new long[]{0, 20, 45, 60, 149});
+        assertEquals(1.0, new BinomialSampler(150, 0.3).cdf(150), 0.0);
+        assertEquals(0.0, new BinomialSampler(150, 0.3).cdf(-1), 0.0);
+        // P(X <= k) for the negative binomial as a sum of its pmf
+        double r = 3.5, p = 0.3;
+        NegativeBinomialSampler negativeBinomial = new NegativeBinomialSampler(r, p);
+        double term = Math.pow(p, r), sum = 0.0;
+        for (int k = 0; k <= 30; k++) {
+            sum += term;
+            assertEquals(sum, negativeBinomial.cdf(k), 1e-13);
+            term *= (k + r) * (1 - p) / (k + 1);
+        }
+        // a large mean uses the quadrature branch: P(X <= 1e6) is just above one half
+        assertEquals(0.5002659614862837, new PoissonSampler(1.0e6).cdf(1000000L), 1e-12);
+    }
+
+    private static void checkHypergeometric(long population, long marked, long sample) {
+        double p = marked / (double) population;
+        double variance = sample * p * (1 - p) * (population - sample) / (population - 1.0);
+        long[] values = draw(new HypergeometricSampler(population, marked, sample));
+        for (long k : values) {
+            assertTrue(k <= Math.min(marked, sample) && sample - k <= population - marked);
+        }
+        checkMoments(String.format("hypergeometric(%d, %d, %d)", population, marked, sample),
+                     values, sample * p, variance);
+    }
+
+    @Test
+    public void testHypergeometric() {
+        long[] values = draw(new HypergeometricSampler(1000, 300, 100));
+        assertEquals(0.08369201262840197, frequency(values, 28), 0.002);
+        assertEquals(0.09147503923926442, frequency(values, 30), 0.002);
+        assertEquals(0.08111621351205375, frequency(values, 32), 0.002);
+        checkHypergeometric(1000, 300, 100);
+        // direct simulation paths
+        checkHypergeometric(1000, 300, 6);
+        checkHypergeometric(1000, 4, 600);
+        // reflected parameters
+        checkHypergeometric(1000, 700, 900);
+        checkHypergeometric(2000000000L, 900000000L, 1000000L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidHypergeometric() {
+        new HypergeometricSampler(10, 11, 5);
+    }
+}
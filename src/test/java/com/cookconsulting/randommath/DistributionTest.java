@@ -0,0 +1,253 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the Distribution implementations: sample moments, cdf / quantile round trips,
+ * and agreement between the pdf and the numerical derivative of the cdf.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class DistributionTest {
+
+    private static final int SAMPLES = 200000;
+
+    private RandomNumberFactory getFactory() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(314159L);
+        return rnf;
+    }
+
+    private void checkMoments(String name, Distribution distribution, double expectedMean,
+                              double expectedVariance, double tolerance) {
+        double[] values = new double[SAMPLES];
+        getFactory().fill(distribution, values);
+        RunningStats rs = new RunningStats();
+        for (double value : values) {
+            rs.push(value);
+        }
+        System.out.println(String.format("%s: expected mean: %f computed mean: %f " +
+                                             "expected variance: %f computed variance: %f",
+                                         name, expectedMean, rs.mean(), expectedVariance,
+                                         rs.variance()));
+        assertEquals(expectedMean, rs.mean(), tolerance * Math.max(1.0, Math.abs(expectedMean)));
+        assertEquals(expectedVariance, rs.variance(),
+                     tolerance * Math.max(1.0, expectedVariance));
+    }
+
+    private void checkQuantile(Distribution distribution, double tolerance) {
+        for (double p : new double[]{0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            double x = distribution.quantile(p);
+            assertEquals(p, distribution.cdf(x), tolerance);
+            double h = 1e-5 * Math.max(1.0, Math.abs(x));
+            double slope = (distribution.cdf(x + h) - distribution.cdf(x - h)) / (2 * h);
+            assertEquals(slope, distribution.pdf(x), 1e-4 * Math.max(1.0, slope));
+        }
+    }
+
+    private void checkDensity(Distribution distribution, double[] points) {
+        for (double x : points) {
+            double h = 1e-5 * Math.max(1.0, Math.abs(x));
+            double slope = (distribution.cdf(x + h) - distribution.cdf(x - h)) / (2 * h);
+            assertEquals(slope, distribution.pdf(x), 1e-4 * Math.max(1.0, slope));
+        }
+    }
+
+    @Test
+    public void testNormal() {
+        checkMoments("normal", new NormalDistribution(2, 5), 2, 25, 0.02);
+        checkQuantile(new NormalDistribution(2, 5), 1e-3);
+    }
+
+    @Test
+    public void testExponential() {
+        checkMoments("exponential", new ExponentialDistribution(3), 3, 9, 0.02);
+        checkQuantile(new ExponentialDistribution(3), 1e-12);
+    }
+
+    @Test
+    public void testWeibull() {
+        double mean = 3 * Math.sqrt(Math.PI) / 2;
+        double variance = 9 * (1 - Math.PI / 4);
+        checkMoments("Weibull", new WeibullDistribution(2, 3), mean, variance, 0.02);
+        checkQuantile(new WeibullDistribution(2, 3), 1e-12);
+    }
+
+    @Test
+    public void testCauchy() {
+        checkQuantile(new CauchyDistribution(1, 2), 1e-12);
+    }
+
+    @Test
+    public void testLaplace() {
+        checkMoments("Laplace", new LaplaceDistribution(1, 2), 1, 8, 0.02);
+        checkQuantile(new LaplaceDistribution(1, 2), 1e-12);
+    }
+
+    @Test
+    public void testLogNormal() {
+        double mu = 0.5, sigma = 0.25;
+        double mean = Math.exp(mu + sigma * sigma / 2);
+        double variance = (Math.exp(sigma * sigma) - 1) * Math.exp(2 * mu + sigma * sigma);
+        checkMoments("log normal", new LogNormalDistribution(mu, sigma), mean, variance, 0.02);
+        checkQuantile(new LogNormalDistribution(mu, sigma), 1e-3);
+    }
+
+    @Test
+    public void testUniform() {
+        checkMoments("uniform", new UniformDistribution(-1, 3), 1, 16 / 12.0, 0.02);
+        checkQuantile(new UniformDistribution(-1, 3), 1e-12);
+    }
+
+    @Test
+    public void testGamma() {
+        checkMoments("gamma", new GammaDistribution(10, 2), 20, 40, 0.02);
+        checkMoments("gamma shape < 1", new GammaDistribution(0.4, 3), 1.2, 3.6, 0.02);
+        checkMoments("chi square", GammaDistribution.chiSquare(7), 7, 14, 0.02);
+        checkQuantile(new GammaDistribution(10, 2), 1e-12);
+        GammaDistribution small = new GammaDistribution(0.4, 3);
+        for (double p : new double[]{1e-6, 0.01, 0.5, 0.99}) {
+            assertEquals(p, small.cdf(small.quantile(p)), 1e-12 * p);
+        }
+        checkQuantile(GammaDistribution.chiSquare(7), 1e-12);
+        assertEquals(14.067140449340169, GammaDistribution.chiSquare(7).quantile(0.95), 1e-12);
+        checkDensity(new GammaDistribution(10, 2), new double[]{5, 12, 20, 31, 60});
+        checkDensity(new GammaDistribution(0.4, 3), new double[]{0.1, 1, 4, 15});
+        checkDensity(new GammaDistribution(400, 0.5), new double[]{170, 190, 200, 215, 240});
+        assertEquals(0.0, new GammaDistribution(2, 1).cdf(-1.0), 0.0);
+        // exponential special case
+        assertEquals(-Math.expm1(-1.5), new GammaDistribution(1, 2).cdf(3.0), 1e-15);
+        // 5% critical value of chi square with 7 degrees of freedom
+        assertEquals(0.95, GammaDistribution.chiSquare(7).cdf(14.067140449340169), 1e-12);
+    }
+
+    @Test
+    public void testBeta() {
+        double a = 7, b = 2;
+        double mean = a / (a + b);
+        double variance = mean * (1 - mean) / (a + b + 1);
+        checkMoments("beta", new BetaDistribution(a, b), mean, variance, 0.02);
+        // the pdf integrates to one
+        BetaDistribution beta = new BetaDistribution(a, b);
+        double sum = 0.0;
+        int steps = 10000;
+        for (int i = 0; i < steps; i++) {
+            sum += beta.pdf((i + 0.5) / steps) / steps;
+        }
+        assertEquals(1.0, sum, 1e-6);
+        checkQuantile(beta, 1e-12);
+        BetaDistribution arcsine = new BetaDistribution(0.5, 0.5);
+        for (double p : new double[]{1e-6, 0.01, 0.5, 0.99}) {
+            assertEquals(p, arcsine.cdf(arcsine.quantile(p)), 1e-12 * p);
+        }
+        // the arcsine distribution, I_x(1/2, 1/2) = 2 asin(sqrt(x)) / pi
+        double s = Math.sin(0.3 * Math.PI / 2);
+        assertEquals(s * s, arcsine.quantile(0.3), 1e-14);
+        checkDensity(beta, new double[]{0.3, 0.6, 0.78, 0.9, 0.97});
+        checkDensity(new BetaDistribution(200, 300), new double[]{0.35, 0.39, 0.4, 0.43});
+        // I_x(a, 1) = x^a
+        assertEquals(Math.pow(0.6, 7), new BetaDistribution(7, 1).cdf(0.6), 1e-15);
+        assertEquals(1.0, beta.cdf(1.5), 0.0);
+    }
+
+    @Test
+    public void testStudentT() {
+        checkMoments("Student t", new StudentTDistribution(6), 0, 1.5, 0.03);
+        checkQuantile(new StudentTDistribution(1), 1e-12);
+        checkQuantile(new StudentTDistribution(2), 1e-12);
+        checkQuantile(new StudentTDistribution(6), 1e-12);
+        checkQuantile(new StudentTDistribution(2.5), 1e-12);
+        assertEquals(2.0422724563012373, new StudentTDistribution(30).quantile(0.975), 1e-12);
+        assertEquals(-2.0422724563012373, new StudentTDistribution(30).quantile(0.025), 1e-12);
+        // small quantiles near the center keep their precision
+        StudentTDistribution six = new StudentTDistribution(6);
+        assertEquals(1e-9, six.cdf(six.quantile(0.5 + 1e-9)) - 0.5, 1e-15);
+        assertEquals(0.0, six.quantile(0.5), 0.0);
+        checkDensity(new StudentTDistribution(6), new double[]{-8, -2, -0.5, 0, 1, 3, 12});
+        checkDensity(new StudentTDistribution(2.5), new double[]{-4, 0.2, 1.5, 30});
+        // two sided 5% critical value with 30 degrees of freedom
+        assertEquals(0.975, new StudentTDistribution(30).cdf(2.0422724563012373), 1e-12);
+        assertEquals(0.025, new StudentTDistribution(30).cdf(-2.0422724563012373), 1e-12);
+        // lower tails inside |x| < sqrt(df) keep their relative precision; references from
+        // the finite series for even degrees of freedom
+        assertEquals(1.02329266022898769e-20, new StudentTDistribution(10000).cdf(-9.28),
+                     1e-12 * 1.02e-20);
+        assertEquals(1.00719728881268517e-08, new StudentTDistribution(100).cdf(-6.1),
+                     1e-13 * 1.01e-08);
+        assertEquals(1.70395767166472479e-03, new StudentTDistribution(100).cdf(-3.0),
+                     1e-13 * 1.70e-03);
+        assertEquals(0.309086782915443281, new StudentTDistribution(100).cdf(-0.5), 1e-14);
+        // and so do the closed forms for one and two degrees of freedom
+        StudentTDistribution cauchy = new StudentTDistribution(1);
+        assertEquals(3.18309886183790665e-18, cauchy.cdf(-1e17), 1e-15 * 3.18e-18);
+        assertEquals(-3.18309886183790674e+19, cauchy.quantile(1e-20), 1e-15 * 3.18e19);
+        assertEquals(-3.18309886183790565e+07, cauchy.quantile(1e-8), 1e-15 * 3.18e7);
+        assertEquals(3.18309886183790565e+07, cauchy.quantile(1.0 - 1e-8), 1e-8 * 3.18e7);
+        StudentTDistribution two = new StudentTDistribution(2);
+        assertEquals(4.99999999999999973e-21, two.cdf(-1e10), 1e-15 * 5e-21);
+        assertEquals(5.54631340979829424e-04, two.cdf(-30.0), 1e-15 * 5.5e-4);
+        // approaches the normal distribution as the degrees of freedom grow
+        StudentTDistribution wide = new StudentTDistribution(1e7);
+        for (double t : new double[]{-3, -1, 0.5, 2.5}) {
+            assertEquals(Phi.phi(t), wide.cdf(t), 1e-7);
+        }
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        List<Double> invalid = Arrays.asList(0.0, -1.0, Double.NaN);
+        for (Double value : invalid) {
+            try {
+                new NormalDistribution(0, value);
+                assertTrue("accepted standard deviation " + value, false);
+            }
+            catch (IllegalArgumentException expected) {
+                // expected
+            }
+            try {
+                new GammaDistribution(value, 1);
+                assertTrue("accepted shape " + value, false);
+            }
+            catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testSharedAcrossThreads() throws InterruptedException {
+        final Distribution distribution = new GammaDistribution(3, 1);
+        final double[][] results = new double[4][];
+        Thread[] threads = new Thread[results.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int index = t;
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    RandomNumberFactory rnf =
+                        new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+                    rnf.setSeed(100L + index);
+                    results[index] = new double[50000];
+                    rnf.fill(distribution, results[index]);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (double[] values : results) {
+            RunningStats rs = new RunningStats();
+            for (double value : values) {
+                rs.push(value);
+            }
+            assertEquals(3.0, rs.mean(), 0.05);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ErfTest {
@@ -57,4 +58,30 @@ public class ErfTest {
         System.out.println("erf: max relative error: " + max_relative_error +
                                " max absolute error: " + max_absolute_error);
     }
+
+    /**
+     * reference values from the C library erf and erfc, relative tolerance a few ulps
+     */
+    @Test
+    public void testErfcTail() {
+        double[] seeds = {-1.0, 5.0, 10.0};
+        double[] results = {1.842700792949715, 1.5374597944280351e-12, 2.088487583762545e-45};
+        for (int ii = 0; ii < seeds.length; ii++) {
+            assertEquals(results[ii], Erf.erfc(seeds[ii]), 4e-16 * results[ii]);
+        }
+        assertEquals(0.3286267594591274, Erf.erf(0.3), 4e-16);
+        assertEquals(1.1283791670955126e-10, Erf.erf(1e-10), 1e-25);
+        assertEquals(0.0, Erf.erfc(30.0), 0.0);
+        assertEquals(1.0, Erf.erf(Double.POSITIVE_INFINITY), 0.0);
+        assertEquals(2.0, Erf.erfc(Double.NEGATIVE_INFINITY), 0.0);
+    }
+
+    @Test
+    public void testErfcx() {
+        assertEquals(0.2553956763105057, Erf.erfcx(2.0), 1e-15);
+        assertEquals(108.94090438997797, Erf.erfcx(-2.0), 1e-13);
+        // asymptotic series value
+        assertEquals(0.018795888861416758, Erf.erfcx(30.0), 1e-17);
+        assertEquals(0.0, Erf.erfcx(Double.POSITIVE_INFINITY), 0.0);
+    }
 }
@@ -0,0 +1,176 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Hit accounting, quantized keys, CLOCK eviction and concurrent use of FunctionCache.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class FunctionCacheTest {
+
+    private static final class CountingFunction implements UnivariateFunction {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public double value(double x) {
+            calls.incrementAndGet();
+            return Math.sin(x) + x;
+        }
+    }
+
+    @Test
+    public void testExactKeys() {
+        CountingFunction function = new CountingFunction();
+        FunctionCache cache = new FunctionCache.Builder(function).capacity(64).build();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 20; i++) {
+                assertEquals(Math.sin(i / 2.0) + i / 2.0, cache.value(i / 2.0), 0.0);
+            }
+        }
+        assertEquals(20, function.calls.get());
+        assertEquals(80, cache.getHits());
+        assertEquals(20, cache.getMisses());
+        assertEquals(0.8, cache.getHitRate(), 1e-15);
+        assertEquals(20, cache.size());
+        // a neighbouring double is a different key
+        cache.value(Math.nextUp(0.5));
+        assertEquals(21, function.calls.get());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0.0, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void testQuantizedKeys() {
+        CountingFunction function = new CountingFunction();
+        FunctionCache cache = new FunctionCache.Builder(function).quantum(0.5).build();
+        double value = cache.value(2.5);
+        // rounding noise in the argument still hits, and the grid point is evaluated
+        assertEquals(value, cache.value(2.5 + 1e-9), 0.0);
+        assertEquals(value, cache.value(2.4999999), 0.0);
+        assertEquals(Math.sin(2.5) + 2.5, cache.value(2.6), 0.0);
+        assertEquals(1, function.calls.get());
+        // not finite: evaluated directly
+        assertTrue(Double.isNaN(cache.value(Double.NaN)));
+        assertEquals(2, function.calls.get());
+    }
+
+    @Test
+    public void testClockOrder() {
+        // capacity 8 is a single set: keys 0 to 7 fill slots 0 to 7
+        CountingFunction function = new CountingFunction();
+        FunctionCache cache = new FunctionCache.Builder(function).capacity(8).build();
+        for (int k = 0; k < 8; k++) {
+            cache.value(k);
+        }
+        for (int k = 0; k < 4; k++) {
+            cache.value(k);
+        }
+        // the hand clears 0 to 3 and evicts 4, then resumes at 5 rather than at the start
+        cache.value(100.0);
+        cache.value(101.0);
+        assertEquals(2, cache.getEvictions());
+        int calls = function.calls.get();
+        for (int k = 0; k < 4; k++) {
+            cache.value(k);
+        }
+        assertEquals(calls, function.calls.get());
+        cache.value(4.0);
+        cache.value(5.0);
+        assertEquals(calls + 2, function.calls.get());
+    }
+
+    @Test
+    public void testEviction() {
+        CountingFunction function = new CountingFunction();
+        FunctionCache cache = new FunctionCache.Builder(function).capacity(256).build();
+        assertEquals(256, cache.getCapacity());
+        Random random = new Random(20111106L);
+        int hotHits = 0;
+        int hotCalls = 0;
+        for (int i = 0; i < 200000; i++) {
+            if (i % 2 == 0) {
+                // 32 hot keys, read as often as all the cold keys together
+                long before = cache.getHits();
+                cache.value(random.nextInt(32));
+                hotCalls++;
+                hotHits += (int) (cache.getHits() - before);
+            }
+            else {
+                cache.value(1000.0 + random.nextInt(100000));
+            }
+        }
+        assertTrue(cache.size() <= 256);
+        assertTrue(cache.getEvictions() > 0);
+        System.out.println(String.format("FunctionCache: hot key hit rate %.4f, overall %.4f, " +
+                                             "evictions %d", hotHits / (double) hotCalls,
+                                         cache.getHitRate(), cache.getEvictions()));
+        // second chance keeps the hot keys despite the scan of cold ones
+        assertTrue(hotHits > 0.95 * hotCalls);
+    }
+
+    @Test
+    public void testConcurrentUse() throws InterruptedException {
+        final CountingFunction function = new CountingFunction();
+        final FunctionCache cache = new FunctionCache.Builder(function).capacity(128).build();
+        final boolean[] failed = new boolean[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 100000; i++) {
+                        double x = random.nextInt(400) / 2.0;
+                        if (cache.value(x) != Math.sin(x) + x) {
+                            failed[0] = true;
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(!failed[0]);
+        assertEquals(400000, cache.getHits() + cache.getMisses());
+        assertEquals(cache.getMisses(), function.calls.get());
+        assertTrue(cache.size() <= 128);
+    }
+
+    @Test
+    public void testLogGamma() {
+        FunctionCache cache = FunctionCache.logGamma();
+        assertTrue(cache == FunctionCache.logGamma());
+        for (int n = 1; n < 200; n++) {
+            assertEquals(Gamma.logGamma(n / 2.0), cache.value(n / 2.0), 0.0);
+        }
+        assertEquals(Gamma.logGamma(3.7), cache.value(3.7), 0.0);
+        // recurring half integers are served from the cache
+        long hits = cache.getHits();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Gamma.logGamma(0.5 + (i & 127) * 0.5),
+                         cache.value(0.5 + (i & 127) * 0.5), 0.0);
+        }
+        assertTrue(cache.getHits() - hits >= 1000 - 128);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new FunctionCache.Builder(new CountingFunction()).capacity(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantum() {
+        new FunctionCache.Builder(new CountingFunction()).quantum(-1.0).build();
+    }
+}
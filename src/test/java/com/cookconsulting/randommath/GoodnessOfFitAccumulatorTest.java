@@ -0,0 +1,180 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Exact expected values, p-values, concurrent producers and argument checking of
+ * GoodnessOfFitAccumulator, with the cost of a statistic.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class GoodnessOfFitAccumulatorTest {
+
+    @Test
+    public void testUnroundedExpectedValues() {
+        GoodnessOfFitAccumulator gof =
+            new GoodnessOfFitAccumulator(1, new double[]{1 / 3d, 2 / 3d});
+        assertEquals(0.0, gof.chiSquared(), 0.0);
+        assertEquals(1.0, gof.pValue(), 0.0);
+        gof.add(1);
+        gof.add(2, 3L);
+        assertEquals(4L, gof.getSampleSize());
+        assertEquals(3L, gof.getCount(2));
+        assertEquals(4 / 3d, gof.getExpected(1), 1e-15);
+        // (1/3)^2 / (4/3) + (1/3)^2 / (8/3); rounding the expected values to 1 and 3 gives 0
+        assertEquals(0.125, gof.chiSquared(), 1e-15);
+        assertEquals(ChiSquaredTable.getPValue(1, 0.125), gof.pValue(), 0.0);
+
+        Map<Integer, Double> probabilities = new HashMap<Integer, Double>();
+        probabilities.put(1, 1 / 3d);
+        probabilities.put(2, 2 / 3d);
+        Map<Integer, Integer> actual = new HashMap<Integer, Integer>();
+        actual.put(1, 1);
+        actual.put(2, 3);
+        ChiSquaredTable cst = new ChiSquaredTable.Builder().build();
+        assertEquals(0.125, cst.calculateChiSquared(probabilities, actual, 4), 1e-15);
+        GoodnessOfFitAccumulator fromMap = new GoodnessOfFitAccumulator(probabilities);
+        fromMap.add(1);
+        fromMap.add(2, 3L);
+        assertEquals(gof.chiSquared(), fromMap.chiSquared(), 0.0);
+
+        gof.clear();
+        assertEquals(0L, gof.getSampleSize());
+        assertEquals(0.0, gof.chiSquared(), 0.0);
+    }
+
+    @Test
+    public void testWeights() {
+        // weights are normalized, so 1:2 is the same as 1/3:2/3
+        GoodnessOfFitAccumulator weights = new GoodnessOfFitAccumulator(0, new double[]{1, 2});
+        GoodnessOfFitAccumulator probabilities =
+            new GoodnessOfFitAccumulator(0, new double[]{1 / 3d, 2 / 3d});
+        weights.add(0, 17L);
+        weights.add(1, 25L);
+        probabilities.add(0, 17L);
+        probabilities.add(1, 25L);
+        assertEquals(probabilities.chiSquared(), weights.chiSquared(), 1e-14);
+        assertEquals(1, weights.getDegreesOfFreedom());
+        assertEquals(2, weights.getCategories());
+    }
+
+    @Test
+    public void testUniformDistribution() {
+        // a fair die over many rolls: the statistic is about the degrees of freedom
+        GoodnessOfFitAccumulator gof = new GoodnessOfFitAccumulator(1, new double[]{
+            1 / 6d, 1 / 6d, 1 / 6d, 1 / 6d, 1 / 6d, 1 / 6d});
+        Random random = new Random(20111106L);
+        for (int i = 0; i < 600000; i++) {
+            gof.add(random.nextInt(6) + 1);
+        }
+        assertTrue(gof.chiSquared() < ChiSquaredTable.getCriticalValue(5, 0.001));
+        assertTrue(gof.pValue() > 0.001);
+        // a loaded die is caught
+        gof.add(6, 2000L);
+        assertTrue(gof.pValue() < 1e-6);
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final int categories = 11;
+        double[] p = new double[categories];
+        for (int i = 0; i < categories; i++) {
+            p[i] = 1.0 / categories;
+        }
+        final GoodnessOfFitAccumulator gof = new GoodnessOfFitAccumulator(2, p);
+        GoodnessOfFitAccumulator serial = new GoodnessOfFitAccumulator(2, p);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 250000; i++) {
+                        gof.add(random.nextInt(categories) + 2);
+                        // statistics may be read while producers run
+                        if (i % 50000 == 0) {
+                            gof.pValue();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            Random random = new Random(t);
+            for (int i = 0; i < 250000; i++) {
+                serial.add(random.nextInt(categories) + 2);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000000L, gof.getSampleSize());
+        for (int c = 2; c < categories + 2; c++) {
+            assertEquals(serial.getCount(c), gof.getCount(c));
+        }
+        assertEquals(serial.chiSquared(), gof.chiSquared(), 0.0);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        GoodnessOfFitAccumulator gof = new GoodnessOfFitAccumulator(2, new double[]{0.5, 0.5});
+        try {
+            gof.add(4);
+            fail("category out of range");
+        }
+        catch (IllegalArgumentException expected) {
+        }
+        try {
+            gof.add(2, -1L);
+            fail("negative count");
+        }
+        catch (IllegalArgumentException expected) {
+        }
+        double[][] invalid = {{1.0}, {0.5, 0.0}, {0.5, -0.5}, {0.5, Double.NaN},
+                              {0.5, Double.POSITIVE_INFINITY}};
+        for (double[] p : invalid) {
+            try {
+                new GoodnessOfFitAccumulator(0, p);
+                fail("invalid probabilities");
+            }
+            catch (IllegalArgumentException expected) {
+            }
+        }
+        Map<Integer, Double> gap = new HashMap<Integer, Double>();
+        gap.put(1, 0.5);
+        gap.put(3, 0.5);
+        try {
+            new GoodnessOfFitAccumulator(gap);
+            fail("categories not consecutive");
+        }
+        catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testStatisticAgreesWithTable() {
+        Map<Integer, Double> probabilities = DiceSimulation.create2DiceProbabilites();
+        GoodnessOfFitAccumulator gof = new GoodnessOfFitAccumulator(probabilities);
+        Random random = new Random(20111106L);
+        Map<Integer, Integer> actual = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 1800; i++) {
+            int roll = random.nextInt(6) + random.nextInt(6) + 2;
+            gof.add(roll);
+            Integer count = actual.get(roll);
+            actual.put(roll, (count == null) ? 1 : count + 1);
+        }
+        ChiSquaredTable cst = new ChiSquaredTable.Builder().build();
+        assertEquals(cst.calculateChiSquared(probabilities, actual, 1800), gof.chiSquared(),
+                     1e-12 * gof.chiSquared());
+    }
+}
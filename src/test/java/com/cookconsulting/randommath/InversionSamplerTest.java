@@ -0,0 +1,125 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class InversionSamplerTest {
+
+    // logistic distribution: exact, cheap cdf and pdf
+    private static final UnivariateFunction LOGISTIC_CDF = new UnivariateFunction() {
+        public double value(double x) {
+            return 1.0 / (1.0 + Math.exp(-x));
+        }
+    };
+
+    private static final UnivariateFunction LOGISTIC_PDF = new UnivariateFunction() {
+        public double value(double x) {
+            double e = Math.exp(-Math.abs(x));
+            return e / ((1.0 + e) * (1.0 + e));
+        }
+    };
+
+    private double maxError(InversionSampler sampler, UnivariateFunction cdf, double lower,
+                            double upper) {
+        double offset = cdf.value(lower);
+        double range = cdf.value(upper) - offset;
+        double max = 0.0;
+        for (int i = 1; i < 100000; i++) {
+            double p = i / 100000.0;
+            double error = Math.abs((cdf.value(sampler.quantile(p)) - offset) / range - p);
+            max = Math.max(max, error);
+        }
+        return max;
+    }
+
+    @Test
+    public void testLinearResolution() {
+        InversionSampler sampler = new InversionSampler.Builder(LOGISTIC_CDF)
+            .domain(-30, 30).resolution(1e-8).build();
+        double error = maxError(sampler, LOGISTIC_CDF, -30, 30);
+        System.out.println(String.format("Linear inversion: knots: %d max u-error: %g",
+                                         sampler.getTableSize(), error));
+        assertTrue(error <= 1e-8);
+    }
+
+    @Test
+    public void testHermiteResolution() {
+        InversionSampler sampler = new InversionSampler.Builder(LOGISTIC_CDF)
+            .pdf(LOGISTIC_PDF).domain(-30, 30).resolution(1e-10).build();
+        double error = maxError(sampler, LOGISTIC_CDF, -30, 30);
+        System.out.println(String.format("Hermite inversion: knots: %d max u-error: %g",
+                                         sampler.getTableSize(), error));
+        assertTrue(error <= 1e-10);
+    }
+
+    @Test
+    public void testBuildCost() {
+        final int[] calls = new int[1];
+        UnivariateFunction counted = new UnivariateFunction() {
+            public double value(double x) {
+                calls[0]++;
+                return LOGISTIC_CDF.value(x);
+            }
+        };
+        InversionSampler sampler = new InversionSampler.Builder(counted)
+            .domain(-30, 30).resolution(1e-10).build();
+        // once per knot, and three checks for each interval ever created, about two per knot
+        assertTrue(calls[0] <= 8 * sampler.getTableSize());
+    }
+
+    @Test
+    public void testPhiSamples() {
+        UnivariateFunction phi = new UnivariateFunction() {
+            public double value(double x) {
+                return Phi.phi(x);
+            }
+        };
+        InversionSampler sampler = new InversionSampler.Builder(phi)
+            .domain(-7, 7).resolution(1e-6).build();
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(2718L);
+        double[] values = new double[200000];
+        rnf.fill(sampler, values);
+        RunningStats rs = new RunningStats();
+        for (double value : values) {
+            rs.push(value);
+        }
+        System.out.println(String.format("Phi inversion: knots: %d mean: %f variance: %f",
+                                         sampler.getTableSize(), rs.mean(), rs.variance()));
+        assertEquals(0.0, rs.mean(), 0.01);
+        assertEquals(1.0, rs.variance(), 0.02);
+        assertEquals(0.5, sampler.cdf(0.0), 1e-6);
+        assertEquals(1.0 / Math.sqrt(2 * Math.PI), sampler.pdf(0.0), 1e-3);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        InversionSampler sampler = new InversionSampler.Builder(LOGISTIC_CDF)
+            .pdf(LOGISTIC_PDF).domain(-30, 30).resolution(1e-9).build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sampler.save(out);
+        InversionSampler loaded =
+            InversionSampler.load(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(sampler.getTableSize(), loaded.getTableSize());
+        for (int i = 0; i <= 1000; i++) {
+            double p = i / 1000.0;
+            assertTrue(sampler.quantile(p) == loaded.quantile(p));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInfiniteDomain() {
+        new InversionSampler.Builder(LOGISTIC_CDF)
+            .domain(Double.NEGATIVE_INFINITY, 0).build();
+    }
+}
@@ -8,7 +8,9 @@ import java.math.RoundingMode;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Todd Cook - refactoring, documentation, maven integration
@@ -59,6 +61,103 @@ public class LogFactorialTest {
                                " max absolute error: " + max_absolute_error);
     }
 
+    @Test
+    public void testCachedValues() {
+        // values past the fixed table come from the lazily grown cache, and beyond the cache
+        // limit from Stirling's series; both must agree with logGamma
+        int[] seeds = {255, 256, 1000, 4097, 100000, 2000000};
+        for (int n : seeds) {
+            double expected = Gamma.logGamma(n + 1.0);
+            assertEquals(expected, LogFactorial.logFactorial(n), 1e-14 * expected);
+            assertEquals(expected, LogFactorial.logFactorial((long) n), 1e-14 * expected);
+        }
+        double big = LogFactorial.logFactorial(5000000000L);
+        assertEquals(Gamma.logGamma(5000000001.0), big, 1e-14 * big);
+    }
+
+    @Test
+    public void testLogChoose() {
+        // exact range
+        assertEquals(Math.log(10.0), LogFactorial.logChoose(5, 2), 1e-15);
+        assertEquals(Math.log(5.0), LogFactorial.logChoose(5, 4), 1e-15);
+        // C(62, 31) = 465428353255261088, just past the exact range
+        assertEquals(Math.log(465428353255261088.0), LogFactorial.logChoose(62, 31), 1e-15 * 40);
+        // sum of logs and table differences; expected values are log(C(n, k)) of the exact
+        // integer coefficients
+        int[][] cases = {{1000, 3}, {1000, 997}, {100000, 30}, {1000, 500}, {20000, 7000},
+            {1000000, 400000}};
+        double[] expected = {18.9285038647141, 18.9285038647141, 270.7251771724636,
+            689.4672615678512, 12943.80238675512, 673004.5538733582};
+        for (int i = 0; i < cases.length; i++) {
+            double actual = LogFactorial.logChoose(cases[i][0], cases[i][1]);
+            assertEquals(expected[i], actual, 1e-13 * expected[i]);
+        }
+        assertEquals(0.0, LogFactorial.logChoose(0, 0), 0.0);
+    }
+
+    @Test
+    public void testNegativeLong() {
+        // values that wrap to a valid int when narrowed
+        for (long n : new long[]{-1L, -4294967296L, -4294967295L, Long.MIN_VALUE}) {
+            try {
+                LogFactorial.logFactorial(n);
+                fail("no exception for " + n);
+            }
+            catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidChoose() {
+        LogFactorial.logChoose(5, 6);
+    }
+
+    @Test
+    public void testLogMultinomial() {
+        // 10! / (2! 3! 5!) = 2520
+        assertEquals(Math.log(2520.0), LogFactorial.logMultinomial(new int[]{2, 3, 5}), 1e-13);
+        assertEquals(LogFactorial.logChoose(3000, 1200),
+                     LogFactorial.logMultinomial(new int[]{1200, 1800}), 1e-10);
+    }
+
+    @Test
+    public void testLogPmfVectors() {
+        int n = 5000;
+        double p = 0.3;
+        double[] binomial = new double[n + 1];
+        LogFactorial.logBinomialPmf(n, p, binomial);
+        double total = 0.0;
+        double maxError = 0.0;
+        for (int k = 0; k <= n; k++) {
+            double direct = LogFactorial.logChoose(n, k) + k * Math.log(p) + (n - k) * Math.log1p(-p);
+            maxError = Math.max(maxError, Math.abs(binomial[k] - direct) / Math.max(1.0, Math.abs(direct)));
+            total += Math.exp(binomial[k]);
+        }
+        assertEquals(1.0, total, 1e-12);
+        assertTrue(maxError < 1e-12);
+
+        double mean = 750.5;
+        double[] poisson = new double[3000];
+        LogFactorial.logPoissonPmf(mean, poisson);
+        total = 0.0;
+        double poissonError = 0.0;
+        for (int k = 0; k < poisson.length; k++) {
+            double direct = k * Math.log(mean) - mean - Gamma.logGamma(k + 1.0);
+            poissonError = Math.max(poissonError,
+                                    Math.abs(poisson[k] - direct) / Math.max(1.0, Math.abs(direct)));
+            total += Math.exp(poisson[k]);
+        }
+        assertEquals(1.0, total, 1e-12);
+        assertTrue(poissonError < 1e-12);
+        System.out.println("LogFactorial: binomial pmf max relative error: " + maxError +
+                               " poisson pmf max relative error: " + poissonError);
+
+        LogFactorial.logBinomialPmf(4, 0.0, binomial);
+        assertEquals(0.0, binomial[0], 0.0);
+        assertEquals(Double.NEGATIVE_INFINITY, binomial[4], 0.0);
+    }
+
     /**
      * Convert Log 10 to natural log, by multiplying the natural log of 10
      *
@@ -0,0 +1,130 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check binomial probabilities against exact values, multinomial counts against their
+ * binomial marginals, and Dirichlet components against their means and variances.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class MultinomialSamplerTest {
+
+    private static final int SAMPLES = 200000;
+
+    private static double frequency(long[] values, long k) {
+        long count = 0;
+        for (long value : values) {
+            if (value == k) {
+                count++;
+            }
+        }
+        return count / (double) values.length;
+    }
+
+    @Test
+    public void testBinomial() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(20111106L);
+        long[] values = new long[SAMPLES];
+        // transformed rejection
+        rnf.fill(new BinomialSampler(1000, 0.3), values);
+        assertEquals(0.021870948128107748, frequency(values, 290), 0.0015);
+        assertEquals(0.027521003821266855, frequency(values, 300), 0.0015);
+        assertEquals(0.02152338347986599, frequency(values, 310), 0.0015);
+        // inversion
+        rnf.fill(new BinomialSampler(30, 0.1), values);
+        assertEquals(0.04239115827521624, frequency(values, 0), 0.002);
+        assertEquals(0.23608793223234287, frequency(values, 3), 0.003);
+        assertEquals(0.047363319737970026, frequency(values, 6), 0.002);
+        // reflected
+        rnf.fill(new BinomialSampler(30, 0.9), values);
+        assertEquals(0.04239115827521624, frequency(values, 30), 0.002);
+
+        RunningStats rs = new RunningStats();
+        for (int i = 0; i < SAMPLES; i++) {
+            rs.push(rnf.getBinomial(1000000000L, 0.25));
+        }
+        double variance = 1.0e9 * 0.25 * 0.75;
+        System.out.println(String.format("binomial: expected mean: %f computed mean: %f expected variance:" +
+                                             " %f computed variance: %f", 2.5e8, rs.mean(),
+                                         variance, rs.variance()));
+        assertEquals(2.5e8, rs.mean(), 5.0 * Math.sqrt(variance / SAMPLES));
+        assertEquals(variance, rs.variance(), 0.02 * variance);
+    }
+
+    @Test
+    public void testMultinomial() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(42L);
+        double[] weights = {2.0, 0.0, 5.0, 3.0};
+        long trials = 1000;
+        int draws = 50000;
+        MultinomialSampler sampler = new MultinomialSampler(trials, weights);
+        long[] block = new long[draws * weights.length];
+        sampler.fill(rnf, block, draws);
+        long[] counts = new long[weights.length];
+        RunningStats[] stats = new RunningStats[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            stats[i] = new RunningStats();
+        }
+        for (int d = 0; d < draws; d++) {
+            long sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                long count = block[d * weights.length + i];
+                sum += count;
+                stats[i].push(count);
+            }
+            assertEquals(trials, sum);
+        }
+        for (int i = 0; i < weights.length; i++) {
+            double p = weights[i] / 10.0;
+            assertEquals(trials * p, stats[i].mean(), 0.5);
+            assertEquals(trials * p * (1 - p), stats[i].variance(), 0.03 * trials * p * (1 - p) + 1e-9);
+        }
+        rnf.getMultinomial(trials, weights, counts);
+        assertEquals(0, counts[1]);
+        assertEquals(trials, counts[0] + counts[2] + counts[3]);
+    }
+
+    @Test
+    public void testDirichlet() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(7L);
+        double[] alpha = {0.5, 2.0, 7.5};
+        double alpha0 = 10.0;
+        double[] vector = new double[alpha.length];
+        RunningStats[] stats = new RunningStats[alpha.length];
+        for (int i = 0; i < alpha.length; i++) {
+            stats[i] = new RunningStats();
+        }
+        for (int n = 0; n < SAMPLES; n++) {
+            rnf.getDirichlet(alpha, vector);
+            double sum = 0.0;
+            for (int i = 0; i < alpha.length; i++) {
+                assertTrue(vector[i] >= 0.0);
+                sum += vector[i];
+                stats[i].push(vector[i]);
+            }
+            assertEquals(1.0, sum, 1e-12);
+        }
+        for (int i = 0; i < alpha.length; i++) {
+            double mean = alpha[i] / alpha0;
+            double variance = alpha[i] * (alpha0 - alpha[i]) / (alpha0 * alpha0 * (alpha0 + 1.0));
+            System.out.println(String.format("Dirichlet component %d: expected mean: %f computed mean: %f" +
+                                                 " expected variance: %f computed variance: %f",
+                                             i, mean, stats[i].mean(), variance, stats[i].variance()));
+            assertEquals(mean, stats[i].mean(), 0.002);
+            assertEquals(variance, stats[i].variance(), 0.02 * variance);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWeights() {
+        new MultinomialSampler(10, new double[]{0.0, 0.0});
+    }
+}
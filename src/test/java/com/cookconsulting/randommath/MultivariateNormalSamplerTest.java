@@ -0,0 +1,144 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the sample means and covariances of the generated vectors
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class MultivariateNormalSamplerTest {
+
+    private static final int SAMPLES = 100000;
+
+    private double[][] sampleCovariance(double[] values, double[] mean, int n) {
+        int count = values.length / n;
+        double[][] cov = new double[n][n];
+        for (int k = 0; k < count; k++) {
+            for (int i = 0; i < n; i++) {
+                mean[i] += values[k * n + i] / count;
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    cov[i][j] += (values[k * n + i] - mean[i]) * (values[k * n + j] - mean[j])
+                        / (count - 1);
+                }
+            }
+        }
+        return cov;
+    }
+
+    @Test
+    public void testPositiveDefinite() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(1234L);
+        double[] mean = {1.0, -2.0, 0.5};
+        double[][] covariance = {{4.0, 1.2, -0.8},
+                                 {1.2, 2.0, 0.3},
+                                 {-0.8, 0.3, 1.0}};
+        MultivariateNormalSampler sampler = new MultivariateNormalSampler(mean, covariance);
+        assertTrue(sampler.isCholesky());
+        double[] values = new double[SAMPLES * 3];
+        sampler.fill(rnf, values);
+        double[] sampleMean = new double[3];
+        double[][] cov = sampleCovariance(values, sampleMean, 3);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(mean[i], sampleMean[i], 0.03);
+            for (int j = 0; j < 3; j++) {
+                System.out.println(String.format("covariance(%d, %d) expected: %f actual: %f",
+                                                 i, j, covariance[i][j], cov[i][j]));
+                assertEquals(covariance[i][j], cov[i][j], 0.05);
+            }
+        }
+    }
+
+    @Test
+    public void testSamplingModes() {
+        double[] mean = {1.0, -2.0, 0.5};
+        double[][] covariance = {{1.0, 0.0, 0.0},
+                                 {0.0, 1.0, 0.0},
+                                 {0.0, 0.0, 1.0}};
+        MultivariateNormalSampler sampler = new MultivariateNormalSampler(mean, covariance);
+        for (SamplingMode mode : SamplingMode.values()) {
+            RandomNumberFactory rnf =
+                new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+            rnf.setSeed(4321L);
+            rnf.setSamplingMode(mode);
+            // an odd number of vectors leaves an antithetic vector unpaired
+            double[] values = new double[(SAMPLES + 1) * 3];
+            sampler.fill(rnf, values);
+            double[] sampleMean = new double[3];
+            double[][] cov = sampleCovariance(values, sampleMean, 3);
+            for (int i = 0; i < 3; i++) {
+                assertEquals(mode.name(), mean[i], sampleMean[i], 0.02);
+                for (int j = 0; j < 3; j++) {
+                    assertEquals(mode.name() + String.format(" covariance(%d, %d)", i, j),
+                                 covariance[i][j], cov[i][j], 0.03);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSemiDefinite() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(99L);
+        // the second component is an exact copy of the first
+        double[] mean = {0.0, 0.0, 3.0};
+        double[][] covariance = {{1.0, 1.0, 0.0},
+                                 {1.0, 1.0, 0.0},
+                                 {0.0, 0.0, 2.0}};
+        MultivariateNormalSampler sampler = new MultivariateNormalSampler(mean, covariance);
+        assertFalse(sampler.isCholesky());
+        double[] values = new double[SAMPLES * 3];
+        sampler.fill(rnf, values);
+        for (int k = 0; k < SAMPLES; k++) {
+            assertEquals(values[k * 3], values[k * 3 + 1], 1e-9);
+        }
+        double[] sampleMean = new double[3];
+        double[][] cov = sampleCovariance(values, sampleMean, 3);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(mean[i], sampleMean[i], 0.03);
+            for (int j = 0; j < 3; j++) {
+                assertEquals(covariance[i][j], cov[i][j], 0.05);
+            }
+        }
+    }
+
+    @Test
+    public void testFactorReproducesCovariance() {
+        double[] a = {2.0, -1.0, 0.0, 0.5,
+                      -1.0, 2.0, -1.0, 0.0,
+                      0.0, -1.0, 2.0, -1.0,
+                      0.5, 0.0, -1.0, 2.0};
+        double[] f = MultivariateNormalSampler.eigenFactor(a, 4);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                double sum = 0.0;
+                for (int k = 0; k < 4; k++) {
+                    sum += f[i * 4 + k] * f[j * 4 + k];
+                }
+                assertEquals(a[i * 4 + j], sum, 1e-12);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIndefinite() {
+        new MultivariateNormalSampler(new double[]{0.0, 0.0},
+                                      new double[][]{{1.0, 2.0}, {2.0, 1.0}});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAsymmetric() {
+        new MultivariateNormalSampler(new double[]{0.0, 0.0},
+                                      new double[][]{{1.0, 0.5}, {0.4, 1.0}});
+    }
+}
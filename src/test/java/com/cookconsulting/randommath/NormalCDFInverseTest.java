@@ -5,6 +5,7 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -85,4 +86,44 @@ public class NormalCDFInverseTest {
         System.out.println("NormalCDFInverse: max relative error: " + max_relative_error +
                                " max absolute error: " + max_absolute_error);
     }
-}
\ No newline at end of file
+
+    /**
+     * reference values from an independent AS241 implementation
+     */
+    @Test
+    public void testAccuracy() {
+        double[] seeds = {1e-300, 1e-20, 1e-7, 0.025, 0.3, 0.5, 0.9, 0.999999};
+        double[] results = {-37.0470962993612, -9.262340089798405, -5.199337582192817,
+            -1.9599639845400538, -0.5244005127080407, 0.0, 1.2815515655446008, 4.753424308817089};
+        for (int ii = 0; ii < seeds.length; ii++) {
+            assertEquals(results[ii], NormalCDFInverse.normalCDFInverse(seeds[ii]),
+                         1e-15 * Math.abs(results[ii]));
+        }
+        assertEquals(Double.NEGATIVE_INFINITY, NormalCDFInverse.normalCDFInverse(0.0), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, NormalCDFInverse.normalCDFInverse(1.0), 0.0);
+        // the smallest normal double and subnormal probabilities, down to Double.MIN_VALUE
+        double[] subnormals = {Double.MIN_NORMAL, 1e-310, 1e-320, Double.MIN_VALUE};
+        double[] quantiles = {-37.5193793471445, -37.663060331949524, -38.26912534303265,
+            -38.467405617144344};
+        for (int ii = 0; ii < subnormals.length; ii++) {
+            assertEquals(quantiles[ii], NormalCDFInverse.normalCDFInverse(subnormals[ii]),
+                         1e-14 * Math.abs(quantiles[ii]));
+            assertEquals(quantiles[ii], new NormalDistribution(0, 1).quantile(subnormals[ii]),
+                         1e-14 * Math.abs(quantiles[ii]));
+        }
+        double[] bulk = subnormals.clone();
+        NormalCDFInverse.normalCDFInverse(bulk, bulk, 0, bulk.length);
+        for (int ii = 0; ii < subnormals.length; ii++) {
+            assertEquals(quantiles[ii], bulk[ii], 1e-14 * Math.abs(quantiles[ii]));
+        }
+        // round trip through Phi
+        for (double p = 0.001; p < 1.0; p += 0.001) {
+            assertEquals(p, Phi.phi(NormalCDFInverse.normalCDFInverse(p)), 1e-15);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidProbability() {
+        NormalCDFInverse.normalCDFInverse(1.5);
+    }
+}
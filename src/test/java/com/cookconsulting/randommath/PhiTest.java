@@ -12,6 +12,7 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class PhiTest {
@@ -55,4 +56,11 @@ public class PhiTest {
         System.out.println("Phi: max relative error: " + max_relative_error +
                                " max absolute error: " + max_absolute_error);
     }
+
+    @Test
+    public void testTails() {
+        assertEquals(7.619853024160593e-24, Phi.phi(-10.0), 1e-13 * 7.619853024160593e-24);
+        assertEquals(6.220960574271819e-16, Phi.phiComplement(8.0), 1e-13 * 6.220960574271819e-16);
+        assertEquals(Phi.phi(-3.0), Phi.phiComplement(3.0), 0.0);
+    }
 }
@@ -0,0 +1,59 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The evaluation schemes of Polynomials against exact sums. Their latencies are in
+ * Benchmarks.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class PolynomialsTest {
+
+    private static double exact(double[] c, double x) {
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal power = BigDecimal.ONE;
+        BigDecimal bx = new BigDecimal(x);
+        for (double coefficient : c) {
+            sum = sum.add(power.multiply(new BigDecimal(coefficient)));
+            power = power.multiply(bx);
+        }
+        return sum.round(MathContext.DECIMAL64).doubleValue();
+    }
+
+    @Test
+    public void testAgreesWithExactSum() {
+        Random random = new Random(20111106L);
+        for (int n = 1; n <= 17; n++) {
+            double[] c = new double[n];
+            for (int trial = 0; trial < 200; trial++) {
+                for (int i = 0; i < n; i++) {
+                    // positive coefficients and arguments, so that no scheme suffers cancellation
+                    c[i] = random.nextDouble() + 0.5;
+                }
+                double x = random.nextDouble() * 1.5;
+                double expected = exact(c, x);
+                double tolerance = 4 * n * Math.ulp(expected);
+                assertEquals(expected, Polynomials.horner(c, x), tolerance);
+                assertEquals(expected, Polynomials.estrin(c, x), tolerance);
+                assertEquals(expected, Polynomials.evenOdd(c, x), tolerance);
+            }
+        }
+        double[] numerator = {1.0, 2.0, 1.0};
+        double[] denominator = {1.0, 1.0};
+        assertEquals(3.5, Polynomials.rational(numerator, denominator, 2.5), 1e-15);
+        double[] in = {-2.0, 0.0, 3.0};
+        double[] out = new double[3];
+        Polynomials.estrin(numerator, in, out, 0, 3);
+        assertEquals(1.0, out[0], 0.0);
+        assertEquals(1.0, out[1], 0.0);
+        assertEquals(16.0, out[2], 0.0);
+    }
+}
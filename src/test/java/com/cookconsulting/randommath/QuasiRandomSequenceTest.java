@@ -0,0 +1,185 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the Sobol and Halton low-discrepancy sequences
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class QuasiRandomSequenceTest {
+
+    @Test
+    public void testSobolFirstPoints() {
+        SobolSequence sobol = new SobolSequence(3);
+        double[][] expected = {{0.5, 0.5, 0.5},
+                               {0.75, 0.25, 0.25},
+                               {0.25, 0.75, 0.75},
+                               {0.375, 0.375, 0.625},
+                               {0.875, 0.875, 0.125},
+                               {0.625, 0.125, 0.875},
+                               {0.125, 0.625, 0.375}};
+        double[] point = new double[3];
+        for (double[] row : expected) {
+            sobol.nextPoint(point);
+            for (int j = 0; j < 3; j++) {
+                assertEquals(row[j], point[j], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testHaltonFirstPoints() {
+        HaltonSequence halton = new HaltonSequence(2);
+        double[][] expected = {{0.5, 1 / 3.0},
+                               {0.25, 2 / 3.0},
+                               {0.75, 1 / 9.0},
+                               {0.125, 4 / 9.0}};
+        double[] point = new double[2];
+        for (double[] row : expected) {
+            halton.nextPoint(point);
+            assertEquals(row[0], point[0], 1e-15);
+            assertEquals(row[1], point[1], 1e-15);
+        }
+    }
+
+    private void checkSkipTo(QuasiRandomSequence sequential, QuasiRandomSequence skipped) {
+        int d = sequential.getDimension();
+        double[] block = new double[1000 * d];
+        sequential.fill(block, 1000);
+        double[] point = new double[d];
+        for (long index : new long[]{1, 2, 77, 500, 999}) {
+            skipped.skipTo(index + 1);
+            skipped.nextPoint(point);
+            for (int j = 0; j < d; j++) {
+                assertTrue(point[j] == block[(int) index * d + j]);
+            }
+        }
+    }
+
+    @Test
+    public void testSkipTo() {
+        checkSkipTo(new SobolSequence(20), new SobolSequence(20));
+        checkSkipTo(new HaltonSequence(7), new HaltonSequence(7));
+        RandomNumberFactory first = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        RandomNumberFactory second = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        first.setSeed(5L);
+        second.setSeed(5L);
+        checkSkipTo(new SobolSequence(5, first), new SobolSequence(5, second));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHaltonOrigin() {
+        // the origin would map to -Infinity in fillNormal
+        new HaltonSequence(3).skipTo(0);
+    }
+
+    /**
+     * The first 2^m points of a Sobol sequence (including the origin) put exactly one point in
+     * each interval [k / 2^m, (k + 1) / 2^m) of every coordinate; scrambling preserves this.
+     */
+    @Test
+    public void testStratification() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(11L);
+        QuasiRandomSequence[] sequences = {new SobolSequence(SobolSequence.MAX_DIMENSION),
+                                           new SobolSequence(50, rnf)};
+        for (QuasiRandomSequence sequence : sequences) {
+            int d = sequence.getDimension();
+            int n = 1024;
+            sequence.skipTo(0);
+            double[] block = new double[n * d];
+            sequence.fill(block, n);
+            for (int j = 0; j < d; j++) {
+                boolean[] seen = new boolean[n];
+                for (int k = 0; k < n; k++) {
+                    double value = block[k * d + j];
+                    assertTrue(value > 0.0 && value < 1.0);
+                    int cell = (int) (value * n);
+                    assertTrue("dimension " + j, !seen[cell]);
+                    seen[cell] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPrimitivePolynomials() {
+        // degrees 1 to 12 have 1, 1, 2, 2, 6, 6, 18, 16, 48, 60, 176, 144 primitive polynomials
+        int[] expected = {1, 1, 2, 2, 6, 6, 18, 16, 48, 60, 176, 144};
+        for (int s = 1; s <= expected.length; s++) {
+            int count = 0;
+            for (int a = 0; a < (1 << (s - 1)); a++) {
+                if (SobolSequence.DirectionNumbers.isPrimitive(s, a)) {
+                    count++;
+                }
+            }
+            assertEquals("degree " + s, expected[s - 1], count);
+        }
+    }
+
+    /**
+     * Integrate prod(1 + (x_j - 0.5) / j) over the unit cube, exactly 1, and compare the
+     * quasi-Monte Carlo error with pseudo-random sampling.
+     */
+    @Test
+    public void testIntegration() {
+        int d = 8;
+        int n = 1 << 14;
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(2011L);
+        double[] block = new double[n * d];
+        QuasiRandomSequence[] sequences = {new SobolSequence(d), new HaltonSequence(d)};
+        double pseudoRandom = 0.0;
+        for (int k = 0; k < n; k++) {
+            double f = 1.0;
+            for (int j = 0; j < d; j++) {
+                f *= 1.0 + (rnf.getUniform() - 0.5) / (j + 1);
+            }
+            pseudoRandom += f / n;
+        }
+        System.out.println(String.format("pseudo-random integration error: %g",
+                                         Math.abs(pseudoRandom - 1.0)));
+        for (QuasiRandomSequence sequence : sequences) {
+            sequence.fill(block, n);
+            double sum = 0.0;
+            for (int k = 0; k < n; k++) {
+                double f = 1.0;
+                for (int j = 0; j < d; j++) {
+                    f *= 1.0 + (block[k * d + j] - 0.5) / (j + 1);
+                }
+                sum += f / n;
+            }
+            System.out.println(String.format("%s integration error: %g",
+                                             sequence.getClass().getSimpleName(),
+                                             Math.abs(sum - 1.0)));
+            assertEquals(1.0, sum, 1e-3);
+        }
+    }
+
+    @Test
+    public void testQuasiRandomNormals() {
+        SobolSequence sobol = new SobolSequence(2);
+        int n = 1 << 16;
+        double[] block = new double[n * 2];
+        sobol.fillNormal(block, n);
+        RunningStats rs = new RunningStats();
+        for (double value : block) {
+            rs.push(value);
+        }
+        assertEquals(0.0, rs.mean(), 1e-3);
+        assertEquals(1.0, rs.variance(), 1e-2);
+        sobol.skipTo(1);
+        sobol.fill(new ExponentialDistribution(2), block, n);
+        rs.clear();
+        rs = new RunningStats();
+        for (double value : block) {
+            rs.push(value);
+        }
+        assertEquals(2.0, rs.mean(), 1e-3);
+    }
+}
@@ -46,6 +46,22 @@ public class RandomNumberFactoryTest {
         assertTrue((Long) rnf.getUInt() <= UInt.MAX_VALUE);
     }
 
+    @Test
+    public void fillNormal() {
+        RandomNumberFactory rnf =
+            new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(8211L);
+        double[] values = new double[100001];
+        rnf.fillNormal(values);
+        RunningStats rs = new RunningStats();
+        for (double value : values) {
+            rs.push(value);
+        }
+        PrintResults("bulk normal", 0.0, 1.0, rs.mean(), rs.variance());
+        assertTrue(Math.abs(rs.mean()) < 0.02);
+        assertTrue(Math.abs(rs.variance() - 1.0) < 0.02);
+    }
+
     /**
      * Kolmogorov-Smirnov test for distributions.  See Knuth volume 2, page 48-51 (third edition).
      * This test should *fail* on average one time in 1000 runs.
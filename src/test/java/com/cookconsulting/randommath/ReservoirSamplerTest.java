@@ -0,0 +1,109 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Every item of a stream of n should end up in a reservoir of capacity k with probability
+ * k / n; in a weighted reservoir of capacity 1, with probability proportional to its weight.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class ReservoirSamplerTest {
+
+    private static final int STREAM = 1000;
+    private static final int CAPACITY = 10;
+    private static final int TRIALS = 4000;
+    private static final int BLOCKS = 10;
+
+    private static ReservoirSampler<Integer> create(boolean vitter, RandomNumberGenerator rng) {
+        return vitter ? new ReservoirSamplerZ<Integer>(CAPACITY, rng) :
+            new ReservoirSamplerL<Integer>(CAPACITY, rng);
+    }
+
+    private static void checkUniform(boolean vitter, boolean merged) {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(20111106L);
+        long[] hits = new long[BLOCKS];
+        for (int trial = 0; trial < TRIALS; trial++) {
+            ReservoirSampler<Integer> sampler = create(vitter, rnf);
+            if (merged) {
+                ReservoirSampler<Integer> second = create(vitter, rnf);
+                for (int i = 0; i < STREAM; i++) {
+                    (i < 300 ? sampler : second).add(i);
+                }
+                sampler.merge(second);
+            }
+            else {
+                for (int i = 0; i < STREAM; i++) {
+                    sampler.add(i);
+                }
+            }
+            assertEquals(STREAM, sampler.getCount());
+            assertEquals(CAPACITY, sampler.getSample().size());
+            for (int item : sampler.getSample()) {
+                hits[item * BLOCKS / STREAM]++;
+            }
+        }
+        double expected = TRIALS * CAPACITY / (double) BLOCKS;
+        double chiSquared = 0.0;
+        for (long hit : hits) {
+            chiSquared += (hit - expected) * (hit - expected) / expected;
+        }
+        System.out.println(String.format("reservoir %s%s: chi squared over %d blocks: %f",
+                                         vitter ? "Z" : "L", merged ? " merged" : "",
+                                         BLOCKS, chiSquared));
+        // 99.9th percentile of chi square with 9 degrees of freedom
+        assertTrue(chiSquared < 27.877);
+    }
+
+    @Test
+    public void testAlgorithmL() {
+        checkUniform(false, false);
+        checkUniform(false, true);
+    }
+
+    @Test
+    public void testAlgorithmZ() {
+        checkUniform(true, false);
+        checkUniform(true, true);
+    }
+
+    @Test
+    public void testShortStream() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        ReservoirSampler<String> sampler = new ReservoirSamplerZ<String>(5, rnf);
+        sampler.add("a");
+        sampler.add("b");
+        assertEquals(2, sampler.getSample().size());
+    }
+
+    @Test
+    public void testWeighted() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(42L);
+        int trials = 20000;
+        long[] hits = new long[4];
+        for (int trial = 0; trial < trials; trial++) {
+            WeightedReservoirSampler<Integer> sampler = new WeightedReservoirSampler<Integer>(1, rnf);
+            WeightedReservoirSampler<Integer> second = new WeightedReservoirSampler<Integer>(1, rnf);
+            for (int i = 0; i < 400; i++) {
+                (i < 200 ? sampler : second).add(i % 4, i % 4 + 1.0);
+            }
+            sampler.merge(second);
+            hits[sampler.getSample().get(0)]++;
+        }
+        for (int i = 0; i < hits.length; i++) {
+            assertEquals((i + 1) / 10.0, hits[i] / (double) trials, 0.01);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        new WeightedReservoirSampler<String>(3, rnf).add("a", -1.0);
+    }
+}
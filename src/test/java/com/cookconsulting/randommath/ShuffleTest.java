@@ -0,0 +1,138 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Shuffles must be permutations with every element equally likely in every position;
+ * combinations must be sorted k-subsets with every element equally likely to be chosen.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class ShuffleTest {
+
+    @Test
+    public void testPositionsUniform() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(20111106L);
+        int n = 8;
+        int trials = 80000;
+        long[][] counts = new long[n][n];
+        for (int trial = 0; trial < trials; trial++) {
+            int[] permutation = Shuffle.permutation(rnf, n);
+            for (int i = 0; i < n; i++) {
+                counts[permutation[i]][i]++;
+            }
+        }
+        double expected = trials / (double) n;
+        double chiSquared = 0.0;
+        for (long[] row : counts) {
+            for (long count : row) {
+                chiSquared += (count - expected) * (count - expected) / expected;
+            }
+        }
+        System.out.println(String.format("shuffle positions: chi squared with 49 degrees of freedom: %f",
+                                         chiSquared));
+        // 99.9th percentile of chi square with 49 degrees of freedom
+        assertTrue(chiSquared < 85.35);
+    }
+
+    @Test
+    public void testAllPermutationsOfThree() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(42L);
+        int trials = 60000;
+        long[] counts = new long[27];
+        for (int trial = 0; trial < trials; trial++) {
+            double[] values = {0.0, 1.0, 2.0};
+            Shuffle.shuffle(rnf, values);
+            counts[(int) (values[0] * 9 + values[1] * 3 + values[2])]++;
+        }
+        int nonZero = 0;
+        for (long count : counts) {
+            if (count > 0) {
+                nonZero++;
+                assertEquals(1.0 / 6.0, count / (double) trials, 0.01);
+            }
+        }
+        assertEquals(6, nonZero);
+    }
+
+    @Test
+    public void testBoundedInt() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(7L);
+        long[] counts = new long[7];
+        for (int i = 0; i < 70000; i++) {
+            counts[Shuffle.boundedInt(rnf, 7)]++;
+        }
+        for (long count : counts) {
+            assertEquals(10000, count, 500);
+        }
+    }
+
+    @Test
+    public void testCombination() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(3L);
+        int n = 100;
+        int[] sizes = {3, 50};
+        for (int k : sizes) {
+            long[] counts = new long[n];
+            int trials = 20000;
+            for (int trial = 0; trial < trials; trial++) {
+                int[] combination = Shuffle.combination(rnf, n, k);
+                assertEquals(k, combination.length);
+                for (int i = 1; i < k; i++) {
+                    assertTrue(combination[i - 1] < combination[i]);
+                }
+                for (int index : combination) {
+                    counts[index]++;
+                }
+            }
+            double expected = trials * k / (double) n;
+            for (long count : counts) {
+                assertEquals(expected, count, 6.0 * Math.sqrt(expected));
+            }
+        }
+        int[] sample = Shuffle.sample(rnf, 10, 10);
+        Arrays.sort(sample);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, sample[i]);
+        }
+        assertArrayEquals(new int[0], Shuffle.permutation(rnf, 0));
+    }
+
+    @Test
+    public void testParallelShuffle() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(11L);
+        int n = (1 << 21) + 12345;
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        long start = System.currentTimeMillis();
+        Shuffle.parallelShuffle(rnf, values);
+        System.out.println(String.format("parallel shuffle of %d ints: %d ms", n,
+                                         System.currentTimeMillis() - start));
+        // elements from the first block must be spread over the whole array
+        long firstBlockInLastQuarter = 0;
+        for (int i = 3 * n / 4; i < n; i++) {
+            if (values[i] < 1 << 16) {
+                firstBlockInLastQuarter++;
+            }
+        }
+        assertEquals((1 << 16) / 4.0, firstBlockInLastQuarter, 600);
+        Arrays.sort(values);
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, values[i]);
+        }
+    }
+}
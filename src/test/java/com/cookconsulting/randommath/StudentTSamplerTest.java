@@ -0,0 +1,71 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The variance of a Student's t distribution with df > 2 degrees of freedom is df / (df - 2)
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class StudentTSamplerTest {
+
+    @Test
+    public void testMeanAndVariance() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(20111106L);
+        double degreesOfFreedom = 6;
+        StudentTSampler sampler = new StudentTSampler(degreesOfFreedom);
+        double[] values = new double[200000];
+        sampler.fill(rnf, values);
+        RunningStats rs = new RunningStats();
+        for (double value : values) {
+            rs.push(value);
+        }
+        double expectedVariance = degreesOfFreedom / (degreesOfFreedom - 2.0);
+        System.out.println(String.format("Student t: expected variance: %f computed variance: %f" +
+                                             " computed mean: %f", expectedVariance,
+                                         rs.variance(), rs.mean()));
+        assertEquals(0.0, rs.mean(), 0.02);
+        assertEquals(expectedVariance, rs.variance(), 0.05);
+    }
+
+    @Test
+    public void testMedianAndQuartiles() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(42L);
+        // with one degree of freedom the t distribution is the standard Cauchy distribution,
+        // whose quartiles are -1 and 1
+        StudentTSampler sampler = new StudentTSampler(1);
+        int below = 0, inside = 0;
+        int n = 100000;
+        for (int i = 0; i < n; i++) {
+            double t = sampler.sample(rnf);
+            if (t < 0) {
+                below++;
+            }
+            if (t > -1 && t < 1) {
+                inside++;
+            }
+        }
+        assertEquals(0.5, below / (double) n, 0.01);
+        assertEquals(0.5, inside / (double) n, 0.01);
+    }
+
+    @Test
+    public void testFactoryDelegates() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(7L);
+        double first = rnf.getStudentT(4);
+        rnf.setSeed(7L);
+        assertTrue(first == new StudentTSampler(4).sample(rnf));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDegreesOfFreedom() {
+        new StudentTSampler(0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The mean of a standard normal truncated to [a, b] is (phi(a) - phi(b)) / (Phi(b) - Phi(a));
+ * expected values below were computed with erfc in double precision.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class TruncatedNormalDistributionTest {
+
+    private static void checkMean(double lower, double upper, double expectedMean) {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(20111106L);
+        TruncatedNormalDistribution distribution =
+            new TruncatedNormalDistribution(0.0, 1.0, lower, upper);
+        double[] values = new double[100000];
+        rnf.fill(distribution, values);
+        RunningStats rs = new RunningStats();
+        for (double x : values) {
+            assertTrue(x >= lower && x <= upper);
+            rs.push(x);
+        }
+        System.out.println(String.format("truncated normal [%f, %f]: expected mean: %f computed mean: %f",
+                                         lower, upper, expectedMean, rs.mean()));
+        assertEquals(expectedMean, rs.mean(), 0.01 * Math.max(rs.standardDeviation(), 0.01));
+    }
+
+    @Test
+    public void testRegions() {
+        checkMean(5.0, Double.POSITIVE_INFINITY, 5.18650396712583);
+        checkMean(4.0, 6.0, 4.225546931806192);
+        checkMean(-1.0, 2.0, 0.22963717909132897);
+        checkMean(0.5, 0.6, 0.5495418425102327);
+        checkMean(0.1, 3.0, 0.8554961894212577);
+        checkMean(-0.2, 0.3, 0.04896699854187956);
+        // reflected lower tail
+        checkMean(-6.0, -4.0, -4.225546931806192);
+        checkMean(Double.NEGATIVE_INFINITY, -5.0, -5.18650396712583);
+    }
+
+    @Test
+    public void testFarTail() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(42L);
+        // 30 sigma: plain rejection would never finish
+        TruncatedNormalDistribution distribution =
+            new TruncatedNormalDistribution(10.0, 2.0, 70.0, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < 10000; i++) {
+            double x = distribution.sample(rnf);
+            assertTrue(x >= 70.0 && x < 72.0);
+        }
+    }
+
+    @Test
+    public void testCdfQuantile() {
+        TruncatedNormalDistribution distribution =
+            new TruncatedNormalDistribution(1.0, 2.0, -1.0, 4.0);
+        for (double p = 0.05; p < 1.0; p += 0.1) {
+            assertEquals(p, distribution.cdf(distribution.quantile(p)), 1e-3);
+        }
+        assertEquals(0.0, distribution.cdf(-1.0), 0.0);
+        assertEquals(1.0, distribution.cdf(4.0), 0.0);
+        assertEquals(0.0, distribution.pdf(4.5), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBounds() {
+        new TruncatedNormalDistribution(0.0, 1.0, 2.0, 1.0);
+    }
+}
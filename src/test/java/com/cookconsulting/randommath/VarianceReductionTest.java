@@ -0,0 +1,153 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Estimate E[exp(U)] = e - 1 repeatedly in each sampling mode; antithetic and stratified
+ * estimates should have a much smaller spread than independent ones.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class VarianceReductionTest {
+
+    private static double estimatorVariance(SamplingMode mode) {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(20111106L);
+        rnf.setSamplingMode(mode);
+        double[] values = new double[100];
+        RunningStats rs = new RunningStats();
+        for (int trial = 0; trial < 2000; trial++) {
+            rnf.fillUniform(values);
+            double sum = 0.0;
+            for (double u : values) {
+                sum += Math.exp(u);
+            }
+            rs.push(sum / values.length);
+        }
+        assertEquals(Math.E - 1.0, rs.mean(), 0.005);
+        return rs.variance();
+    }
+
+    @Test
+    public void testVarianceReduction() {
+        double standard = estimatorVariance(SamplingMode.STANDARD);
+        double antithetic = estimatorVariance(SamplingMode.ANTITHETIC);
+        double stratified = estimatorVariance(SamplingMode.STRATIFIED);
+        System.out.println(String.format("E[exp(U)] estimator variance: standard %e antithetic %e" +
+                                             " stratified %e", standard, antithetic, stratified));
+        assertTrue(antithetic < standard / 10.0);
+        assertTrue(stratified < standard / 100.0);
+    }
+
+    @Test
+    public void testStratifiedOnePerStratum() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(42L);
+        rnf.setSamplingMode(SamplingMode.STRATIFIED);
+        double[] values = new double[1000];
+        rnf.fillUniform(values);
+        boolean[] seen = new boolean[values.length];
+        for (double u : values) {
+            seen[(int) (u * values.length)] = true;
+        }
+        for (boolean b : seen) {
+            assertTrue(b);
+        }
+    }
+
+    @Test
+    public void testTopStratumBelowOne() {
+        // the largest uniform, (2^32) / (2^32 + 2), in the top of 2^23, 10^7 and 2^30 strata
+        double u = 4294967296.0 * 2.328306435454494e-10;
+        for (int n : new int[]{1 << 23, 10000000, 1 << 30}) {
+            double x = RandomNumberFactory.stratumPoint(n - 1, u, 1.0 / n);
+            assertTrue(x < 1.0);
+            assertTrue(x > 1.0 - 1.0 / n);
+            assertTrue(NormalCDFInverse.normalCDFInverse(x) < Double.POSITIVE_INFINITY);
+        }
+    }
+
+    @Test
+    public void testAntitheticPairs() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(42L);
+        rnf.setSamplingMode(SamplingMode.ANTITHETIC);
+        double[] normals = new double[11];
+        rnf.fillNormal(normals);
+        for (int i = 0; i + 1 < normals.length; i += 2) {
+            assertTrue(normals[i] == -normals[i + 1]);
+        }
+        double[] exponentials = new double[20000];
+        rnf.fillExponential(2.0, exponentials);
+        RunningStats rs = new RunningStats();
+        for (double x : exponentials) {
+            assertTrue(x >= 0.0);
+            rs.push(x);
+        }
+        assertEquals(2.0, rs.mean(), 0.02);
+    }
+
+    @Test
+    public void testDistributionsInEveryMode() {
+        // a distribution without a quantile function falls back to its own samples
+        Distribution noQuantile = new AbstractDistribution() {
+            private final Distribution uniform = new UniformDistribution(0, 1);
+
+            public double sample(RandomNumberGenerator randomNumberGenerator) {
+                return uniform.sample(randomNumberGenerator);
+            }
+
+            public double pdf(double x) {
+                return uniform.pdf(x);
+            }
+
+            public double cdf(double x) {
+                return uniform.cdf(x);
+            }
+
+            public double quantile(double p) {
+                throw new UnsupportedOperationException("no quantile");
+            }
+        };
+        Distribution[] distributions = {new BetaDistribution(7, 2), new StudentTDistribution(6),
+                                        noQuantile};
+        double[] means = {7 / 9.0, 0.0, 0.5};
+        for (SamplingMode mode : SamplingMode.values()) {
+            RandomNumberFactory rnf =
+                new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+            rnf.setSeed(7L);
+            rnf.setSamplingMode(mode);
+            for (int d = 0; d < distributions.length; d++) {
+                double[] values = new double[20000];
+                rnf.fill(distributions[d], values);
+                RunningStats rs = new RunningStats();
+                for (double x : values) {
+                    rs.push(x);
+                }
+                assertEquals(mode.name(), means[d], rs.mean(), 0.03);
+            }
+        }
+    }
+
+    @Test
+    public void testLatinHypercube() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(3L);
+        int points = 64, dimension = 5;
+        double[] block = new double[points * dimension];
+        rnf.fillLatinHypercube(block, points, dimension);
+        for (int j = 0; j < dimension; j++) {
+            boolean[] seen = new boolean[points];
+            for (int k = 0; k < points; k++) {
+                seen[(int) (block[k * dimension + j] * points)] = true;
+            }
+            for (boolean b : seen) {
+                assertTrue(b);
+            }
+        }
+    }
+}
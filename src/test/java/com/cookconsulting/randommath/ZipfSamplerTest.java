@@ -0,0 +1,107 @@
+package com.cookconsulting.randommath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compare Zipf sample frequencies with the exact probabilities k^-s / H(n, s), and check the
+ * Pareto samplers against their moments and quantiles.
+ *
+ * @author Todd Cook
+ * @since 10/19/26
+ */
+public class ZipfSamplerTest {
+
+    private static final int SAMPLES = 200000;
+
+    private static long[] frequencies(DiscreteSampler sampler, int categories) {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(20111106L);
+        long[] values = new long[SAMPLES];
+        rnf.fill(sampler, values);
+        long[] counts = new long[categories + 1];
+        for (long k : values) {
+            assertTrue(k >= 1);
+            if (k <= categories) {
+                counts[(int) k]++;
+            }
+        }
+        return counts;
+    }
+
+    @Test
+    public void testZipf() {
+        // exact probabilities of 1 .. 5 for n = 1000, s = 1.2
+        double[] expected = {0.2306398172796488, 0.1003918114256567, 0.061714722375719844,
+            0.04369807399346186, 0.0334326098397258};
+        long[] counts = frequencies(new ZipfSampler(1000, 1.2), 5);
+        for (int k = 1; k <= 5; k++) {
+            double p = counts[k] / (double) SAMPLES;
+            System.out.println(String.format("Zipf(1000, 1.2): P(%d) expected: %f computed: %f",
+                                             k, expected[k - 1], p));
+            assertEquals(expected[k - 1], p, 0.003);
+        }
+    }
+
+    @Test
+    public void testZeta() {
+        long[] counts = frequencies(new ZipfSampler(2.5), 2);
+        assertEquals(0.7454412966583299, counts[1] / (double) SAMPLES, 0.004);
+        assertEquals(0.1317766489608995, counts[2] / (double) SAMPLES, 0.003);
+    }
+
+    @Test
+    public void testUniformAndLarge() {
+        long[] counts = frequencies(new ZipfSampler(10, 0.0), 10);
+        for (int k = 1; k <= 10; k++) {
+            assertEquals(0.1, counts[k] / (double) SAMPLES, 0.004);
+        }
+        // 10^9 keys: H(n, 0.8) is about zeta(0.8) + n^0.2 / 0.2 = 311.04
+        ZipfSampler sampler = new ZipfSampler(1000000000L, 0.8);
+        counts = frequencies(sampler, 1);
+        assertEquals(1.0 / 311.04, counts[1] / (double) SAMPLES, 0.0006);
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        for (int i = 0; i < 10000; i++) {
+            long k = rnf.sample(sampler);
+            assertTrue(k >= 1 && k <= 1000000000L);
+        }
+    }
+
+    @Test
+    public void testPareto() {
+        RandomNumberFactory rnf = new RandomNumberFactory(RandomNumberAlgorithm.MERSENNE_TWISTER);
+        rnf.setSeed(42L);
+        ParetoDistribution pareto = new ParetoDistribution(2.0, 5.0);
+        double[] values = new double[SAMPLES];
+        rnf.fill(pareto, values);
+        RunningStats rs = new RunningStats();
+        for (double x : values) {
+            assertTrue(x >= 2.0);
+            rs.push(x);
+        }
+        // mean alpha x_m / (alpha - 1)
+        assertEquals(2.5, rs.mean(), 0.01);
+        assertEquals(0.75, pareto.cdf(pareto.quantile(0.75)), 1e-12);
+
+        BoundedParetoDistribution bounded = new BoundedParetoDistribution(1.0, 1000.0, 0.5);
+        rnf.fill(bounded, values);
+        int belowMedian = 0;
+        double median = bounded.quantile(0.5);
+        for (double x : values) {
+            assertTrue(x >= 1.0 && x <= 1000.0);
+            if (x < median) {
+                belowMedian++;
+            }
+        }
+        assertEquals(0.5, belowMedian / (double) SAMPLES, 0.005);
+        assertEquals(0.3, bounded.cdf(bounded.quantile(0.3)), 1e-12);
+        assertEquals(1000.0, bounded.quantile(1.0), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidZeta() {
+        new ZipfSampler(1.0);
+    }
+}